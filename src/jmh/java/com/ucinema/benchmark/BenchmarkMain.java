@@ -0,0 +1,48 @@
+package com.ucinema.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs JMH and writes the results as JSON to target/jmh-results, one file per run named after
+ * the project version and the start time, so runs of different versions can be compared.
+ * Arguments are passed on to JMH unchanged; giving -rf or -rff overrides the default output.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec -Dbenchmark="ReservationStoreBenchmark"
+ */
+public final class BenchmarkMain {
+    // Set by the benchmarks profile from the project version
+    public static final String VERSION_PROPERTY = "ucinema.version";
+    public static final Path RESULTS_DIRECTORY = Paths.get("target", "jmh-results");
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+        if (!jmhArgs.contains("-rf") && !jmhArgs.contains("-rff")) {
+            Path results = resultFile("jmh");
+            jmhArgs.addAll(0, Arrays.asList("-rf", "json", "-rff", results.toString()));
+            System.out.println("Writing results to " + results);
+        }
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+    }
+
+    /**
+     * Get a new result file in the results directory, creating the directory if needed
+     * @param prefix Kind of result, e.g. "jmh" or "footprint"
+     * @return Path of the form target/jmh-results/prefix-version-timestamp.json
+     */
+    static Path resultFile(String prefix) throws Exception {
+        Files.createDirectories(RESULTS_DIRECTORY);
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        String version = System.getProperty(VERSION_PROPERTY, "dev");
+        return RESULTS_DIRECTORY.resolve(prefix + "-" + version + "-" + timestamp + ".json");
+    }
+}
@@ -0,0 +1,97 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.model.entities.MovieSchedule;
+import com.ucinema.service.MovieScheduleService;
+import com.ucinema.util.HibernateUtil;
+import com.ucinema.util.SecondLevelCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seeding screenings through MovieScheduleService: one addSchedule() per row, each in its own
+ * session and transaction, against one addSchedules() call that saves everything in JDBC batches.
+ * A batch size of 1 turns JDBC batching off and leaves only the single transaction.
+ * Every shot starts from an empty schedules table. Per-row seeding of 100,000 screenings takes
+ * minutes, so it is measured once.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec -Dbenchmark=BulkInsertBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"1", "50"})
+    private String batchSize;
+
+    private DaoBenchmarkDatabase database;
+    private MovieScheduleService scheduleService;
+    private LocalDateTime base;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        System.setProperty(HibernateUtil.BATCH_SIZE_PROPERTY, batchSize);
+        database = DaoBenchmarkDatabase.create(0, 0, 0);
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Setup(Level.Invocation)
+    public void emptySchedules() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database.file.getAbsolutePath());
+             Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM movie_schedules");
+        }
+        // The rows went away behind Hibernate's back
+        SecondLevelCache.evictAll();
+        scheduleService = new MovieScheduleService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.delete();
+    }
+
+    /**
+     * Build the screenings: ten halls, one every three hours in each
+     */
+    private List<MovieSchedule> newSchedules() {
+        List<MovieSchedule> schedules = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            schedules.add(new MovieSchedule(1 + i % DaoBenchmarkDatabase.MOVIES, 1 + i % DaoBenchmarkDatabase.HALLS,
+                    base.plusHours(3L * (i / DaoBenchmarkDatabase.HALLS)), null, 8.0));
+        }
+        return schedules;
+    }
+
+    @Benchmark
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public int addSchedulePerRow() {
+        int saved = 0;
+        for (MovieSchedule schedule : newSchedules()) {
+            if (scheduleService.addSchedule(schedule.getMovieId(), schedule.getHallId(),
+                    schedule.getStartTime(), schedule.getPrice()) != null) {
+                saved++;
+            }
+        }
+        return saved;
+    }
+
+    @Benchmark
+    public List<MovieSchedule> addSchedulesBulk() {
+        return scheduleService.addSchedules(newSchedules());
+    }
+}
@@ -0,0 +1,101 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.dao.MovieScheduleDAO;
+import com.ucinema.dao.ReservationDAO;
+import com.ucinema.dao.StudentDAO;
+import com.ucinema.model.entities.MovieSchedule;
+import com.ucinema.model.entities.Reservation;
+import com.ucinema.model.entities.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm, single-threaded latency of the DAO queries on the hot paths, run against a seeded
+ * SQLite file (see DaoBenchmarkDatabase). Each call picks a random student, screening or seat,
+ * so hits and misses are mixed as in real use.
+ * <p>
+ * The scale is set with JMH parameters, e.g. {@code -p students=50000 -p schedules=5000
+ * -p reservations=500000}. The data is seeded with a fixed random seed, so runs at the same
+ * scale are comparable.
+ * DaoColdBenchmark and DaoConcurrentBenchmark run the same queries cold and from several threads.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec -Dbenchmark="Dao.*Benchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoBenchmark {
+
+    @Param({"5000"})
+    private int students;
+
+    @Param({"500"})
+    private int schedules;
+
+    @Param({"50000"})
+    private int reservations;
+
+    protected DaoBenchmarkDatabase database;
+    private ReservationDAO reservationDAO;
+    private MovieScheduleDAO scheduleDAO;
+    private StudentDAO studentDAO;
+
+    @Setup(Level.Trial)
+    public void createDatabase() throws Exception {
+        database = DaoBenchmarkDatabase.create(students, schedules, reservations);
+        reservationDAO = new ReservationDAO();
+        scheduleDAO = new MovieScheduleDAO();
+        studentDAO = new StudentDAO();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDatabase() {
+        database.delete();
+    }
+
+    private static int random(int bound) {
+        return 1 + ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    @Benchmark
+    public boolean isSeatReserved() {
+        String seatId = database.seatIds[random(database.seatIds.length) - 1];
+        return reservationDAO.isSeatReserved(random(schedules), seatId);
+    }
+
+    @Benchmark
+    public List<String> getReservedSeats() {
+        return reservationDAO.getReservedSeats(random(schedules));
+    }
+
+    @Benchmark
+    public List<Reservation> findByStudentId() {
+        return reservationDAO.findByStudentId(random(students));
+    }
+
+    @Benchmark
+    public List<MovieSchedule> findActiveSchedules() {
+        return scheduleDAO.findActiveSchedules();
+    }
+
+    @Benchmark
+    public boolean isHallAvailable() {
+        int scheduleId = random(schedules);
+        // Either an hour into a screening or in the gap after it, so half the checks find a conflict
+        LocalDateTime start = database.startOf(scheduleId).plusMinutes(ThreadLocalRandom.current().nextBoolean() ? 60 : 125);
+        return scheduleDAO.isHallAvailable(DaoBenchmarkDatabase.hallOf(scheduleId), start, start.plusMinutes(50), null);
+    }
+
+    @Benchmark
+    public Student authenticate() {
+        int studentId = random(students);
+        return studentDAO.authenticate(DaoBenchmarkDatabase.emailOf(studentId), DaoBenchmarkDatabase.passwordOf(studentId));
+    }
+}
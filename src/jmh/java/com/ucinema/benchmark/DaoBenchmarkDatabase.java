@@ -0,0 +1,208 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.model.datastructures.SeatLayout;
+import com.ucinema.service.HallLayoutTemplates;
+import com.ucinema.util.HibernateUtil;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * A scratch SQLite database seeded with a fixed random seed, so every run at the same scale
+ * queries the same rows.
+ * <p>
+ * Halls have 200 seats. Screenings are spread over the halls in three-hour slots, half of them
+ * in the past and half still to come. Reservations go to random free seats of random screenings
+ * for random students, and one in ten is cancelled. Rows are inserted with explicit IDs through
+ * plain JDBC after Hibernate has created the schema.
+ */
+final class DaoBenchmarkDatabase {
+    static final int HALLS = 10;
+    static final int MOVIES = 50;
+    static final int SEATS_PER_HALL = 200;
+    static final long SEED = 42;
+
+    final File file;
+    final int students;
+    final int schedules;
+    final int reservations;
+    final LocalDateTime firstStart;
+    final String[] seatIds;
+
+    private DaoBenchmarkDatabase(File file, int students, int schedules, int reservations, LocalDateTime firstStart) {
+        this.file = file;
+        this.students = students;
+        this.schedules = schedules;
+        this.reservations = reservations;
+        this.firstStart = firstStart;
+
+        SeatLayout layout = HallLayoutTemplates.forCapacity(SEATS_PER_HALL);
+        this.seatIds = new String[layout.getSeatCount()];
+        for (int ordinal = 0; ordinal < seatIds.length; ordinal++) {
+            seatIds[ordinal] = layout.getSeatId(ordinal);
+        }
+    }
+
+    /**
+     * Create and seed a database, and point HibernateUtil at it
+     * @param students Number of students
+     * @param schedules Number of screenings
+     * @param reservations Number of reservations, at most 90% of all seats
+     * @return The seeded database
+     */
+    static DaoBenchmarkDatabase create(int students, int schedules, int reservations) throws Exception {
+        File file = Files.createTempFile("ucinema-dao", ".db").toFile();
+        file.deleteOnExit();
+        System.setProperty(HibernateUtil.DATABASE_URL_PROPERTY, "jdbc:sqlite:" + file.getAbsolutePath());
+        HibernateUtil.getSessionFactory();
+
+        // Half of the screenings start before today
+        int slotsPerHall = (schedules + HALLS - 1) / HALLS;
+        LocalDateTime firstStart = LocalDate.now().atStartOfDay().minusHours(3L * slotsPerHall / 2);
+        DaoBenchmarkDatabase database = new DaoBenchmarkDatabase(file, students, schedules,
+                Math.min(reservations, schedules * SEATS_PER_HALL * 9 / 10), firstStart);
+        database.seed();
+        return database;
+    }
+
+    /**
+     * Get the start time of a screening
+     * @param scheduleId The schedule ID, from 1
+     * @return The start time
+     */
+    LocalDateTime startOf(int scheduleId) {
+        return firstStart.plusHours(3L * ((scheduleId - 1) / HALLS));
+    }
+
+    static int hallOf(int scheduleId) {
+        return 1 + (scheduleId - 1) % HALLS;
+    }
+
+    static String emailOf(int studentId) {
+        return "student" + studentId + "@university.edu";
+    }
+
+    static String passwordOf(int studentId) {
+        return "password" + studentId;
+    }
+
+    private void seed() throws Exception {
+        long start = System.nanoTime();
+        Random random = new Random(SEED);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath())) {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO students (id, name, email, password, student_id, created_at, updated_at) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                for (int id = 1; id <= students; id++) {
+                    insert.setInt(1, id);
+                    insert.setString(2, "Student " + id);
+                    insert.setString(3, emailOf(id));
+                    insert.setString(4, passwordOf(id));
+                    insert.setString(5, "S" + id);
+                    insert.setTimestamp(6, now);
+                    insert.setTimestamp(7, now);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO halls (id, name, capacity, location, type, seating_layout, created_at, updated_at) " +
+                            "VALUES (?, ?, ?, 'Campus', 'standard', ?, ?, ?)")) {
+                for (int id = 1; id <= HALLS; id++) {
+                    insert.setInt(1, id);
+                    insert.setString(2, "Hall " + id);
+                    insert.setInt(3, SEATS_PER_HALL);
+                    insert.setString(4, HallLayoutTemplates.describe(SEATS_PER_HALL));
+                    insert.setTimestamp(5, now);
+                    insert.setTimestamp(6, now);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO movies (id, title, description, duration, release_date, genre, director, rating, " +
+                            "created_at, updated_at) VALUES (?, ?, '', 120, ?, 'Drama', 'Nobody', 'PG', ?, ?)")) {
+                for (int id = 1; id <= MOVIES; id++) {
+                    insert.setInt(1, id);
+                    insert.setString(2, "Movie " + id);
+                    insert.setDate(3, java.sql.Date.valueOf(LocalDate.of(2024, 1, 1)));
+                    insert.setTimestamp(4, now);
+                    insert.setTimestamp(5, now);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO movie_schedules (id, movie_id, hall_id, start_time, end_time, price, is_active, " +
+                            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, 8.0, 1, ?, ?)")) {
+                for (int id = 1; id <= schedules; id++) {
+                    insert.setInt(1, id);
+                    insert.setInt(2, 1 + random.nextInt(MOVIES));
+                    insert.setInt(3, hallOf(id));
+                    insert.setTimestamp(4, Timestamp.valueOf(startOf(id)));
+                    insert.setTimestamp(5, Timestamp.valueOf(startOf(id).plusMinutes(120)));
+                    insert.setTimestamp(6, now);
+                    insert.setTimestamp(7, now);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+
+            boolean[] taken = new boolean[schedules * seatIds.length];
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO reservations (id, student_id, schedule_id, seat_id, reservation_time, price, status, " +
+                            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, 8.0, ?, ?, ?)")) {
+                for (int id = 1; id <= reservations; id++) {
+                    int slot;
+                    do {
+                        slot = random.nextInt(taken.length);
+                    } while (taken[slot]);
+                    boolean cancelled = random.nextInt(10) == 0;
+                    taken[slot] = !cancelled;
+
+                    insert.setInt(1, id);
+                    insert.setInt(2, 1 + random.nextInt(students));
+                    insert.setInt(3, 1 + slot / seatIds.length);
+                    insert.setString(4, seatIds[slot % seatIds.length]);
+                    // A booking history: one minute per four reservations, so some share a time
+                    insert.setTimestamp(5, Timestamp.valueOf(
+                            now.toLocalDateTime().minusMinutes((reservations - id) / 4)));
+                    insert.setString(6, cancelled ? "cancelled" : "confirmed");
+                    insert.setTimestamp(7, now);
+                    insert.setTimestamp(8, now);
+                    insert.addBatch();
+                    if (id % 10_000 == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+        }
+
+        System.out.printf("Seeded %,d students, %,d screenings and %,d reservations in %d ms%n",
+                students, schedules, reservations, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Close Hibernate and delete the database file
+     */
+    void delete() {
+        HibernateUtil.shutdown();
+        file.delete();
+    }
+}
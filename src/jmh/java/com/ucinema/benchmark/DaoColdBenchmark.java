@@ -0,0 +1,26 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.util.HibernateUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The DaoBenchmark queries measured cold: each measurement is a single call made right after the
+ * SessionFactory has been rebuilt, so it pays for a new connection, empty statement caches and
+ * SQLite's first reads of the file. The operating system's file cache stays warm.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec -Dbenchmark="DaoColdBenchmark"
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+public class DaoColdBenchmark extends DaoBenchmark {
+
+    @Setup(Level.Iteration)
+    public void restartHibernate() {
+        HibernateUtil.shutdown();
+        HibernateUtil.getSessionFactory();
+    }
+}
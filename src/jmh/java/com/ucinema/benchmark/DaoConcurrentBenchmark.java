@@ -0,0 +1,13 @@
+package com.ucinema.benchmark;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * The DaoBenchmark queries, warm, from eight threads at once sharing one SessionFactory.
+ * Change the thread count with JMH's -t option.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec -Dbenchmark="DaoConcurrentBenchmark"
+ */
+@Threads(8)
+public class DaoConcurrentBenchmark extends DaoBenchmark {
+}
@@ -0,0 +1,155 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.model.datastructures.ReservationStore;
+import com.ucinema.model.datastructures.ScheduleBST;
+import com.ucinema.model.datastructures.SeatBlockAllocator;
+import com.ucinema.model.datastructures.SeatLayout;
+import com.ucinema.model.datastructures.SeatOccupancy;
+import com.ucinema.model.datastructures.StudentHashTable;
+import com.ucinema.model.entities.MovieSchedule;
+import com.ucinema.model.entities.Reservation;
+import com.ucinema.model.entities.Student;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Reports the retained heap of each in-memory structure at a realistic size and at 100 times
+ * that size, and writes the figures as JSON to target/jmh-results next to the JMH results.
+ * <p>
+ * The entities are created before measuring and stay reachable throughout, so the figures are
+ * the cost of the structure itself (nodes, tables and indexes), not of the data it holds.
+ * Each HallGraph hall gets its own layout here; halls of the same capacity share one in the
+ * application, so that figure is an upper bound.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec -Dbenchmark.main=com.ucinema.benchmark.DataStructureFootprint
+ */
+public class DataStructureFootprint {
+    private final List<String> results = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        DataStructureFootprint footprint = new DataStructureFootprint();
+        System.out.printf("%-20s %10s %15s %12s%n", "Structure", "Entries", "Retained bytes", "Bytes/entry");
+        for (int size : new int[]{10_000, 1_000_000}) {
+            footprint.measure("StudentHashTable", size, DataStructureFootprint::studentTable);
+            footprint.measure("ReservationStore", size, DataStructureFootprint::reservationStore);
+        }
+        for (int size : new int[]{1_000, 100_000}) {
+            footprint.measure("ScheduleBST", size, DataStructureFootprint::scheduleTree);
+        }
+        for (int halls : new int[]{5, 500}) {
+            footprint.measure("HallGraph (halls)", halls, count -> measured(null, () -> HallGraphBenchmark.buildCompact(count)));
+        }
+        for (int scale : new int[]{1, 100}) {
+            footprint.measure("SeatBlockAllocator", 209 * scale, seats -> seatState(scale));
+        }
+        footprint.write();
+    }
+
+    private void measure(String name, int size, IntFunction<Measured> builder) {
+        Measured measured = builder.apply(size);
+        double perEntry = (double) measured.bytes / size;
+        System.out.printf("%-20s %,10d %,15d %,12.1f%n", name, size, measured.bytes, perEntry);
+        results.add(String.format("  {\"structure\": \"%s\", \"entries\": %d, \"retainedBytes\": %d, \"bytesPerEntry\": %.1f}",
+                name, size, measured.bytes, perEntry));
+    }
+
+    private void write() throws Exception {
+        Path file = BenchmarkMain.resultFile("footprint");
+        Files.writeString(file, "[\n" + String.join(",\n", results) + "\n]\n");
+        System.out.println("Wrote " + file);
+    }
+
+    private static Measured studentTable(int size) {
+        Student[] students = new Student[size];
+        for (int i = 0; i < size; i++) {
+            students[i] = new Student("Student " + i, "s" + i + "@university.edu", "password", "S" + i);
+            students[i].setId(i + 1);
+        }
+        return measured(students, () -> {
+            StudentHashTable table = new StudentHashTable();
+            for (Student student : students) {
+                table.insert(student);
+            }
+            return table;
+        });
+    }
+
+    private static Measured reservationStore(int size) {
+        Reservation[] reservations = new Reservation[size];
+        for (int i = 0; i < size; i++) {
+            reservations[i] = new Reservation(1 + i % Math.max(1, size / 4), 1 + i % Math.max(1, size / 100), "A1", 8.0);
+            reservations[i].setId(i + 1);
+        }
+        return measured(reservations, () -> {
+            ReservationStore store = new ReservationStore();
+            for (Reservation reservation : reservations) {
+                store.add(reservation);
+            }
+            return store;
+        });
+    }
+
+    private static Measured scheduleTree(int size) {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 10, 0);
+        MovieSchedule[] schedules = new MovieSchedule[size];
+        for (int i = 0; i < size; i++) {
+            schedules[i] = new MovieSchedule(i % 50, i % 10, base.plusMinutes(i * 15L),
+                    base.plusMinutes(i * 15L + 120), 10.0);
+            schedules[i].setId(i + 1);
+        }
+        return measured(schedules, () -> {
+            ScheduleBST tree = new ScheduleBST();
+            for (MovieSchedule schedule : schedules) {
+                tree.insert(schedule);
+            }
+            return tree;
+        });
+    }
+
+    // Occupancy plus allocator for one screening; the layout is shared by all screenings of a hall
+    private static Measured seatState(int scale) {
+        int factor = (int) Math.round(Math.sqrt(scale));
+        SeatLayout layout = SeatBlockAllocatorBenchmark.buildLayout(11 * factor, 19 * factor);
+        return measured(layout, () -> {
+            SeatOccupancy occupancy = new SeatOccupancy(layout.getSeatCount());
+            return new Object[]{occupancy, new SeatBlockAllocator(layout, occupancy)};
+        });
+    }
+
+    /**
+     * Build a structure from input created beforehand, counting only the structure's own heap
+     */
+    private static Measured measured(Object input, Supplier<Object> builder) {
+        long before = usedHeap();
+        Object structure = builder.get();
+        long bytes = usedHeap() - before;
+        return new Measured(input, structure, bytes);
+    }
+
+    // Holds the input and the structure so neither is collected before the measurement is read
+    private static final class Measured {
+        final Object input;
+        final Object structure;
+        final long bytes;
+
+        Measured(Object input, Object structure, long bytes) {
+            this.input = input;
+            this.structure = structure;
+            this.bytes = bytes;
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,74 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.dao.HallDAO;
+import com.ucinema.dao.MovieDAO;
+import com.ucinema.dao.MovieScheduleDAO;
+import com.ucinema.model.entities.Hall;
+import com.ucinema.model.entities.Movie;
+import com.ucinema.model.entities.MovieSchedule;
+import com.ucinema.util.SecondLevelCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The lookups the student screens make for every list cell and schedule row, with the
+ * second-level cache off and on. With the cache on, the entities and query results come from
+ * memory after the first call; the session and its read connection are still opened each time.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec -Dbenchmark=EntityCacheBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityCacheBenchmark {
+
+    @Param({"off", "on"})
+    private String cache;
+
+    private DaoBenchmarkDatabase database;
+    private MovieDAO movieDAO;
+    private HallDAO hallDAO;
+    private MovieScheduleDAO scheduleDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        System.setProperty(SecondLevelCache.ENABLED_PROPERTY, String.valueOf(cache.equals("on")));
+        database = DaoBenchmarkDatabase.create(100, 500, 0);
+        movieDAO = new MovieDAO();
+        hallDAO = new HallDAO();
+        scheduleDAO = new MovieScheduleDAO();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println();
+        System.out.println(SecondLevelCache.getStatistics());
+        database.delete();
+    }
+
+    @Benchmark
+    public Movie findMovieById() {
+        return movieDAO.findById(1 + ThreadLocalRandom.current().nextInt(DaoBenchmarkDatabase.MOVIES));
+    }
+
+    @Benchmark
+    public Hall findHallById() {
+        return hallDAO.findById(1 + ThreadLocalRandom.current().nextInt(DaoBenchmarkDatabase.HALLS));
+    }
+
+    @Benchmark
+    public List<Movie> findAllMovies() {
+        return movieDAO.findAll();
+    }
+
+    @Benchmark
+    public List<MovieSchedule> findActiveSchedules() {
+        return scheduleDAO.findActiveSchedules();
+    }
+}
@@ -0,0 +1,124 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.model.datastructures.HallGraph;
+import com.ucinema.model.entities.Hall;
+import com.ucinema.model.entities.Movie;
+import com.ucinema.model.entities.MovieSchedule;
+import com.ucinema.model.entities.Reservation;
+import com.ucinema.model.entities.Student;
+import com.ucinema.service.HallService;
+import com.ucinema.service.MovieScheduleService;
+import com.ucinema.service.MovieService;
+import com.ucinema.service.ReservationEngine;
+import com.ucinema.service.ReservationService;
+import com.ucinema.service.SeatHoldService;
+import com.ucinema.service.StudentService;
+import com.ucinema.util.HibernateUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of booking a group of seats on a scratch SQLite database: one
+ * {@code makeReservation} call per seat, each in its own transaction, against a single
+ * {@code makeGroupReservation} call that inserts every seat as one JDBC batch.
+ * <p>
+ * Every invocation books free seats and the reservations are cancelled again outside the
+ * measured time.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec -Dbenchmark="GroupReservationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupReservationBenchmark {
+
+    @Param({"1", "6", "10"})
+    private int groupSize;
+
+    private File database;
+    private SeatHoldService seatHolds;
+    private ReservationEngine engine;
+    private ReservationService reservationService;
+    private int studentId;
+    private int scheduleId;
+    private List<String> seatIds;
+    private int nextSeat;
+    private List<String> group;
+    private final List<Reservation> booked = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = Files.createTempFile("ucinema-group", ".db").toFile();
+        System.setProperty(HibernateUtil.DATABASE_URL_PROPERTY, "jdbc:sqlite:" + database.getAbsolutePath());
+        HibernateUtil.getSessionFactory();
+
+        Student student = new StudentService().registerStudent("Bench", "bench@university.edu", "pw", "BENCH1");
+        MovieService movieService = new MovieService();
+        Movie movie = movieService.addMovie("Bench", "", 120, LocalDate.now(), "Drama", "Nobody", "PG");
+        HallService hallService = new HallService();
+        Hall hall = hallService.addHall("Bench Hall", 200, "Campus", "standard");
+        MovieScheduleService scheduleService = new MovieScheduleService(movieService);
+        MovieSchedule schedule = scheduleService.addSchedule(movie.getId(), hall.getId(),
+                LocalDateTime.now().plusDays(1), 10.0);
+
+        seatHolds = new SeatHoldService(SeatHoldService.DEFAULT_TTL_MILLIS);
+        engine = new ReservationEngine(scheduleService, hallService, seatHolds, ReservationEngine.defaultShardCount());
+        reservationService = new ReservationService(scheduleService, hallService, seatHolds, engine);
+        studentId = student.getId();
+        scheduleId = schedule.getId();
+        seatIds = new ArrayList<>();
+        for (HallGraph.Seat seat : hallService.getSeatsInHall(hall.getId())) {
+            seatIds.add(seat.getId());
+        }
+        reservationService.getSeatOccupancy(scheduleId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.shutdown();
+        seatHolds.shutdown();
+        HibernateUtil.shutdown();
+        database.delete();
+    }
+
+    @Setup(Level.Invocation)
+    public void pickSeats() {
+        group = new ArrayList<>();
+        for (int i = 0; i < groupSize; i++) {
+            group.add(seatIds.get(nextSeat));
+            nextSeat = (nextSeat + 1) % seatIds.size();
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void cancelBooked() {
+        for (Reservation reservation : booked) {
+            reservationService.cancelReservation(reservation.getId());
+        }
+        booked.clear();
+    }
+
+    @Benchmark
+    public int perSeat() {
+        for (String seatId : group) {
+            booked.add(reservationService.makeReservation(studentId, scheduleId, seatId));
+        }
+        return booked.size();
+    }
+
+    @Benchmark
+    public int batched() {
+        booked.addAll(reservationService.makeGroupReservation(studentId, scheduleId, group));
+        return booked.size();
+    }
+}
@@ -0,0 +1,247 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.model.datastructures.HallGraph;
+import com.ucinema.model.datastructures.SeatLayout;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the CSR-backed HallGraph with the previous map-of-lists representation
+ * with 5 halls (the campus today) and 500 halls of 11 x 19 seats (diagonal adjacency) loaded.
+ * <p>
+ * Build benchmarks report allocated bytes per hall set when run with {@code -prof gc}
+ * (see gc.alloc.rate.norm). For retained heap, run this class's main method.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec -Dbenchmark="HallGraphBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HallGraphBenchmark {
+    private static final int ROWS = 11;
+    private static final int COLUMNS = 19;
+
+    @Param({"5", "500"})
+    private int hallCount;
+
+    private HallGraph compactGraph;
+    private MapHallGraph mapGraph;
+    private int probeHallId;
+    private String probeSeatId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        compactGraph = buildCompact(hallCount);
+        mapGraph = buildMap(hallCount);
+        probeHallId = hallCount / 2;
+        probeSeatId = seatId(ROWS / 2, COLUMNS / 2);
+    }
+
+    @Benchmark
+    public HallGraph buildCompactGraph() {
+        return buildCompact(hallCount);
+    }
+
+    @Benchmark
+    public MapHallGraph buildMapGraph() {
+        return buildMap(hallCount);
+    }
+
+    @Benchmark
+    public long traverseAllEdgesCompact() {
+        long sum = 0;
+        for (int hallId = 0; hallId < hallCount; hallId++) {
+            SeatLayout layout = compactGraph.getLayout(hallId);
+            for (int seat = 0; seat < layout.getSeatCount(); seat++) {
+                for (int i = layout.neighbourStart(seat); i < layout.neighbourEnd(seat); i++) {
+                    sum += layout.neighbourAt(i);
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long traverseAllEdgesMap() {
+        long sum = 0;
+        for (List<String> neighbours : mapGraph.adjacencyList.values()) {
+            for (String neighbour : neighbours) {
+                sum += mapGraph.seats.get(neighbour).column;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public HallGraph.Seat findSeatCompact() {
+        return compactGraph.getSeat(probeHallId, probeSeatId);
+    }
+
+    @Benchmark
+    public MapSeat findSeatMap() {
+        return mapGraph.seats.get(probeHallId + ":" + probeSeatId);
+    }
+
+    @Benchmark
+    public List<String> adjacentSeatsCompact() {
+        return compactGraph.getAdjacentSeats(probeHallId, probeSeatId);
+    }
+
+    @Benchmark
+    public List<String> adjacentSeatsMap() {
+        return mapGraph.adjacencyList.get(probeHallId + ":" + probeSeatId);
+    }
+
+    @Benchmark
+    public void seatsInHallCompact(Blackhole blackhole) {
+        blackhole.consume(compactGraph.getSeatsInHall(probeHallId));
+    }
+
+    @Benchmark
+    public void seatsInHallMap(Blackhole blackhole) {
+        blackhole.consume(mapGraph.getSeatsInHall(probeHallId));
+    }
+
+    static HallGraph buildCompact(int hallCount) {
+        HallGraph graph = new HallGraph();
+        for (int hallId = 0; hallId < hallCount; hallId++) {
+            SeatLayout.Builder builder = new SeatLayout.Builder();
+            int[][] ordinals = new int[ROWS][COLUMNS];
+            for (int row = 0; row < ROWS; row++) {
+                for (int column = 0; column < COLUMNS; column++) {
+                    ordinals[row][column] = builder.addSeat(seatId(row, column), row, column, "standard");
+                }
+            }
+            forEachEdge((r1, c1, r2, c2) -> builder.addEdge(ordinals[r1][c1], ordinals[r2][c2]));
+            graph.addHall(hallId, builder.build());
+        }
+        return graph;
+    }
+
+    static MapHallGraph buildMap(int hallCount) {
+        MapHallGraph graph = new MapHallGraph();
+        for (int hallId = 0; hallId < hallCount; hallId++) {
+            final int hall = hallId;
+            for (int row = 0; row < ROWS; row++) {
+                for (int column = 0; column < COLUMNS; column++) {
+                    graph.addSeat(new MapSeat(hall + ":" + seatId(row, column), hall, row, column));
+                }
+            }
+            forEachEdge((r1, c1, r2, c2) -> graph.addEdge(hall + ":" + seatId(r1, c1), hall + ":" + seatId(r2, c2)));
+        }
+        return graph;
+    }
+
+    private static String seatId(int row, int column) {
+        return (char) ('A' + row) + String.valueOf(column + 1);
+    }
+
+    private interface EdgeSink {
+        void accept(int row1, int column1, int row2, int column2);
+    }
+
+    // Right, down-left, down and down-right neighbours give every 8-way adjacency once
+    private static void forEachEdge(EdgeSink sink) {
+        for (int row = 0; row < ROWS; row++) {
+            for (int column = 0; column < COLUMNS; column++) {
+                if (column + 1 < COLUMNS) {
+                    sink.accept(row, column, row, column + 1);
+                }
+                if (row + 1 < ROWS) {
+                    if (column > 0) {
+                        sink.accept(row, column, row + 1, column - 1);
+                    }
+                    sink.accept(row, column, row + 1, column);
+                    if (column + 1 < COLUMNS) {
+                        sink.accept(row, column, row + 1, column + 1);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Seat record of the previous representation
+     */
+    public static final class MapSeat {
+        final String id;
+        final int hallId;
+        final int row;
+        final int column;
+        final String type = "standard";
+        boolean reserved;
+
+        MapSeat(String id, int hallId, int row, int column) {
+            this.id = id;
+            this.hallId = hallId;
+            this.row = row;
+            this.column = column;
+        }
+    }
+
+    /**
+     * The previous HallGraph storage: one map of seats and one map of adjacency lists for all halls
+     */
+    public static final class MapHallGraph {
+        final Map<String, MapSeat> seats = new HashMap<>();
+        final Map<String, List<String>> adjacencyList = new HashMap<>();
+
+        void addSeat(MapSeat seat) {
+            seats.put(seat.id, seat);
+            adjacencyList.put(seat.id, new ArrayList<>());
+        }
+
+        void addEdge(String seat1Id, String seat2Id) {
+            adjacencyList.get(seat1Id).add(seat2Id);
+            adjacencyList.get(seat2Id).add(seat1Id);
+        }
+
+        List<MapSeat> getSeatsInHall(int hallId) {
+            List<MapSeat> hallSeats = new ArrayList<>();
+            for (MapSeat seat : seats.values()) {
+                if (seat.hallId == hallId) {
+                    hallSeats.add(seat);
+                }
+            }
+            return hallSeats;
+        }
+    }
+
+    /**
+     * Print the retained heap of both representations with 500 halls loaded
+     * @param args Unused
+     */
+    public static void main(String[] args) {
+        int halls = 500;
+        long before = usedHeap();
+        HallGraph compact = buildCompact(halls);
+        long compactBytes = usedHeap() - before;
+
+        before = usedHeap();
+        MapHallGraph map = buildMap(halls);
+        long mapBytes = usedHeap() - before;
+
+        System.out.printf("Retained heap for %d halls of %d seats:%n", halls, ROWS * COLUMNS);
+        System.out.printf("  CSR SeatLayout : %,d bytes%n", compactBytes);
+        System.out.printf("  Map of lists   : %,d bytes%n", mapBytes);
+        // Keep both graphs reachable until after measurement
+        System.out.println(compact.getSeatCount(0) + map.seats.size() > 0 ? "" : "empty");
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,81 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.dao.ReservationDAO;
+import com.ucinema.model.entities.Reservation;
+import com.ucinema.util.HibernateUtil;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetching one page of the reservation history, newest first, near the start and 90% of the way in.
+ * ReservationDAO.findPage() continues from the last reservation of the previous page; the offset
+ * variant is the same query with OFFSET, which reads and discards every row before the page.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec -Dbenchmark=KeysetPageBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeysetPageBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"100000", "1000000"})
+    private int reservations;
+
+    private DaoBenchmarkDatabase database;
+    private ReservationDAO reservationDAO;
+    private int deepOffset;
+    private Reservation nearCursor;
+    private Reservation deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = DaoBenchmarkDatabase.create(reservations / 10, reservations / 100, reservations);
+        reservationDAO = new ReservationDAO();
+        deepOffset = reservations / 10 * 9;
+        nearCursor = offsetPage(PAGE_SIZE - 1, 1).get(0);
+        deepCursor = offsetPage(deepOffset - 1, 1).get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.delete();
+    }
+
+    private List<Reservation> offsetPage(int offset, int limit) {
+        try (Session session = HibernateUtil.openReadSession()) {
+            return session.createQuery("FROM Reservation r ORDER BY r.reservationTime DESC, r.id DESC",
+                            Reservation.class)
+                    .setFirstResult(offset)
+                    .setMaxResults(limit)
+                    .list();
+        }
+    }
+
+    @Benchmark
+    public List<Reservation> offsetSecondPage() {
+        return offsetPage(PAGE_SIZE, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Reservation> keysetSecondPage() {
+        return reservationDAO.findPage(nearCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Reservation> offsetDeepPage() {
+        return offsetPage(deepOffset, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Reservation> keysetDeepPage() {
+        return reservationDAO.findPage(deepCursor, PAGE_SIZE);
+    }
+}
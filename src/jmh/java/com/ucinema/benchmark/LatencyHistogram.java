@@ -0,0 +1,98 @@
+package com.ucinema.benchmark;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with log-linear buckets.
+ * <p>
+ * Each power of two is split into 16 linear sub-buckets, so any recorded value is reported
+ * within about 6% of its true value while the whole range from 1 ns to hours fits in 1024
+ * counters. Safe to record into from many threads at once.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record one latency
+     * @param nanos Latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(1, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        total.incrementAndGet();
+        long seen = max.get();
+        while (value > seen && !max.compareAndSet(seen, value)) {
+            seen = max.get();
+        }
+    }
+
+    private static int bucketOf(long value) {
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent < SUB_BUCKET_BITS) {
+            return (int) value;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * Get the number of recorded values
+     * @return The count
+     */
+    public long getCount() {
+        return total.get();
+    }
+
+    /**
+     * Get the value below which a fraction of the recorded values fall
+     * @param fraction Between 0 and 1, e.g. 0.99 for p99
+     * @return Latency in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getPercentile(double fraction) {
+        long count = total.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length(); bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(bucket), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Get the largest recorded value
+     * @return Latency in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Format the count and the p50, p99, p99.9 and maximum latencies in milliseconds
+     * @return One summary line
+     */
+    public String summary() {
+        return String.format("n=%-7d p50=%8.2f  p99=%8.2f  p999=%8.2f  max=%8.2f ms", getCount(),
+                getPercentile(0.50) / 1e6, getPercentile(0.99) / 1e6, getPercentile(0.999) / 1e6, getMax() / 1e6);
+    }
+}
@@ -0,0 +1,422 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.model.datastructures.HallGraph;
+import com.ucinema.model.datastructures.SeatOccupancy;
+import com.ucinema.model.entities.Hall;
+import com.ucinema.model.entities.Movie;
+import com.ucinema.model.entities.MovieSchedule;
+import com.ucinema.model.entities.Reservation;
+import com.ucinema.service.HallService;
+import com.ucinema.service.MovieScheduleService;
+import com.ucinema.service.MovieService;
+import com.ucinema.service.ReservationEngine;
+import com.ucinema.service.ReservationService;
+import com.ucinema.util.ApplicationContext;
+import com.ucinema.util.HibernateUtil;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless load generator for the reservation path.
+ * <p>
+ * Seeds a scratch database with halls, movies and screenings, then lets many simulated students
+ * go through the same steps as the student screens, all at once and against the real service
+ * layer from {@link ApplicationContext}. Each student browses the movies and a movie's
+ * screenings, opens the seat map, holds seats and books them, either one seat or a group. Some
+ * students then cancel, and students who find a screening sold out may join its waitlist.
+ * <p>
+ * The run reports throughput, latency percentiles per step, and error and conflict rates.
+ * Afterwards it checks the database for double bookings and compares it with the in-memory
+ * seat state. The process exits with status 1 if any invariant is broken.
+ * <p>
+ * Options are key=value pairs, for example
+ * {@code students=5000 halls=4 seats=200 screenings=8 groupRate=0.2 maxGroup=4 cancelRate=0.1
+ * waitlistRate=0.5 thinkMillis=20 threads=virtual}. {@code threads} is {@code virtual} (one
+ * virtual thread per student; needs a JDK with virtual threads, otherwise falls back to
+ * {@code platform}), {@code platform} (one platform thread per student) or a number (a fixed
+ * pool of that many platform threads).
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec
+ *     -Dbenchmark.main=com.ucinema.benchmark.LoadSimulator -Dbenchmark="students=5000 threads=platform"
+ */
+public class LoadSimulator {
+    private static final String[] STEPS = {"browse", "seatMap", "hold", "book", "groupBook", "cancel", "waitlist"};
+
+    private final Map<String, String> options;
+    private final Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+    private final AtomicLong sessions = new AtomicLong();
+    private final AtomicLong seatsBooked = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong soldOut = new AtomicLong();
+
+    private ReservationService reservationService;
+    private MovieScheduleService scheduleService;
+    private MovieService movieService;
+    private HallService hallService;
+    private int firstStudentId;
+
+    private LoadSimulator(Map<String, String> options) {
+        this.options = options;
+        for (String step : STEPS) {
+            latencies.put(step, new LatencyHistogram());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            options.put(arg.substring(0, split), arg.substring(split + 1));
+        }
+        boolean ok = new LoadSimulator(options).run();
+        System.exit(ok ? 0 : 1);
+    }
+
+    private int intOption(String key, int defaultValue) {
+        return options.containsKey(key) ? Integer.parseInt(options.get(key)) : defaultValue;
+    }
+
+    private double doubleOption(String key, double defaultValue) {
+        return options.containsKey(key) ? Double.parseDouble(options.get(key)) : defaultValue;
+    }
+
+    private boolean run() throws Exception {
+        int students = intOption("students", 5000);
+        String threads = options.getOrDefault("threads", "virtual");
+
+        File database = Files.createTempFile("ucinema-load", ".db").toFile();
+        database.deleteOnExit();
+        String url = "jdbc:sqlite:" + database.getAbsolutePath();
+        System.setProperty(HibernateUtil.DATABASE_URL_PROPERTY, url);
+        HibernateUtil.getSessionFactory();
+
+        List<Integer> scheduleIds = seed(url, students);
+        ApplicationContext context = ApplicationContext.start();
+        reservationService = context.getReservationService();
+        scheduleService = context.getScheduleService();
+        movieService = context.getMovieService();
+        hallService = context.getHallService();
+
+        ExecutorService executor = createExecutor(threads, students);
+        System.out.println("Simulating " + students + " students with options " + options);
+        CountDownLatch startGate = new CountDownLatch(1);
+        for (int i = 0; i < students; i++) {
+            int studentId = firstStudentId + i;
+            executor.execute(() -> {
+                try {
+                    startGate.await();
+                    simulateStudent(studentId);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    errors.incrementAndGet();
+                    e.printStackTrace();
+                }
+            });
+        }
+        long start = System.nanoTime();
+        startGate.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        report(seconds);
+        boolean ok = verify(url, scheduleIds);
+        ApplicationContext.shutdown();
+        HibernateUtil.shutdown();
+        return ok;
+    }
+
+    /**
+     * Create the executor for the simulated students
+     */
+    private ExecutorService createExecutor(String threads, int students) {
+        if (threads.equals("virtual")) {
+            try {
+                // Looked up reflectively so the simulator still builds for Java 17
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                System.out.println("Using one virtual thread per student");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.out.println("Virtual threads are not available on Java " +
+                        Runtime.version().feature() + "; using one platform thread per student");
+                threads = "platform";
+            }
+        }
+        if (threads.equals("platform")) {
+            return Executors.newFixedThreadPool(students);
+        }
+        int poolSize = Integer.parseInt(threads);
+        System.out.println("Using a pool of " + poolSize + " platform threads");
+        return Executors.newFixedThreadPool(poolSize);
+    }
+
+    /**
+     * Seed halls, movies, screenings and students
+     * @return IDs of the seeded screenings
+     */
+    private List<Integer> seed(String url, int students) throws Exception {
+        int halls = intOption("halls", 4);
+        int seats = intOption("seats", 200);
+        int screenings = intOption("screenings", 8);
+
+        MovieService seedMovies = new MovieService();
+        HallService seedHalls = new HallService();
+        MovieScheduleService seedSchedules = new MovieScheduleService(seedMovies);
+        List<Integer> scheduleIds = new ArrayList<>();
+        List<Hall> hallList = new ArrayList<>();
+        for (int i = 0; i < halls; i++) {
+            hallList.add(seedHalls.addHall("Load Hall " + i, seats, "Campus", "standard"));
+        }
+        for (int i = 0; i < screenings; i++) {
+            Movie movie = seedMovies.addMovie("Load Movie " + (i % 3), "", 100, LocalDate.now(), "Drama", "Nobody", "PG");
+            Hall hall = hallList.get(i % hallList.size());
+            // Screenings in the same hall are a day apart so they never conflict
+            MovieSchedule schedule = seedSchedules.addSchedule(movie.getId(), hall.getId(),
+                    LocalDateTime.now().plusDays(1 + i), 8.0);
+            scheduleIds.add(schedule.getId());
+        }
+
+        // Students go straight into the table in one transaction; registering 5,000 one by one takes minutes
+        try (Connection connection = DriverManager.getConnection(url)) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO students (name, email, password, student_id, created_at, updated_at) " +
+                            "VALUES (?, ?, 'pw', ?, ?, ?)")) {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                for (int i = 0; i < students; i++) {
+                    insert.setString(1, "Load Student " + i);
+                    insert.setString(2, "load" + i + "@university.edu");
+                    insert.setString(3, "LOAD" + i);
+                    insert.setTimestamp(4, now);
+                    insert.setTimestamp(5, now);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet first = statement.executeQuery("SELECT MIN(id) FROM students WHERE student_id LIKE 'LOAD%'")) {
+                firstStudentId = first.getInt(1);
+            }
+            connection.commit();
+        }
+
+        System.out.println("Seeded " + halls + " halls of " + seats + " seats, " + screenings +
+                " screenings and " + students + " students");
+        return scheduleIds;
+    }
+
+    private void think() throws InterruptedException {
+        int thinkMillis = intOption("thinkMillis", 0);
+        if (thinkMillis > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(thinkMillis + 1));
+        }
+    }
+
+    private long time(String step, long since) {
+        long now = System.nanoTime();
+        latencies.get(step).record(now - since);
+        return now;
+    }
+
+    /**
+     * One student's visit: browse, open a seat map, hold, book and maybe cancel or wait
+     */
+    private void simulateStudent(int studentId) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        sessions.incrementAndGet();
+
+        // Browse the movies and the chosen movie's screenings
+        long start = System.nanoTime();
+        List<Movie> movies = movieService.getAllMovies();
+        if (movies == null || movies.isEmpty()) {
+            failures.incrementAndGet();
+            return;
+        }
+        Movie movie = movies.get(random.nextInt(movies.size()));
+        List<MovieSchedule> schedules = scheduleService.findSchedulesByMovie(movie.getId());
+        start = time("browse", start);
+        if (schedules.isEmpty()) {
+            return;
+        }
+        MovieSchedule schedule = schedules.get(random.nextInt(schedules.size()));
+        think();
+
+        // Open the seat map
+        start = System.nanoTime();
+        SeatOccupancy occupancy = reservationService.getSeatOccupancy(schedule.getId());
+        List<HallGraph.Seat> seats = hallService.getSeatsInHall(schedule.getHallId());
+        Map<String, Integer> held = reservationService.getHeldSeats(schedule.getId());
+        time("seatMap", start);
+
+        int groupSize = random.nextDouble() < doubleOption("groupRate", 0.2)
+                ? 2 + random.nextInt(Math.max(1, intOption("maxGroup", 4) - 1)) : 1;
+        List<String> wanted = pickSeats(seats, occupancy, held, groupSize);
+        if (wanted.isEmpty()) {
+            soldOut.incrementAndGet();
+            if (random.nextDouble() < doubleOption("waitlistRate", 0.5)) {
+                start = System.nanoTime();
+                try {
+                    reservationService.joinWaitlist(studentId, schedule.getId(), groupSize);
+                } catch (IllegalStateException e) {
+                    // Seats were freed in the meantime
+                    conflicts.incrementAndGet();
+                }
+                time("waitlist", start);
+            }
+            return;
+        }
+        think();
+
+        // Hold the seats while "deciding", then book them
+        start = System.nanoTime();
+        for (String seatId : wanted) {
+            if (!reservationService.holdSeat(studentId, schedule.getId(), seatId)) {
+                conflicts.incrementAndGet();
+                time("hold", start);
+                releaseHolds(studentId, schedule.getId(), wanted);
+                return;
+            }
+        }
+        time("hold", start);
+        think();
+
+        List<Reservation> booked = new ArrayList<>();
+        String step = wanted.size() == 1 ? "book" : "groupBook";
+        start = System.nanoTime();
+        try {
+            List<Reservation> result = wanted.size() == 1
+                    ? Collections.singletonList(reservationService.makeReservation(studentId, schedule.getId(), wanted.get(0)))
+                    : reservationService.makeGroupReservation(studentId, schedule.getId(), wanted);
+            if (result == null || result.contains(null)) {
+                failures.incrementAndGet();
+            } else {
+                booked.addAll(result);
+                seatsBooked.addAndGet(result.size());
+            }
+        } catch (IllegalStateException e) {
+            conflicts.incrementAndGet();
+        }
+        time(step, start);
+        if (booked.isEmpty()) {
+            releaseHolds(studentId, schedule.getId(), wanted);
+            return;
+        }
+
+        // Some students change their mind
+        if (random.nextDouble() < doubleOption("cancelRate", 0.1)) {
+            think();
+            start = System.nanoTime();
+            for (Reservation reservation : booked) {
+                if (!reservationService.cancelReservation(reservation.getId())) {
+                    failures.incrementAndGet();
+                }
+            }
+            time("cancel", start);
+        }
+    }
+
+    private void releaseHolds(int studentId, int scheduleId, List<String> seatIds) {
+        for (String seatId : seatIds) {
+            reservationService.releaseSeatHold(studentId, scheduleId, seatId);
+        }
+    }
+
+    /**
+     * Pick random free, unheld seats the way a student clicks on the seat map
+     */
+    private List<String> pickSeats(List<HallGraph.Seat> seats, SeatOccupancy occupancy,
+                                   Map<String, Integer> held, int count) {
+        List<String> free = new ArrayList<>();
+        for (HallGraph.Seat seat : seats) {
+            if (!occupancy.isReserved(seat.getOrdinal()) && !held.containsKey(seat.getId())) {
+                free.add(seat.getId());
+            }
+        }
+        if (free.size() < count) {
+            return Collections.emptyList();
+        }
+        Collections.shuffle(free, ThreadLocalRandom.current());
+        return new ArrayList<>(free.subList(0, count));
+    }
+
+    private void report(double seconds) {
+        long done = sessions.get();
+        long attempts = latencies.get("book").getCount() + latencies.get("groupBook").getCount();
+        System.out.println();
+        System.out.printf("%d student sessions in %.2f s: %.0f sessions/s, %.0f seats booked/s%n",
+                done, seconds, done / seconds, seatsBooked.get() / seconds);
+        System.out.printf("Bookings: %d attempts, %d seats booked, %d conflicts (%.1f%%), %d failures, %d errors, " +
+                        "%d sold-out views%n", attempts, seatsBooked.get(), conflicts.get(),
+                attempts == 0 ? 0 : 100.0 * conflicts.get() / attempts, failures.get(), errors.get(), soldOut.get());
+        for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet()) {
+            System.out.printf("  %-10s %s%n", entry.getKey(), entry.getValue().summary());
+        }
+        ReservationEngine engine = ApplicationContext.getInstance().getReservationEngine();
+        System.out.println("  writer     " + engine.getWritePipeline().getMetrics());
+        System.out.printf("  shards     %d database calls on shard threads, %.1f ms blocked (%.1f%% of %d shard-seconds)%n",
+                engine.getShardDatabaseCalls(), engine.getShardDatabaseMillis(),
+                engine.getShardDatabaseMillis() / 10 / (seconds * engine.getShardCount()),
+                Math.round(seconds * engine.getShardCount()));
+    }
+
+    /**
+     * Check every screening: no seat booked twice, and memory agrees with the database
+     */
+    private boolean verify(String url, List<Integer> scheduleIds) throws Exception {
+        boolean ok = true;
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            ResultSet duplicates = statement.executeQuery(
+                    "SELECT COUNT(*) FROM (SELECT schedule_id, seat_id FROM reservations WHERE status != 'cancelled' " +
+                            "GROUP BY schedule_id, seat_id HAVING COUNT(*) > 1)");
+            int doubleBooked = duplicates.getInt(1);
+            if (doubleBooked > 0) {
+                System.out.println("FAIL: " + doubleBooked + " seats are booked twice");
+                ok = false;
+            }
+
+            for (int scheduleId : scheduleIds) {
+                ResultSet active = statement.executeQuery(
+                        "SELECT COUNT(*) FROM reservations WHERE status != 'cancelled' AND schedule_id = " + scheduleId);
+                int stored = active.getInt(1);
+                int inMemory = reservationService.getSeatOccupancy(scheduleId).getReservedCount();
+                if (stored != inMemory) {
+                    System.out.println("FAIL: screening " + scheduleId + " has " + stored +
+                            " active reservations but " + inMemory + " seats taken in memory");
+                    ok = false;
+                }
+            }
+        }
+        System.out.println(ok ? "PASS: no double bookings, memory matches the database"
+                : "FAIL: reservation invariants broken");
+        return ok;
+    }
+}
@@ -0,0 +1,95 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.dao.ReservationDAO;
+import com.ucinema.model.entities.Reservation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seat-map reads and bookings running at the same time, under the old persistence settings and
+ * the tuned profile from persistence.properties.
+ * <p>
+ * "legacy" reproduces the previous setup: rollback journal, full sync, driver-default caches and
+ * one shared pool of 20 connections for everything. "tuned" uses WAL with a single-connection
+ * write pool and separate query-only read connections. Six threads load seat maps while two
+ * threads insert reservations; failedWrites counts bookings that could not be stored.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec -Dbenchmark="ReadWriteContentionBenchmark"
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadWriteContentionBenchmark {
+
+    @Param({"legacy", "tuned"})
+    private String profile;
+
+    private DaoBenchmarkDatabase database;
+    private ReservationDAO reservationDAO;
+    private final AtomicInteger nextSeat = new AtomicInteger();
+
+    /**
+     * Bookings that returned no reservation, reported next to the latencies
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WriteCounters {
+        public long failedWrites;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if (profile.equals("legacy")) {
+            System.setProperty("ucinema.sqlite.journal_mode", "DELETE");
+            System.setProperty("ucinema.sqlite.synchronous", "FULL");
+            System.setProperty("ucinema.sqlite.cache_size", "-2000");
+            System.setProperty("ucinema.sqlite.mmap_size", "0");
+            System.setProperty("ucinema.sqlite.busy_timeout", "3000");
+            System.setProperty("ucinema.sqlite.temp_store", "DEFAULT");
+            System.setProperty("ucinema.pool.write.size", "20");
+            System.setProperty("ucinema.pool.read.size", "0");
+        }
+        database = DaoBenchmarkDatabase.create(5000, 500, 50000);
+        reservationDAO = new ReservationDAO();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.delete();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public List<String> loadSeatMap() {
+        return reservationDAO.getReservedSeats(1 + ThreadLocalRandom.current().nextInt(database.schedules));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public Reservation book(WriteCounters counters) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Seat IDs outside the hall layout never collide with the seeded bookings
+        Reservation reservation = new Reservation(1 + random.nextInt(database.students),
+                1 + random.nextInt(database.schedules), "W" + nextSeat.incrementAndGet(), 8.0);
+        try {
+            Reservation saved = reservationDAO.save(reservation);
+            if (saved == null) {
+                counters.failedWrites++;
+            }
+            return saved;
+        } catch (IllegalStateException e) {
+            // save() rolls back after its session has closed when the insert hits SQLITE_BUSY
+            counters.failedWrites++;
+            return null;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.dao.HallDAO;
+import com.ucinema.dao.MovieDAO;
+import com.ucinema.dao.MovieScheduleDAO;
+import com.ucinema.dao.ReservationDAO;
+import com.ucinema.model.ReservationRow;
+import com.ucinema.model.entities.MovieSchedule;
+import com.ucinema.model.entities.Reservation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading one student's reservation list the way StudentDashboard used to, with a schedule, movie
+ * and hall lookup for every reservation, against the single joined query that returns display rows.
+ * Students have ten reservations on average. The second-level cache is on for both, as in the application.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec -Dbenchmark=ReservationHistoryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationHistoryBenchmark {
+
+    @Param({"5000"})
+    private int students;
+
+    private DaoBenchmarkDatabase database;
+    private ReservationDAO reservationDAO;
+    private MovieScheduleDAO scheduleDAO;
+    private MovieDAO movieDAO;
+    private HallDAO hallDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = DaoBenchmarkDatabase.create(students, 500, students * 10);
+        reservationDAO = new ReservationDAO();
+        scheduleDAO = new MovieScheduleDAO();
+        movieDAO = new MovieDAO();
+        hallDAO = new HallDAO();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.delete();
+    }
+
+    @Benchmark
+    public void lookupPerReservation(Blackhole blackhole) {
+        List<Reservation> reservations = reservationDAO.findByStudentId(
+                1 + ThreadLocalRandom.current().nextInt(students));
+        for (Reservation reservation : reservations) {
+            MovieSchedule schedule = scheduleDAO.findById(reservation.getScheduleId());
+            blackhole.consume(movieDAO.findById(schedule.getMovieId()).getTitle());
+            blackhole.consume(hallDAO.findById(schedule.getHallId()).getName());
+        }
+    }
+
+    @Benchmark
+    public List<ReservationRow> joinedRows() {
+        return reservationDAO.findRowsByStudentId(1 + ThreadLocalRandom.current().nextInt(students));
+    }
+}
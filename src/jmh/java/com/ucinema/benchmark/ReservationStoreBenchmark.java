@@ -0,0 +1,119 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.model.datastructures.ReservationStore;
+import com.ucinema.model.entities.Reservation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ReservationStore at a term's worth of bookings (10,000) and at 100 times that.
+ * Each student holds about four reservations and each screening about a hundred, matching a
+ * fully booked campus cinema.
+ * <p>
+ * Lookup and remove benchmarks report the average time of a single operation over a batch
+ * of random keys; the build benchmark reports the time to add every reservation.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec -Dbenchmark="ReservationStoreBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReservationStoreBenchmark {
+    private static final int BATCH = 1024;
+    private static final int RESERVATIONS_PER_STUDENT = 4;
+    private static final int RESERVATIONS_PER_SCHEDULE = 100;
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private Reservation[] reservations;
+    private int[] probeIds;
+    private int[] probeStudentIds;
+    private int[] probeScheduleIds;
+    private ReservationStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int students = Math.max(1, size / RESERVATIONS_PER_STUDENT);
+        int schedules = Math.max(1, size / RESERVATIONS_PER_SCHEDULE);
+        reservations = new Reservation[size];
+        for (int i = 0; i < size; i++) {
+            Reservation reservation = new Reservation(1 + i % students, 1 + i % schedules, "S" + i / schedules, 8.0);
+            reservation.setId(i + 1);
+            reservations[i] = reservation;
+        }
+
+        Random random = new Random(42);
+        probeIds = new int[BATCH];
+        probeStudentIds = new int[BATCH];
+        probeScheduleIds = new int[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            probeIds[i] = 1 + random.nextInt(size);
+            probeStudentIds[i] = 1 + random.nextInt(students);
+            probeScheduleIds[i] = 1 + random.nextInt(schedules);
+        }
+
+        store = build();
+    }
+
+    private ReservationStore build() {
+        ReservationStore built = new ReservationStore();
+        for (Reservation reservation : reservations) {
+            built.add(reservation);
+        }
+        return built;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ReservationStore buildStore() {
+        return build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int findById() {
+        int found = 0;
+        for (int id : probeIds) {
+            found += store.find(id) != null ? 1 : 0;
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void findByStudent(Blackhole blackhole) {
+        for (int studentId : probeStudentIds) {
+            blackhole.consume(store.findByStudent(studentId));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void findBySchedule(Blackhole blackhole) {
+        for (int scheduleId : probeScheduleIds) {
+            blackhole.consume(store.findBySchedule(scheduleId));
+        }
+    }
+
+    // Each remove is paired with a re-add so the store stays the same size across invocations
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int removeAndAdd() {
+        int removed = 0;
+        for (int id : probeIds) {
+            Reservation reservation = store.remove(id);
+            if (reservation != null) {
+                store.add(reservation);
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
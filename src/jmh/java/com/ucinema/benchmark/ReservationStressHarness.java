@@ -0,0 +1,182 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.dao.ReservationDAO;
+import com.ucinema.model.datastructures.HallGraph;
+import com.ucinema.model.entities.Hall;
+import com.ucinema.model.entities.Movie;
+import com.ucinema.model.entities.MovieSchedule;
+import com.ucinema.model.entities.Reservation;
+import com.ucinema.model.entities.Student;
+import com.ucinema.service.HallService;
+import com.ucinema.service.MovieScheduleService;
+import com.ucinema.service.MovieService;
+import com.ucinema.service.ReservationEngine;
+import com.ucinema.service.ReservationService;
+import com.ucinema.service.SeatHoldService;
+import com.ucinema.service.StudentService;
+import com.ucinema.util.HibernateUtil;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-threaded stress check for seat reservation on a scratch SQLite database.
+ * <p>
+ * Phase 1 books random seats of one screening from many threads through two independent
+ * ReservationService instances, which stand in for two application processes sharing the
+ * database. Phase 2 has every thread claim the same seats directly through the DAO, so only
+ * the unique index can arbitrate. Afterwards the database must hold at most one active
+ * reservation per seat and exactly one per successful claim; the process exits with status 1
+ * otherwise.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec
+ *     -Dbenchmark.main=com.ucinema.benchmark.ReservationStressHarness -Dbenchmark="[threads] [attemptsPerThread]"
+ */
+public class ReservationStressHarness {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int attemptsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        File database = Files.createTempFile("ucinema-stress", ".db").toFile();
+        database.deleteOnExit();
+        String url = "jdbc:sqlite:" + database.getAbsolutePath();
+        System.setProperty(HibernateUtil.DATABASE_URL_PROPERTY, url);
+        HibernateUtil.getSessionFactory();
+
+        // Seed one student, movie, 200-seat hall and screening
+        Student student = new StudentService().registerStudent("Stress", "stress@university.edu", "pw", "STRESS1");
+        MovieService movieService = new MovieService();
+        Movie movie = movieService.addMovie("Stress", "", 120, LocalDate.now(), "Drama", "Nobody", "PG");
+        HallService hallService = new HallService();
+        Hall hall = hallService.addHall("Stress Hall", 200, "Campus", "standard");
+        MovieScheduleService scheduleService = new MovieScheduleService(movieService);
+        MovieSchedule schedule = scheduleService.addSchedule(movie.getId(), hall.getId(),
+                LocalDateTime.now().plusDays(1), 10.0);
+
+        List<HallGraph.Seat> seats = hallService.getSeatsInHall(hall.getId());
+        ReservationEngine[] engines = new ReservationEngine[2];
+        ReservationService[] nodes = new ReservationService[engines.length];
+        for (int i = 0; i < nodes.length; i++) {
+            SeatHoldService holds = new SeatHoldService(SeatHoldService.DEFAULT_TTL_MILLIS);
+            engines[i] = new ReservationEngine(scheduleService, hallService, holds, ReservationEngine.defaultShardCount());
+            nodes[i] = new ReservationService(scheduleService, hallService, holds, engines[i]);
+            nodes[i].getSeatOccupancy(schedule.getId());
+        }
+
+        System.out.println("Phase 1: " + threads + " threads x " + attemptsPerThread +
+                " bookings over " + seats.size() + " seats through two services");
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger taken = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        long elapsed = runConcurrently(threads, thread -> {
+            ReservationService node = nodes[thread % nodes.length];
+            for (int i = 0; i < attemptsPerThread; i++) {
+                String seatId = seats.get(ThreadLocalRandom.current().nextInt(seats.size())).getId();
+                try {
+                    if (node.makeReservation(student.getId(), schedule.getId(), seatId) != null) {
+                        booked.incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                } catch (IllegalStateException e) {
+                    taken.incrementAndGet();
+                }
+            }
+        });
+        System.out.printf("  booked=%d taken=%d failed=%d in %d ms%n", booked.get(), taken.get(), failed.get(), elapsed);
+        for (ReservationEngine engine : engines) {
+            System.out.println("  writer: " + engine.getWritePipeline().getMetrics());
+        }
+
+        // Phase 2: a second screening where every thread races for the same seats with no in-memory guard
+        MovieSchedule rawSchedule = scheduleService.addSchedule(movie.getId(), hall.getId(),
+                LocalDateTime.now().plusDays(2), 10.0);
+        int contestedSeats = Math.min(20, seats.size());
+        System.out.println("Phase 2: " + threads + " threads claiming the same " + contestedSeats + " seats via the DAO");
+        AtomicInteger claimed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger claimFailed = new AtomicInteger();
+        elapsed = runConcurrently(threads, thread -> {
+            ReservationDAO dao = new ReservationDAO();
+            for (int i = 0; i < contestedSeats; i++) {
+                Reservation reservation = new Reservation(student.getId(), rawSchedule.getId(), seats.get(i).getId(), 10.0);
+                switch (dao.claimSeat(reservation)) {
+                    case CLAIMED -> claimed.incrementAndGet();
+                    case SEAT_TAKEN -> rejected.incrementAndGet();
+                    default -> claimFailed.incrementAndGet();
+                }
+            }
+        });
+        System.out.printf("  claimed=%d rejected=%d failed=%d in %d ms%n", claimed.get(), rejected.get(), claimFailed.get(), elapsed);
+
+        HibernateUtil.shutdown();
+
+        boolean ok = verify(url, schedule.getId(), booked.get()) & verify(url, rawSchedule.getId(), claimed.get());
+        System.out.println(ok ? "PASS: no double bookings" : "FAIL: double bookings or lost reservations found");
+        System.exit(ok ? 0 : 1);
+    }
+
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    private static long runConcurrently(int threads, Worker worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<Void>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            results.add(executor.submit(() -> {
+                startGate.await();
+                worker.run(thread);
+                return null;
+            }));
+        }
+        long start = System.nanoTime();
+        startGate.countDown();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.MINUTES);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        // Surface the first worker failure instead of silently under-counting
+        for (Future<Void> result : results) {
+            result.get();
+        }
+        return elapsed;
+    }
+
+    /**
+     * Check one screening: no seat has two active reservations, and every success was stored
+     */
+    private static boolean verify(String url, int scheduleId, int expectedActive) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            ResultSet duplicates = statement.executeQuery(
+                    "SELECT COUNT(*) FROM (SELECT seat_id FROM reservations WHERE schedule_id = " + scheduleId +
+                    " AND status != 'cancelled' GROUP BY seat_id HAVING COUNT(*) > 1)");
+            int duplicateSeats = duplicates.getInt(1);
+            ResultSet active = statement.executeQuery(
+                    "SELECT COUNT(*) FROM reservations WHERE schedule_id = " + scheduleId + " AND status != 'cancelled'");
+            int activeRows = active.getInt(1);
+            System.out.printf("  schedule %d: %d active reservations (expected %d), %d double-booked seats%n",
+                    scheduleId, activeRows, expectedActive, duplicateSeats);
+            return duplicateSeats == 0 && activeRows == expectedActive;
+        }
+    }
+}
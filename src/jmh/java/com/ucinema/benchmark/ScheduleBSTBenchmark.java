@@ -0,0 +1,161 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.model.datastructures.ScheduleBST;
+import com.ucinema.model.entities.MovieSchedule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the balanced ScheduleBST against the previous unbalanced tree when schedules
+ * arrive sorted by start time, which is how MovieScheduleDAO.findAll() returns them.
+ * The unbalanced variant degrades to a linked list (roughly a minute per 100k insert run),
+ * so it is only measured once. Sizes are a year of screenings (1,000) and 100 times that.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec -Dbenchmark=ScheduleBSTBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScheduleBSTBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private List<MovieSchedule> sortedSchedules;
+    private ScheduleBST populatedTree;
+    private LocalDateTime base;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        base = LocalDateTime.of(2025, 1, 1, 10, 0);
+        sortedSchedules = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            MovieSchedule schedule = new MovieSchedule(i % 50, i % 10, base.plusMinutes(i * 15L),
+                    base.plusMinutes(i * 15L + 120), 10.0);
+            schedule.setId(i + 1);
+            sortedSchedules.add(schedule);
+        }
+
+        populatedTree = new ScheduleBST();
+        for (MovieSchedule schedule : sortedSchedules) {
+            populatedTree.insert(schedule);
+        }
+    }
+
+    @Benchmark
+    public ScheduleBST sortedInsertBalanced() {
+        ScheduleBST tree = new ScheduleBST();
+        for (MovieSchedule schedule : sortedSchedules) {
+            tree.insert(schedule);
+        }
+        return tree;
+    }
+
+    @Benchmark
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public UnbalancedScheduleTree sortedInsertUnbalanced() {
+        UnbalancedScheduleTree tree = new UnbalancedScheduleTree();
+        for (MovieSchedule schedule : sortedSchedules) {
+            tree.insert(schedule);
+        }
+        return tree;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public void findByIdBalanced(Blackhole blackhole) {
+        for (int id = 1; id <= size; id += size / 100) {
+            blackhole.consume(populatedTree.find(id));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public List<MovieSchedule> oneDayRangeBalanced() {
+        LocalDateTime start = base.plusMinutes((size / 2) * 15L);
+        return populatedTree.findInTimeRange(start, start.plusDays(1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public List<MovieSchedule> findByMovieBalanced() {
+        return populatedTree.findByMovie(size / 2 % 50);
+    }
+
+    // Each remove is paired with a re-insert so the tree stays the same size across invocations
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public void removeAndInsertBalanced() {
+        for (int id = 1; id <= size; id += size / 100) {
+            if (populatedTree.remove(id)) {
+                populatedTree.insert(sortedSchedules.get(id - 1));
+            }
+        }
+    }
+
+    /**
+     * The previous ScheduleBST insert logic, written iteratively so it survives deep
+     * degenerate trees long enough to be measured.
+     */
+    public static final class UnbalancedScheduleTree {
+        private static final class Node {
+            final MovieSchedule data;
+            Node left;
+            Node right;
+
+            Node(MovieSchedule data) {
+                this.data = data;
+            }
+        }
+
+        private Node root;
+
+        void insert(MovieSchedule schedule) {
+            Node node = new Node(schedule);
+            if (root == null) {
+                root = node;
+                return;
+            }
+            Node current = root;
+            while (true) {
+                boolean goLeft = schedule.getStartTime().isBefore(current.data.getStartTime())
+                        || (schedule.getStartTime().equals(current.data.getStartTime())
+                        && schedule.getHallId() < current.data.getHallId());
+                if (goLeft) {
+                    if (current.left == null) {
+                        current.left = node;
+                        return;
+                    }
+                    current = current.left;
+                } else {
+                    if (current.right == null) {
+                        current.right = node;
+                        return;
+                    }
+                    current = current.right;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.model.datastructures.SeatBlockAllocator;
+import com.ucinema.model.datastructures.SeatLayout;
+import com.ucinema.model.datastructures.SeatOccupancy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the best-adjacent-seat search of SeatBlockAllocator in the largest standard hall
+ * (11 x 19 seats) and in a hall with 100 times as many seats (110 x 190), at half and nearly
+ * full occupancy. Reserve and release report the cost of one seat change; the build benchmark
+ * is the one-off cost paid when a screening's allocator is first needed.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec -Dbenchmark="SeatBlockAllocatorBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatBlockAllocatorBenchmark {
+    private static final int ROWS = 11;
+    private static final int COLUMNS = 19;
+    private static final int BATCH = 256;
+
+    // Seat count multiplier; each dimension grows by its square root
+    @Param({"1", "100"})
+    private int scale;
+
+    @Param({"0.5", "0.9"})
+    private double occupancyRate;
+
+    @Param({"2", "6"})
+    private int groupSize;
+
+    private SeatLayout layout;
+    private SeatOccupancy occupancy;
+    private SeatBlockAllocator allocator;
+    private int[] freeOrdinals;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int factor = (int) Math.round(Math.sqrt(scale));
+        layout = buildLayout(ROWS * factor, COLUMNS * factor);
+
+        Random random = new Random(42);
+        occupancy = new SeatOccupancy(layout.getSeatCount());
+        for (int ordinal = 0; ordinal < layout.getSeatCount(); ordinal++) {
+            if (random.nextDouble() < occupancyRate) {
+                occupancy.reserve(ordinal);
+            }
+        }
+        allocator = new SeatBlockAllocator(layout, occupancy);
+
+        freeOrdinals = new int[BATCH];
+        for (int i = 0; i < BATCH; ) {
+            int ordinal = random.nextInt(layout.getSeatCount());
+            if (!occupancy.isReserved(ordinal)) {
+                freeOrdinals[i++] = ordinal;
+            }
+        }
+    }
+
+    static SeatLayout buildLayout(int rows, int columns) {
+        SeatLayout.Builder builder = new SeatLayout.Builder();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                builder.addSeat("R" + row + "C" + column, row, column, "standard");
+            }
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public int[] findBestBlock() {
+        return allocator.findBestBlock(groupSize);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public SeatBlockAllocator buildAllocator() {
+        return new SeatBlockAllocator(layout, occupancy);
+    }
+
+    // Each reserve is undone straight away so the occupancy stays the same across invocations
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void reserveAndRelease() {
+        for (int ordinal : freeOrdinals) {
+            allocator.reserve(ordinal);
+            allocator.release(ordinal);
+        }
+    }
+}
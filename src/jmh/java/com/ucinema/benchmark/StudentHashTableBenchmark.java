@@ -0,0 +1,256 @@
+package com.ucinema.benchmark;
+
+import com.ucinema.model.datastructures.StudentHashTable;
+import com.ucinema.model.entities.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the open-addressing StudentHashTable with the previous separate-chaining table
+ * and {@code HashMap<Integer, Student>} for sequential IDs, as assigned by the database.
+ * <p>
+ * Lookup and remove benchmarks report the average time of a single operation over a batch
+ * of random keys; build benchmarks report the time to insert every student.
+ * <p>
+ * Run with: mvn -Pbenchmarks compile exec:exec -Dbenchmark="StudentHashTableBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StudentHashTableBenchmark {
+    private static final int BATCH = 1024;
+
+    @Param({"10000", "100000", "1000000"})
+    private int size;
+
+    private Student[] students;
+    private int[] probeIds;
+
+    private StudentHashTable openTable;
+    private ChainedStudentHashTable chainedTable;
+    private Map<Integer, Student> hashMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        students = new Student[size];
+        for (int i = 0; i < size; i++) {
+            Student student = new Student("Student " + i, "s" + i + "@university.edu", "password", "S" + i);
+            student.setId(i + 1);
+            students[i] = student;
+        }
+
+        Random random = new Random(42);
+        probeIds = new int[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            probeIds[i] = 1 + random.nextInt(size);
+        }
+
+        openTable = buildOpen();
+        chainedTable = buildChained();
+        hashMap = buildHashMap();
+    }
+
+    private StudentHashTable buildOpen() {
+        StudentHashTable table = new StudentHashTable();
+        for (Student student : students) {
+            table.insert(student);
+        }
+        return table;
+    }
+
+    private ChainedStudentHashTable buildChained() {
+        ChainedStudentHashTable table = new ChainedStudentHashTable();
+        for (Student student : students) {
+            table.insert(student);
+        }
+        return table;
+    }
+
+    private Map<Integer, Student> buildHashMap() {
+        Map<Integer, Student> map = new HashMap<>();
+        for (Student student : students) {
+            map.putIfAbsent(student.getId(), student);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public StudentHashTable buildOpenAddressing() {
+        return buildOpen();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ChainedStudentHashTable buildChaining() {
+        return buildChained();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<Integer, Student> buildJdkHashMap() {
+        return buildHashMap();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int findOpenAddressing() {
+        int found = 0;
+        for (int id : probeIds) {
+            found += openTable.find(id) != null ? 1 : 0;
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int findChaining() {
+        int found = 0;
+        for (int id : probeIds) {
+            found += chainedTable.find(id) != null ? 1 : 0;
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int findJdkHashMap() {
+        int found = 0;
+        for (int id : probeIds) {
+            found += hashMap.get(id) != null ? 1 : 0;
+        }
+        return found;
+    }
+
+    // Each remove is paired with a re-insert so the table stays the same size across invocations
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int removeOpenAddressing() {
+        int removed = 0;
+        for (int id : probeIds) {
+            Student student = openTable.remove(id);
+            if (student != null) {
+                openTable.insert(student);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int removeChaining() {
+        int removed = 0;
+        for (int id : probeIds) {
+            Student student = chainedTable.remove(id);
+            if (student != null) {
+                chainedTable.insert(student);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int removeJdkHashMap() {
+        int removed = 0;
+        for (int id : probeIds) {
+            Student student = hashMap.remove(id);
+            if (student != null) {
+                hashMap.put(id, student);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * The previous StudentHashTable: LinkedList chains indexed by id % capacity
+     */
+    public static final class ChainedStudentHashTable {
+        private LinkedList<Student>[] table;
+        private int size;
+        private int capacity;
+
+        @SuppressWarnings("unchecked")
+        ChainedStudentHashTable() {
+            this.capacity = 16;
+            this.table = new LinkedList[capacity];
+            for (int i = 0; i < capacity; i++) {
+                table[i] = new LinkedList<>();
+            }
+        }
+
+        boolean insert(Student student) {
+            if ((double) size / capacity >= 0.75) {
+                resize();
+            }
+            int index = student.getId() % capacity;
+            for (Student existingStudent : table[index]) {
+                if (existingStudent.getId() == student.getId()) {
+                    return false;
+                }
+            }
+            table[index].add(student);
+            size++;
+            return true;
+        }
+
+        Student find(int studentId) {
+            for (Student student : table[studentId % capacity]) {
+                if (student.getId() == studentId) {
+                    return student;
+                }
+            }
+            return null;
+        }
+
+        Student remove(int studentId) {
+            int index = studentId % capacity;
+            for (int i = 0; i < table[index].size(); i++) {
+                Student student = table[index].get(i);
+                if (student.getId() == studentId) {
+                    table[index].remove(i);
+                    size--;
+                    return student;
+                }
+            }
+            return null;
+        }
+
+        List<Student> getAllStudents() {
+            List<Student> allStudents = new ArrayList<>();
+            for (LinkedList<Student> chain : table) {
+                allStudents.addAll(chain);
+            }
+            return allStudents;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void resize() {
+            int newCapacity = capacity * 2;
+            LinkedList<Student>[] newTable = new LinkedList[newCapacity];
+            for (int i = 0; i < newCapacity; i++) {
+                newTable[i] = new LinkedList<>();
+            }
+            for (LinkedList<Student> chain : table) {
+                for (Student student : chain) {
+                    newTable[student.getId() % newCapacity].add(student);
+                }
+            }
+            table = newTable;
+            capacity = newCapacity;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.ucinema;
 
+import com.ucinema.util.ApplicationContext;
 import com.ucinema.util.HibernateUtil;
 import com.ucinema.util.SampleDataInitializer;
 import com.ucinema.view.LoginScreen;
@@ -24,6 +25,9 @@ public class Main extends Application {
             // Always initialize the database connection first
             HibernateUtil.getSessionFactory();
 
+            // Load the shared services and their in-memory structures once
+            ApplicationContext.start();
+
             // Check if database file exists, if not, initialize sample data
             boolean initializeData = false;
             File dbFile = new File("university_cinema.db");
@@ -90,6 +94,7 @@ public class Main extends Application {
     public void stop() {
         // Close Hibernate session factory
         System.out.println("Shutting down application...");
+        ApplicationContext.shutdown();
         HibernateUtil.shutdown();
         System.out.println("Application shutdown complete.");
     }
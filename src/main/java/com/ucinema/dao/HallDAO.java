@@ -34,6 +34,31 @@ public class HallDAO {
         }
     }
 
+    /**
+     * Save several new halls in one transaction. Either all are saved or none.
+     * Inserts are sent in JDBC batches of HibernateUtil.getBatchSize().
+     * @param halls The halls to save
+     * @return The saved halls with IDs, or null if they could not be saved
+     */
+    public List<Hall> saveAll(List<Hall> halls) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                HibernateUtil.persistInBatches(session, halls);
+                transaction.commit();
+                return halls;
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     /**
      * Update an existing hall
      * @param hall The hall to update
@@ -82,7 +107,7 @@ public class HallDAO {
      * @return The hall or null if not found
      */
     public Hall findById(int id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             return session.get(Hall.class, id);
         } catch (Exception e) {
             e.printStackTrace();
@@ -95,8 +120,8 @@ public class HallDAO {
      * @return List of all halls
      */
     public List<Hall> findAll() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery("FROM Hall ORDER BY name", Hall.class).list();
+        try (Session session = HibernateUtil.openReadSession()) {
+            return session.createQuery("FROM Hall ORDER BY name", Hall.class).setCacheable(true).list();
         } catch (Exception e) {
             e.printStackTrace();
             return null;
@@ -109,7 +134,7 @@ public class HallDAO {
      * @return List of halls at the specified location
      */
     public List<Hall> findByLocation(String location) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<Hall> query = session.createQuery(
                     "FROM Hall WHERE location LIKE :location ORDER BY name", Hall.class);
             query.setParameter("location", "%" + location + "%");
@@ -126,7 +151,7 @@ public class HallDAO {
      * @return List of halls of the specified type
      */
     public List<Hall> findByType(String type) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<Hall> query = session.createQuery(
                     "FROM Hall WHERE type = :type ORDER BY name", Hall.class);
             query.setParameter("type", type);
@@ -143,7 +168,7 @@ public class HallDAO {
      * @return List of halls with at least the specified capacity
      */
     public List<Hall> findByMinCapacity(int minCapacity) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<Hall> query = session.createQuery(
                     "FROM Hall WHERE capacity >= :minCapacity ORDER BY capacity DESC", Hall.class);
             query.setParameter("minCapacity", minCapacity);
@@ -160,7 +185,7 @@ public class HallDAO {
      * @return The hall or null if not found
      */
     public Hall findByName(String name) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<Hall> query = session.createQuery("FROM Hall WHERE name = :name", Hall.class);
             query.setParameter("name", name);
             return query.uniqueResult();
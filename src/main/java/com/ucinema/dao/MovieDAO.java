@@ -35,6 +35,31 @@ public class MovieDAO {
         }
     }
 
+    /**
+     * Save several new movies in one transaction. Either all are saved or none.
+     * Inserts are sent in JDBC batches of HibernateUtil.getBatchSize().
+     * @param movies The movies to save
+     * @return The saved movies with IDs, or null if they could not be saved
+     */
+    public List<Movie> saveAll(List<Movie> movies) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                HibernateUtil.persistInBatches(session, movies);
+                transaction.commit();
+                return movies;
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     /**
      * Update an existing movie
      * @param movie The movie to update
@@ -83,7 +108,7 @@ public class MovieDAO {
      * @return The movie or null if not found
      */
     public Movie findById(int id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             return session.get(Movie.class, id);
         } catch (Exception e) {
             e.printStackTrace();
@@ -96,8 +121,8 @@ public class MovieDAO {
      * @return List of all movies
      */
     public List<Movie> findAll() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery("FROM Movie ORDER BY title", Movie.class).list();
+        try (Session session = HibernateUtil.openReadSession()) {
+            return session.createQuery("FROM Movie ORDER BY title", Movie.class).setCacheable(true).list();
         } catch (Exception e) {
             e.printStackTrace();
             return null;
@@ -110,7 +135,7 @@ public class MovieDAO {
      * @return List of matching movies
      */
     public List<Movie> searchByTitle(String title) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<Movie> query = session.createQuery(
                     "FROM Movie WHERE title LIKE :title ORDER BY title", Movie.class);
             query.setParameter("title", "%" + title + "%");
@@ -127,7 +152,7 @@ public class MovieDAO {
      * @return List of movies in the specified genre
      */
     public List<Movie> findByGenre(String genre) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<Movie> query = session.createQuery(
                     "FROM Movie WHERE genre LIKE :genre ORDER BY title", Movie.class);
             query.setParameter("genre", "%" + genre + "%");
@@ -144,7 +169,7 @@ public class MovieDAO {
      * @return List of recent movies
      */
     public List<Movie> findRecentMovies(int days) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             LocalDate cutoffDate = LocalDate.now().minusDays(days);
             Query<Movie> query = session.createQuery(
                     "FROM Movie WHERE releaseDate >= :cutoffDate ORDER BY releaseDate DESC", Movie.class);
@@ -161,7 +186,7 @@ public class MovieDAO {
      * @return List of upcoming movies
      */
     public List<Movie> findUpcomingMovies() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             LocalDate today = LocalDate.now();
             Query<Movie> query = session.createQuery(
                     "FROM Movie WHERE releaseDate > :today ORDER BY releaseDate", Movie.class);
@@ -7,6 +7,7 @@ import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 /**
@@ -35,6 +36,31 @@ public class MovieScheduleDAO {
         }
     }
 
+    /**
+     * Save several new schedules in one transaction. Either all are saved or none.
+     * Inserts are sent in JDBC batches of HibernateUtil.getBatchSize().
+     * @param schedules The schedules to save
+     * @return The saved schedules with IDs, or null if they could not be saved
+     */
+    public List<MovieSchedule> saveAll(List<MovieSchedule> schedules) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                HibernateUtil.persistInBatches(session, schedules);
+                transaction.commit();
+                return schedules;
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     /**
      * Update an existing movie schedule
      * @param schedule The movie schedule to update
@@ -83,7 +109,7 @@ public class MovieScheduleDAO {
      * @return The movie schedule or null if not found
      */
     public MovieSchedule findById(int id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             return session.get(MovieSchedule.class, id);
         } catch (Exception e) {
             e.printStackTrace();
@@ -96,8 +122,36 @@ public class MovieScheduleDAO {
      * @return List of all movie schedules
      */
     public List<MovieSchedule> findAll() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery("FROM MovieSchedule ORDER BY startTime", MovieSchedule.class).list();
+        try (Session session = HibernateUtil.openReadSession()) {
+            return session.createQuery("FROM MovieSchedule ORDER BY startTime", MovieSchedule.class)
+                    .setCacheable(true).list();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Get one page of movie schedules in start time order. Pages are keyed on (startTime, id)
+     * rather than an offset, so every page costs the same however far into the schedule it is.
+     * @param after The last schedule of the previous page, or null for the first page
+     * @param limit The maximum number of schedules to return
+     * @return The schedules that come after the given one
+     */
+    public List<MovieSchedule> findPage(MovieSchedule after, int limit) {
+        try (Session session = HibernateUtil.openReadSession()) {
+            String queryStr = "FROM MovieSchedule s";
+            if (after != null) {
+                queryStr += " WHERE (s.startTime, s.id) > (:afterTime, :afterId)";
+            }
+            queryStr += " ORDER BY s.startTime, s.id";
+
+            Query<MovieSchedule> query = session.createQuery(queryStr, MovieSchedule.class);
+            if (after != null) {
+                query.setParameter("afterTime", after.getStartTime());
+                query.setParameter("afterId", after.getId());
+            }
+            return query.setMaxResults(limit).list();
         } catch (Exception e) {
             e.printStackTrace();
             return null;
@@ -110,7 +164,7 @@ public class MovieScheduleDAO {
      * @return List of schedules for the movie
      */
     public List<MovieSchedule> findByMovie(int movieId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<MovieSchedule> query = session.createQuery(
                     "FROM MovieSchedule WHERE movieId = :movieId ORDER BY startTime", MovieSchedule.class);
             query.setParameter("movieId", movieId);
@@ -127,7 +181,7 @@ public class MovieScheduleDAO {
      * @return List of schedules for the hall
      */
     public List<MovieSchedule> findByHall(int hallId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<MovieSchedule> query = session.createQuery(
                     "FROM MovieSchedule WHERE hallId = :hallId ORDER BY startTime", MovieSchedule.class);
             query.setParameter("hallId", hallId);
@@ -145,7 +199,7 @@ public class MovieScheduleDAO {
      * @return List of schedules within the time range
      */
     public List<MovieSchedule> findInTimeRange(LocalDateTime start, LocalDateTime end) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<MovieSchedule> query = session.createQuery(
                     "FROM MovieSchedule WHERE startTime >= :start AND startTime <= :end ORDER BY startTime",
                     MovieSchedule.class);
@@ -163,12 +217,14 @@ public class MovieScheduleDAO {
      * @return List of active schedules
      */
     public List<MovieSchedule> findActiveSchedules() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            LocalDateTime now = LocalDateTime.now();
+        try (Session session = HibernateUtil.openReadSession()) {
+            // Whole minutes, so the cached result is reused until the next minute starts
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
             Query<MovieSchedule> query = session.createQuery(
                     "FROM MovieSchedule WHERE startTime >= :now AND isActive = true ORDER BY startTime",
                     MovieSchedule.class);
             query.setParameter("now", now);
+            query.setCacheable(true);
             return query.list();
         } catch (Exception e) {
             e.printStackTrace();
@@ -185,7 +241,7 @@ public class MovieScheduleDAO {
      * @return True if the hall is available
      */
     public boolean isHallAvailable(int hallId, LocalDateTime start, LocalDateTime end, Integer excludeScheduleId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             String queryStr = "SELECT COUNT(*) FROM MovieSchedule "
                     + "WHERE hallId = :hallId AND isActive = true "
                     + "AND ((startTime <= :end AND endTime >= :start))";
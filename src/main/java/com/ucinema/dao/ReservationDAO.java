@@ -1,18 +1,44 @@
 package com.ucinema.dao;
 
+import com.ucinema.model.ReservationRow;
 import com.ucinema.model.entities.Reservation;
 import com.ucinema.util.HibernateUtil;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query;
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.SQLiteException;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for Reservation entity.
  */
 public class ReservationDAO {
+    private static final String INSERT_SQL =
+            "INSERT INTO reservations (student_id, schedule_id, seat_id, reservation_time, price, status, " +
+                    "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    // How SQLite names the unique index on active seats, ux_reservations_active_seat, when it rejects a row
+    private static final String ACTIVE_SEAT_CONSTRAINT = "UNIQUE constraint failed: " +
+            "reservations.schedule_id, reservations.seat_id";
+
+    /**
+     * Outcome of an attempt to claim a seat
+     */
+    public enum ClaimResult {
+        CLAIMED,
+        SEAT_TAKEN,
+        FAILED
+    }
 
     /**
      * Save a new reservation to the database
@@ -35,6 +61,148 @@ public class ReservationDAO {
         }
     }
 
+    /**
+     * Insert a reservation in its own transaction, relying on the unique index on active
+     * (schedule_id, seat_id) pairs to reject a seat that is already taken
+     * @param reservation The reservation to insert; receives its ID when claimed
+     * @return CLAIMED, SEAT_TAKEN if another active reservation holds the seat, or FAILED
+     */
+    public ClaimResult claimSeat(Reservation reservation) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                session.persist(reservation);
+                transaction.commit();
+                return ClaimResult.CLAIMED;
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        } catch (Exception e) {
+            if (isSeatTaken(e)) {
+                System.out.println("Seat " + reservation.getSeatId() + " already taken for schedule " +
+                        reservation.getScheduleId());
+                return ClaimResult.SEAT_TAKEN;
+            }
+            e.printStackTrace();
+            return ClaimResult.FAILED;
+        }
+    }
+
+    /**
+     * Insert groups of reservations in a single transaction, so they share one commit. Each group
+     * is inserted as one JDBC batch and is all or nothing: a taken seat or a row the database
+     * rejects for any other reason fails its own group only.
+     * @param groups The groups to insert; every reservation of a claimed group receives its ID
+     * @return Per-group CLAIMED, SEAT_TAKEN or FAILED in input order, or null if the transaction failed
+     */
+    public ClaimResult[] claimGroups(List<List<Reservation>> groups) {
+        ClaimResult[] results = new ClaimResult[groups.size()];
+        int[][] ids = new int[groups.size()][];
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                session.doWork(connection -> insertGroups(connection, groups, results, ids));
+                transaction.commit();
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        for (int g = 0; g < groups.size(); g++) {
+            if (results[g] == ClaimResult.CLAIMED) {
+                for (int i = 0; i < ids[g].length; i++) {
+                    groups.get(g).get(i).setId(ids[g][i]);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Insert each group under its own savepoint, rolling back to it if any row of the group is
+     * rejected. Only the unique index on active seats makes that SEAT_TAKEN; other errors are FAILED.
+     */
+    private void insertGroups(Connection connection, List<List<Reservation>> groups, ClaimResult[] results,
+                              int[][] ids) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL);
+             PreparedStatement lastId = connection.prepareStatement("SELECT last_insert_rowid()");
+             Statement savepoint = connection.createStatement()) {
+            for (int g = 0; g < groups.size(); g++) {
+                List<Reservation> group = groups.get(g);
+                savepoint.execute("SAVEPOINT claim_group");
+                try {
+                    for (Reservation reservation : group) {
+                        bindInsert(insert, reservation);
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                } catch (SQLException e) {
+                    insert.clearBatch();
+                    savepoint.execute("ROLLBACK TO claim_group");
+                    savepoint.execute("RELEASE claim_group");
+                    if (isSeatTaken(e)) {
+                        results[g] = ClaimResult.SEAT_TAKEN;
+                    } else {
+                        e.printStackTrace();
+                        results[g] = ClaimResult.FAILED;
+                    }
+                    continue;
+                }
+
+                // The transaction holds SQLite's write lock, so the group received consecutive row IDs
+                try (ResultSet id = lastId.executeQuery()) {
+                    int firstId = id.getInt(1) - group.size() + 1;
+                    ids[g] = new int[group.size()];
+                    for (int i = 0; i < group.size(); i++) {
+                        ids[g][i] = firstId + i;
+                    }
+                }
+                savepoint.execute("RELEASE claim_group");
+                results[g] = ClaimResult.CLAIMED;
+            }
+        }
+    }
+
+    private void bindInsert(PreparedStatement insert, Reservation reservation) throws SQLException {
+        insert.setInt(1, reservation.getStudentId());
+        insert.setInt(2, reservation.getScheduleId());
+        insert.setString(3, reservation.getSeatId());
+        insert.setTimestamp(4, toTimestamp(reservation.getReservationTime()));
+        insert.setDouble(5, reservation.getPrice());
+        insert.setString(6, reservation.getStatus());
+        insert.setTimestamp(7, toTimestamp(reservation.getCreatedAt()));
+        insert.setTimestamp(8, toTimestamp(reservation.getUpdatedAt()));
+    }
+
+    private Timestamp toTimestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+
+    /**
+     * Check whether an exception was caused by the unique index on active seats
+     * @param e The exception
+     * @return True if the seat already has an active reservation
+     */
+    private boolean isSeatTaken(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLiteException
+                    && ((SQLiteException) cause).getResultCode() == SQLiteErrorCode.SQLITE_CONSTRAINT_UNIQUE
+                    && cause.getMessage() != null && cause.getMessage().contains(ACTIVE_SEAT_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Update an existing reservation
      * @param reservation The reservation to update
@@ -83,7 +251,7 @@ public class ReservationDAO {
      * @return The reservation or null if not found
      */
     public Reservation findById(int id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             return session.get(Reservation.class, id);
         } catch (Exception e) {
             e.printStackTrace();
@@ -96,7 +264,7 @@ public class ReservationDAO {
      * @return List of all reservations
      */
     public List<Reservation> findAll() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             return session.createQuery("FROM Reservation ORDER BY reservationTime DESC", Reservation.class).list();
         } catch (Exception e) {
             e.printStackTrace();
@@ -110,7 +278,7 @@ public class ReservationDAO {
      * @return List of reservations for the student
      */
     public List<Reservation> findByStudent(int studentId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<Reservation> query = session.createQuery(
                     "FROM Reservation WHERE studentId = :studentId ORDER BY reservationTime DESC", Reservation.class);
             query.setParameter("studentId", studentId);
@@ -127,7 +295,7 @@ public class ReservationDAO {
      * @return List of reservations for the schedule
      */
     public List<Reservation> findBySchedule(int scheduleId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<Reservation> query = session.createQuery(
                     "FROM Reservation WHERE scheduleId = :scheduleId ORDER BY seatId", Reservation.class);
             query.setParameter("scheduleId", scheduleId);
@@ -145,7 +313,7 @@ public class ReservationDAO {
      * @return True if the seat is reserved
      */
     public boolean isSeatReserved(int scheduleId, String seatId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<Long> query = session.createQuery(
                     "SELECT COUNT(*) FROM Reservation WHERE scheduleId = :scheduleId AND seatId = :seatId AND status != 'cancelled'",
                     Long.class);
@@ -165,7 +333,7 @@ public class ReservationDAO {
      * @return List of reserved seat IDs
      */
     public List<String> getReservedSeats(int scheduleId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<String> query = session.createQuery(
                     "SELECT seatId FROM Reservation WHERE scheduleId = :scheduleId AND status != 'cancelled'",
                     String.class);
@@ -183,7 +351,7 @@ public class ReservationDAO {
      * @return List of reservations with the specified status
      */
     public List<Reservation> findByStatus(String status) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<Reservation> query = session.createQuery(
                     "FROM Reservation WHERE status = :status ORDER BY reservationTime DESC", Reservation.class);
             query.setParameter("status", status);
@@ -201,7 +369,7 @@ public class ReservationDAO {
      * @return List of reservations made within the time range
      */
     public List<Reservation> findByReservationTimeRange(LocalDateTime start, LocalDateTime end) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<Reservation> query = session.createQuery(
                     "FROM Reservation WHERE reservationTime >= :start AND reservationTime <= :end ORDER BY reservationTime DESC",
                     Reservation.class);
@@ -214,17 +382,89 @@ public class ReservationDAO {
         }
     }
 
+    /**
+     * Get one page of reservations, newest first. Pages are keyed on (reservationTime, id) rather
+     * than an offset, so every page costs the same however deep into the history it is.
+     * @param after The last reservation of the previous page, or null for the first page
+     * @param limit The maximum number of reservations to return
+     * @return The reservations that come after the given one
+     */
+    public List<Reservation> findPage(Reservation after, int limit) {
+        return findPage("", after, limit, query -> { });
+    }
+
+    /**
+     * Get one page of reservations with a given status, newest first
+     * @param status The reservation status
+     * @param after The last reservation of the previous page, or null for the first page
+     * @param limit The maximum number of reservations to return
+     * @return The reservations with the status that come after the given one
+     */
+    public List<Reservation> findPageByStatus(String status, Reservation after, int limit) {
+        return findPage("r.status = :status", after, limit, query -> query.setParameter("status", status));
+    }
+
+    /**
+     * Get one page of the reservations made within a time range, newest first
+     * @param start The start time
+     * @param end The end time
+     * @param after The last reservation of the previous page, or null for the first page
+     * @param limit The maximum number of reservations to return
+     * @return The reservations in the range that come after the given one
+     */
+    public List<Reservation> findPageByReservationTimeRange(LocalDateTime start, LocalDateTime end,
+                                                           Reservation after, int limit) {
+        return findPage("r.reservationTime >= :start AND r.reservationTime <= :end", after, limit, query -> {
+            query.setParameter("start", start);
+            query.setParameter("end", end);
+        });
+    }
+
+    /**
+     * Run a keyset page query over reservations ordered by (reservationTime, id) descending
+     * @param filter An HQL condition on alias r, or an empty string
+     * @param after The last reservation of the previous page, or null for the first page
+     * @param limit The maximum number of reservations to return
+     * @param parameters Binds the filter's parameters
+     * @return The page, or null on error
+     */
+    private List<Reservation> findPage(String filter, Reservation after, int limit,
+                                       Consumer<Query<Reservation>> parameters) {
+        List<String> conditions = new ArrayList<>();
+        if (!filter.isEmpty()) {
+            conditions.add(filter);
+        }
+        if (after != null) {
+            conditions.add("(r.reservationTime, r.id) < (:afterTime, :afterId)");
+        }
+        String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+
+        try (Session session = HibernateUtil.openReadSession()) {
+            Query<Reservation> query = session.createQuery(
+                    "FROM Reservation r" + where + " ORDER BY r.reservationTime DESC, r.id DESC", Reservation.class);
+            parameters.accept(query);
+            if (after != null) {
+                query.setParameter("afterTime", after.getReservationTime());
+                query.setParameter("afterId", after.getId());
+            }
+            return query.setMaxResults(limit).list();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     /**
      * Cancel a reservation by changing its status
      * @param reservationId The reservation ID
-     * @return True if successful
+     * @return True if successful, false if the reservation does not exist or is already cancelled
      */
     public boolean cancelReservation(int reservationId) {
         Transaction transaction = null;
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             transaction = session.beginTransaction();
             Reservation reservation = session.get(Reservation.class, reservationId);
-            if (reservation != null) {
+            if (reservation != null && !"cancelled".equals(reservation.getStatus())) {
                 reservation.setStatus("cancelled");
                 reservation.setUpdatedAt(LocalDateTime.now());
                 session.merge(reservation);
@@ -240,13 +480,40 @@ public class ReservationDAO {
             return false;
         }
     }
+
+    /**
+     * Get a student's active reservations ready for display, with the screening's movie title,
+     * hall name and start time joined in, in a single query
+     * @param studentId The student ID
+     * @return Rows for the student's non-cancelled reservations, newest first
+     */
+    public List<ReservationRow> findRowsByStudentId(int studentId) {
+        try (Session session = HibernateUtil.openReadSession()) {
+            Query<ReservationRow> query = session.createQuery(
+                    "SELECT new com.ucinema.model.ReservationRow(r.id, m.title, h.name, s.startTime, " +
+                            "r.seatId, r.price, r.status) " +
+                            "FROM Reservation r " +
+                            "LEFT JOIN MovieSchedule s ON s.id = r.scheduleId " +
+                            "LEFT JOIN Movie m ON m.id = s.movieId " +
+                            "LEFT JOIN Hall h ON h.id = s.hallId " +
+                            "WHERE r.studentId = :studentId AND r.status != 'cancelled' " +
+                            "ORDER BY r.reservationTime DESC",
+                    ReservationRow.class);
+            query.setParameter("studentId", studentId);
+            return query.list();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     /**
      * Find reservations by student ID - alternative method name for consistency
      * @param studentId The student ID
      * @return List of reservations for the student
      */
     public List<Reservation> findByStudentId(int studentId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<Reservation> query = session.createQuery(
                     "FROM Reservation WHERE studentId = :studentId AND status != 'cancelled' ORDER BY reservationTime DESC",
                     Reservation.class);
@@ -34,6 +34,31 @@ public class StudentDAO {
         }
     }
 
+    /**
+     * Save several new students in one transaction. Either all are saved or none.
+     * Inserts are sent in JDBC batches of HibernateUtil.getBatchSize().
+     * @param students The students to save
+     * @return The saved students with IDs, or null if they could not be saved
+     */
+    public List<Student> saveAll(List<Student> students) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                HibernateUtil.persistInBatches(session, students);
+                transaction.commit();
+                return students;
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     /**
      * Update an existing student
      * @param student The student to update
@@ -82,7 +107,7 @@ public class StudentDAO {
      * @return The student or null if not found
      */
     public Student findById(int id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             return session.get(Student.class, id);
         } catch (Exception e) {
             e.printStackTrace();
@@ -96,7 +121,7 @@ public class StudentDAO {
      * @return The student or null if not found
      */
     public Student findByEmail(String email) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<Student> query = session.createQuery("FROM Student WHERE email = :email", Student.class);
             query.setParameter("email", email);
             return query.uniqueResult();
@@ -112,7 +137,7 @@ public class StudentDAO {
      * @return The student or null if not found
      */
     public Student findByStudentNumber(String studentNumber) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<Student> query = session.createQuery("FROM Student WHERE studentNumber = :studentNumber", Student.class);
             query.setParameter("studentNumber", studentNumber);
             return query.uniqueResult();
@@ -127,7 +152,7 @@ public class StudentDAO {
      * @return List of all students
      */
     public List<Student> findAll() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             return session.createQuery("FROM Student", Student.class).list();
         } catch (Exception e) {
             e.printStackTrace();
@@ -135,6 +160,25 @@ public class StudentDAO {
         }
     }
 
+    /**
+     * Get one page of students in ID order. Pages are keyed on the ID rather than an offset,
+     * so every page costs the same however many students come before it.
+     * @param after The last student of the previous page, or null for the first page
+     * @param limit The maximum number of students to return
+     * @return The students that come after the given one
+     */
+    public List<Student> findPage(Student after, int limit) {
+        try (Session session = HibernateUtil.openReadSession()) {
+            Query<Student> query = session.createQuery(
+                    "FROM Student WHERE id > :afterId ORDER BY id", Student.class);
+            query.setParameter("afterId", after != null ? after.getId() : 0);
+            return query.setMaxResults(limit).list();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     /**
      * Authenticate a student by email and password
      * @param email The email
@@ -142,7 +186,7 @@ public class StudentDAO {
      * @return The student if authentication is successful, null otherwise
      */
     public Student authenticate(String email, String password) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<Student> query = session.createQuery(
                     "FROM Student WHERE email = :email AND password = :password", Student.class);
             query.setParameter("email", email);
@@ -160,7 +204,7 @@ public class StudentDAO {
      * @return List of matching students
      */
     public List<Student> searchByName(String name) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             Query<Student> query = session.createQuery(
                     "FROM Student WHERE name LIKE :name", Student.class);
             query.setParameter("name", "%" + name + "%");
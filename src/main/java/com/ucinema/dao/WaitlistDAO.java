@@ -0,0 +1,143 @@
+package com.ucinema.dao;
+
+import com.ucinema.model.entities.Reservation;
+import com.ucinema.model.entities.WaitlistEntry;
+import com.ucinema.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Access Object for WaitlistEntry entity.
+ */
+public class WaitlistDAO {
+
+    /**
+     * Save a new waitlist entry to the database
+     * @param entry The entry to save
+     * @return The saved entry with ID
+     */
+    public WaitlistEntry save(WaitlistEntry entry) {
+        Transaction transaction = null;
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            transaction = session.beginTransaction();
+            session.persist(entry);
+            transaction.commit();
+            return entry;
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Find the students still waiting for a schedule, first come first served
+     * @param scheduleId The schedule ID
+     * @return List of waiting entries in joining order
+     */
+    public List<WaitlistEntry> findWaitingBySchedule(int scheduleId) {
+        try (Session session = HibernateUtil.openReadSession()) {
+            Query<WaitlistEntry> query = session.createQuery(
+                    "FROM WaitlistEntry WHERE scheduleId = :scheduleId AND status = 'waiting' ORDER BY createdAt, id",
+                    WaitlistEntry.class);
+            query.setParameter("scheduleId", scheduleId);
+            return query.list();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Find the waitlist entries of a student
+     * @param studentId The student ID
+     * @return List of the student's entries, newest first
+     */
+    public List<WaitlistEntry> findByStudent(int studentId) {
+        try (Session session = HibernateUtil.openReadSession()) {
+            Query<WaitlistEntry> query = session.createQuery(
+                    "FROM WaitlistEntry WHERE studentId = :studentId ORDER BY createdAt DESC", WaitlistEntry.class);
+            query.setParameter("studentId", studentId);
+            return query.list();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Take a student off the waitlist
+     * @param entryId The entry ID
+     * @return True if successful
+     */
+    public boolean cancel(int entryId) {
+        Transaction transaction = null;
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            transaction = session.beginTransaction();
+            WaitlistEntry entry = session.get(WaitlistEntry.class, entryId);
+            if (entry != null && "waiting".equals(entry.getStatus())) {
+                entry.setStatus("cancelled");
+                session.merge(entry);
+                transaction.commit();
+                return true;
+            }
+            return false;
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Cancel a reservation and hand seats to a waiting student in one transaction, so the freed
+     * seat is never visible to anyone else in between
+     * @param reservationId The reservation being cancelled
+     * @param entry The waitlist entry being promoted
+     * @param reservations The new reservations for the promoted student; each receives its ID
+     * @return True if everything was stored, false if nothing was because the reservation is no
+     *         longer active or the entry is no longer waiting
+     */
+    public boolean cancelAndPromote(int reservationId, WaitlistEntry entry, List<Reservation> reservations) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                Reservation cancelled = session.get(Reservation.class, reservationId);
+                WaitlistEntry promoted = session.get(WaitlistEntry.class, entry.getId());
+                // A cancelled reservation's seat may have been booked again; it is not ours to hand out
+                if (cancelled == null || "cancelled".equals(cancelled.getStatus())
+                        || promoted == null || !"waiting".equals(promoted.getStatus())) {
+                    transaction.rollback();
+                    return false;
+                }
+                cancelled.setStatus("cancelled");
+                cancelled.setUpdatedAt(LocalDateTime.now());
+                session.flush();
+
+                for (Reservation reservation : reservations) {
+                    session.persist(reservation);
+                }
+                promoted.setStatus("promoted");
+                transaction.commit();
+                entry.setStatus("promoted");
+                return true;
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.ucinema.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A reservation as the student's reservation list shows it, with the movie title, hall name and
+ * start time already joined in. Built by ReservationDAO.findRowsByStudentId in one query.
+ */
+public class ReservationRow {
+    private final int reservationId;
+    private final String movieTitle;
+    private final String hallName;
+    private final LocalDateTime startTime;
+    private final String seatId;
+    private final double price;
+    private final String status;
+
+    /**
+     * Create a row; the movie, hall and start time are null if the screening no longer exists
+     */
+    public ReservationRow(int reservationId, String movieTitle, String hallName, LocalDateTime startTime,
+                          String seatId, double price, String status) {
+        this.reservationId = reservationId;
+        this.movieTitle = movieTitle;
+        this.hallName = hallName;
+        this.startTime = startTime;
+        this.seatId = seatId;
+        this.price = price;
+        this.status = status;
+    }
+
+    public int getReservationId() {
+        return reservationId;
+    }
+
+    public String getMovieTitle() {
+        return movieTitle;
+    }
+
+    public String getHallName() {
+        return hallName;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public String getSeatId() {
+        return seatId;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return "ReservationRow{" +
+                "reservationId=" + reservationId +
+                ", movieTitle='" + movieTitle + '\'' +
+                ", hallName='" + hallName + '\'' +
+                ", startTime=" + startTime +
+                ", seatId='" + seatId + '\'' +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
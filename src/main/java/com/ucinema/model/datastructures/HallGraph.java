@@ -1,18 +1,21 @@
 package com.ucinema.model.datastructures;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A graph implementation to represent cinema hall seating arrangements.
  * Each seat is a vertex in the graph, with edges representing adjacency.
+ * Every hall is backed by an immutable {@link SeatLayout} that stores seats by dense ordinal
+ * and adjacency in compressed sparse row form; the String-based methods here are a thin view
+ * over it, so seat IDs such as "A1" only need to be unique within a hall.
+ * Layouts are kept in a concurrent map and replaced whole, so any thread can read a hall's seats.
  */
 public class HallGraph {
-    private Map<String, Seat> seats;
-    private Map<String, List<String>> adjacencyList;
+    private Map<Integer, SeatLayout> layouts;
 
     public HallGraph() {
-        seats = new HashMap<>();
-        adjacencyList = new HashMap<>();
+        layouts = new ConcurrentHashMap<>();
     }
 
     /**
@@ -20,34 +23,30 @@ public class HallGraph {
      */
     public static class Seat {
         private String id; // E.g., "A1", "B5"
-        private boolean reserved;
         private String type; // E.g., "standard", "premium", "accessible"
         private int hallId;
         private int row;
         private int column;
+        private int ordinal;
 
         public Seat(String id, int hallId, int row, int column, String type) {
+            this(id, hallId, row, column, type, -1);
+        }
+
+        Seat(String id, int hallId, int row, int column, String type, int ordinal) {
             this.id = id;
             this.hallId = hallId;
             this.row = row;
             this.column = column;
             this.type = type;
-            this.reserved = false;
+            this.ordinal = ordinal;
         }
 
-        // Getters and setters
+        // Getters
         public String getId() {
             return id;
         }
 
-        public boolean isReserved() {
-            return reserved;
-        }
-
-        public void setReserved(boolean reserved) {
-            this.reserved = reserved;
-        }
-
         public String getType() {
             return type;
         }
@@ -64,184 +63,162 @@ public class HallGraph {
             return column;
         }
 
+        /**
+         * Get the dense index of this seat within its hall
+         * @return The seat ordinal, or -1 if the seat does not come from a graph
+         */
+        public int getOrdinal() {
+            return ordinal;
+        }
+
         @Override
         public String toString() {
-            return id + (reserved ? " (Reserved)" : " (Available)");
+            return id;
         }
     }
 
     /**
-     * Add a seat to the graph
-     * @param seat The seat to add
+     * Register the seat layout of a hall, replacing any previous layout
+     * @param hallId The hall ID
+     * @param layout The hall's seat layout
+     */
+    public void addHall(int hallId, SeatLayout layout) {
+        layouts.put(hallId, layout);
+    }
+
+    /**
+     * Get the seat layout of a hall
+     * @param hallId The hall ID
+     * @return The layout or null if the hall has no seats
      */
-    public void addSeat(Seat seat) {
-        seats.put(seat.getId(), seat);
-        adjacencyList.put(seat.getId(), new ArrayList<>());
+    public SeatLayout getLayout(int hallId) {
+        return layouts.get(hallId);
     }
 
     /**
-     * Add an edge between two seats (indicating they are adjacent)
-     * @param seat1Id The ID of the first seat
-     * @param seat2Id The ID of the second seat
+     * Remove every seat of a hall from the graph
+     * @param hallId The hall ID
      */
-    public void addEdge(String seat1Id, String seat2Id) {
-        if (!seats.containsKey(seat1Id) || !seats.containsKey(seat2Id)) {
-            throw new IllegalArgumentException("Both seats must exist in the graph");
-        }
+    public void removeHall(int hallId) {
+        layouts.remove(hallId);
+    }
 
-        // Add bidirectional edge
-        adjacencyList.get(seat1Id).add(seat2Id);
-        adjacencyList.get(seat2Id).add(seat1Id);
+    private Seat seatView(int hallId, SeatLayout layout, int ordinal) {
+        return new Seat(layout.getSeatId(ordinal), hallId, layout.getRow(ordinal),
+                layout.getColumn(ordinal), layout.getType(ordinal), ordinal);
     }
 
     /**
      * Get all adjacent seats to a given seat
+     * @param hallId The hall ID
      * @param seatId The ID of the seat
      * @return List of adjacent seat IDs
      */
-    public List<String> getAdjacentSeats(String seatId) {
-        if (!seats.containsKey(seatId)) {
+    public List<String> getAdjacentSeats(int hallId, String seatId) {
+        SeatLayout layout = layouts.get(hallId);
+        int ordinal = layout != null ? layout.ordinalOf(seatId) : -1;
+        if (ordinal < 0) {
             throw new IllegalArgumentException("Seat does not exist in the graph");
         }
-        return adjacencyList.get(seatId);
+
+        List<String> adjacent = new ArrayList<>(layout.neighbourEnd(ordinal) - layout.neighbourStart(ordinal));
+        for (int i = layout.neighbourStart(ordinal); i < layout.neighbourEnd(ordinal); i++) {
+            adjacent.add(layout.getSeatId(layout.neighbourAt(i)));
+        }
+        return adjacent;
     }
 
     /**
      * Get a seat by its ID
+     * @param hallId The hall ID
      * @param seatId The seat ID
      * @return The seat or null if not found
      */
-    public Seat getSeat(String seatId) {
-        return seats.get(seatId);
+    public Seat getSeat(int hallId, String seatId) {
+        SeatLayout layout = layouts.get(hallId);
+        if (layout == null) {
+            return null;
+        }
+        int ordinal = layout.ordinalOf(seatId);
+        return ordinal >= 0 ? seatView(hallId, layout, ordinal) : null;
     }
 
     /**
-     * Reserve a seat
-     * @param seatId The ID of the seat to reserve
-     * @return True if successful, false if already reserved
+     * Get a seat by its ordinal within the hall
+     * @param hallId The hall ID
+     * @param ordinal The seat ordinal
+     * @return The seat or null if not found
      */
-    public boolean reserveSeat(String seatId) {
-        Seat seat = seats.get(seatId);
-        if (seat == null || seat.isReserved()) {
-            return false;
+    public Seat getSeatByOrdinal(int hallId, int ordinal) {
+        SeatLayout layout = layouts.get(hallId);
+        if (layout == null || ordinal < 0 || ordinal >= layout.getSeatCount()) {
+            return null;
         }
-        seat.setReserved(true);
-        return true;
+        return seatView(hallId, layout, ordinal);
     }
 
     /**
-     * Cancel a seat reservation
-     * @param seatId The ID of the seat
-     * @return True if successful, false if not reserved
+     * Get the number of seats in a hall
+     * @param hallId The hall ID
+     * @return The seat count
      */
-    public boolean cancelReservation(String seatId) {
-        Seat seat = seats.get(seatId);
-        if (seat == null || !seat.isReserved()) {
-            return false;
-        }
-        seat.setReserved(false);
-        return true;
+    public int getSeatCount(int hallId) {
+        SeatLayout layout = layouts.get(hallId);
+        return layout != null ? layout.getSeatCount() : 0;
     }
 
     /**
      * Get all seats in a specific hall
      * @param hallId The hall ID
-     * @return List of seats in the hall
+     * @return List of seats in the hall, in ordinal order
      */
     public List<Seat> getSeatsInHall(int hallId) {
-        List<Seat> hallSeats = new ArrayList<>();
-        for (Seat seat : seats.values()) {
-            if (seat.getHallId() == hallId) {
-                hallSeats.add(seat);
-            }
+        SeatLayout layout = layouts.get(hallId);
+        if (layout == null) {
+            return new ArrayList<>();
+        }
+        List<Seat> hallSeats = new ArrayList<>(layout.getSeatCount());
+        for (int ordinal = 0; ordinal < layout.getSeatCount(); ordinal++) {
+            hallSeats.add(seatView(hallId, layout, ordinal));
         }
         return hallSeats;
     }
 
     /**
-     * Find available seats in a hall
+     * Find available seats in a hall for one screening
      * @param hallId The hall ID
+     * @param occupancy The screening's seat occupancy
      * @return List of available seats
      */
-    public List<Seat> getAvailableSeats(int hallId) {
+    public List<Seat> getAvailableSeats(int hallId, SeatOccupancy occupancy) {
         List<Seat> availableSeats = new ArrayList<>();
-        for (Seat seat : seats.values()) {
-            if (seat.getHallId() == hallId && !seat.isReserved()) {
-                availableSeats.add(seat);
-            }
+        SeatLayout layout = layouts.get(hallId);
+        if (layout == null) {
+            return availableSeats;
         }
-        return availableSeats;
-    }
-
-    /**
-     * Find the best available adjacent seats for a group
-     * @param hallId The hall ID
-     * @param count Number of seats needed
-     * @return List of adjacent seats or empty list if not available
-     */
-    public List<Seat> findBestAdjacentSeats(int hallId, int count) {
-        // This is a simplified implementation - a real one would consider more factors
-
-        // First get all available seats in the hall
-        List<Seat> availableSeats = getAvailableSeats(hallId);
-
-        // Sort by row and column for easier processing
-        availableSeats.sort(Comparator
-                .comparing(Seat::getRow)
-                .thenComparing(Seat::getColumn));
-
-        // Look for consecutive seats in the same row
-        int currentRow = -1;
-        List<Seat> consecutiveSeats = new ArrayList<>();
-
-        for (Seat seat : availableSeats) {
-            if (seat.getRow() != currentRow) {
-                // Starting a new row
-                currentRow = seat.getRow();
-                consecutiveSeats.clear();
-                consecutiveSeats.add(seat);
-            } else if (seat.getColumn() == consecutiveSeats.get(consecutiveSeats.size() - 1).getColumn() + 1) {
-                // This seat is adjacent to the last one in our list
-                consecutiveSeats.add(seat);
-
-                // If we have enough consecutive seats, return them
-                if (consecutiveSeats.size() == count) {
-                    return new ArrayList<>(consecutiveSeats);
-                }
-            } else {
-                // This seat is in the same row but not consecutive
-                consecutiveSeats.clear();
-                consecutiveSeats.add(seat);
+        for (int ordinal = 0; ordinal < layout.getSeatCount(); ordinal++) {
+            if (!occupancy.isReserved(ordinal)) {
+                availableSeats.add(seatView(hallId, layout, ordinal));
             }
         }
-
-        // If we couldn't find enough consecutive seats, return empty list
-        return new ArrayList<>();
+        return availableSeats;
     }
 
     /**
      * Generate a visual representation of the seating arrangement
      * @param hallId The hall ID
+     * @param occupancy The screening's seat occupancy, or null to show the bare layout
      * @return 2D array representing the seating chart
      */
-    public String[][] generateSeatingChart(int hallId) {
-        List<Seat> hallSeats = getSeatsInHall(hallId);
+    public String[][] generateSeatingChart(int hallId, SeatOccupancy occupancy) {
+        SeatLayout layout = layouts.get(hallId);
 
-        if (hallSeats.isEmpty()) {
+        if (layout == null || layout.getSeatCount() == 0) {
             return new String[0][0];
         }
 
-        // Find dimensions of the hall
-        int maxRow = 0;
-        int maxCol = 0;
-
-        for (Seat seat : hallSeats) {
-            maxRow = Math.max(maxRow, seat.getRow());
-            maxCol = Math.max(maxCol, seat.getColumn());
-        }
-
-        // Create chart with room for labels (hence the +1)
-        String[][] chart = new String[maxRow + 1][maxCol + 1];
+        // Create chart sized to the layout's highest row and column
+        String[][] chart = new String[layout.getRowCount()][layout.getColumnCount()];
 
         // Initialize with empty spaces
         for (int i = 0; i < chart.length; i++) {
@@ -251,9 +228,10 @@ public class HallGraph {
         }
 
         // Fill in seats
-        for (Seat seat : hallSeats) {
-            String status = seat.isReserved() ? "X" : "O";
-            chart[seat.getRow()][seat.getColumn()] = seat.getId() + status;
+        for (int ordinal = 0; ordinal < layout.getSeatCount(); ordinal++) {
+            boolean reserved = occupancy != null && occupancy.isReserved(ordinal);
+            String status = reserved ? "X" : "O";
+            chart[layout.getRow(ordinal)][layout.getColumn(ordinal)] = layout.getSeatId(ordinal) + status;
         }
 
         return chart;
@@ -264,15 +242,21 @@ public class HallGraph {
      * @return Collection of all seats
      */
     public Collection<Seat> getAllSeats() {
-        return seats.values();
+        List<Seat> allSeats = new ArrayList<>();
+        for (Integer hallId : layouts.keySet()) {
+            allSeats.addAll(getSeatsInHall(hallId));
+        }
+        return allSeats;
     }
 
     /**
      * Check if a seat exists in the graph
+     * @param hallId The hall ID
      * @param seatId The seat ID
      * @return True if the seat exists
      */
-    public boolean seatExists(String seatId) {
-        return seats.containsKey(seatId);
+    public boolean seatExists(int hallId, String seatId) {
+        SeatLayout layout = layouts.get(hallId);
+        return layout != null && layout.ordinalOf(seatId) >= 0;
     }
-}
\ No newline at end of file
+}
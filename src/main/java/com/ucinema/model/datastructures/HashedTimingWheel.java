@@ -0,0 +1,188 @@
+package com.ucinema.model.datastructures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hashed timing wheel for large numbers of short-lived timeouts.
+ * <p>
+ * Time is divided into ticks and the wheel has a power-of-two number of buckets, each a
+ * doubly linked list of timeouts. A timeout due in {@code d} ticks goes into bucket
+ * {@code (current + d) & mask} with {@code d / wheelSize} remaining rounds, so scheduling and
+ * cancelling are O(1) and every tick only visits one bucket. A single daemon thread drives the
+ * wheel; expired tasks run on that thread, outside the wheel's lock.
+ */
+public class HashedTimingWheel {
+    private final long tickMillis;
+    private final Timeout[] buckets;
+    private final int mask;
+    private final Thread worker;
+    private long currentTick;
+    private int pendingCount;
+    private volatile boolean running;
+
+    /**
+     * A scheduled task that can be cancelled until it fires
+     */
+    public static final class Timeout {
+        private final Runnable task;
+        private long remainingRounds;
+        private int bucket = -1;
+        private Timeout prev;
+        private Timeout next;
+        private HashedTimingWheel wheel;
+
+        private Timeout(HashedTimingWheel wheel, Runnable task) {
+            this.wheel = wheel;
+            this.task = task;
+        }
+
+        /**
+         * Cancel the timeout
+         * @return True if it was pending, false if it already fired or was cancelled
+         */
+        public boolean cancel() {
+            HashedTimingWheel owner = wheel;
+            return owner != null && owner.cancel(this);
+        }
+    }
+
+    /**
+     * Create and start a timing wheel
+     * @param tickMillis Length of one tick in milliseconds
+     * @param wheelSize Number of buckets, rounded up to a power of two
+     * @param name Name of the worker thread
+     */
+    public HashedTimingWheel(long tickMillis, int wheelSize, String name) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick length and wheel size must be positive");
+        }
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickMillis = tickMillis;
+        this.buckets = new Timeout[size];
+        this.mask = size - 1;
+        this.running = true;
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedule a task
+     * @param task The task to run once the delay has passed
+     * @param delayMillis Delay in milliseconds; fires within one tick after it elapses
+     * @return Handle for cancelling the task
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        Timeout timeout = new Timeout(this, task);
+        // Round up so a timeout never fires early
+        long ticks = Math.max(1, (delayMillis + tickMillis - 1) / tickMillis);
+        synchronized (this) {
+            if (!running) {
+                throw new IllegalStateException("Timing wheel has been stopped");
+            }
+            timeout.remainingRounds = (ticks - 1) / buckets.length;
+            int bucket = (int) ((currentTick + ticks) & mask);
+            timeout.bucket = bucket;
+            timeout.next = buckets[bucket];
+            if (buckets[bucket] != null) {
+                buckets[bucket].prev = timeout;
+            }
+            buckets[bucket] = timeout;
+            pendingCount++;
+        }
+        return timeout;
+    }
+
+    private synchronized boolean cancel(Timeout timeout) {
+        if (timeout.bucket < 0) {
+            return false;
+        }
+        unlink(timeout);
+        return true;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev == null) {
+            buckets[timeout.bucket] = timeout.next;
+        } else {
+            timeout.prev.next = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+        timeout.wheel = null;
+        pendingCount--;
+    }
+
+    /**
+     * Get the number of timeouts that have not fired or been cancelled
+     * @return The pending count
+     */
+    public synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Stop the worker thread; pending timeouts never fire
+     */
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        long startNanos = System.nanoTime();
+        long tick = 0;
+        while (running) {
+            // Sleep until the next tick boundary, measured from the start to avoid drift
+            long deadline = startNanos + (tick + 1) * tickMillis * 1_000_000;
+            long sleepMillis = (deadline - System.nanoTime() + 999_999) / 1_000_000;
+            if (sleepMillis > 0) {
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            tick++;
+            for (Runnable task : advance()) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Move the wheel one tick forward and collect the tasks that are due
+     */
+    private synchronized List<Runnable> advance() {
+        currentTick++;
+        int bucket = (int) (currentTick & mask);
+        List<Runnable> due = new ArrayList<>();
+        Timeout timeout = buckets[bucket];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.remainingRounds == 0) {
+                unlink(timeout);
+                due.add(timeout.task);
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+        return due;
+    }
+}
@@ -0,0 +1,238 @@
+package com.ucinema.model.datastructures;
+
+import com.ucinema.model.entities.Reservation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory store of reservations with O(1) append, lookup and removal.
+ * <p>
+ * Every reservation sits in one node that is threaded onto three doubly linked chains:
+ * the global insertion order, its student's chain and its schedule's chain. A hash index
+ * from reservation ID to node gives constant-time find and remove, and the per-student and
+ * per-schedule chains are reached through their own hash maps, so listing a student's
+ * reservations costs time proportional to that student's reservations only.
+ * The IDs are captured on insert, so later changes to the entity do not break the indexes.
+ */
+public class ReservationStore {
+    private static final int ALL = 0;
+    private static final int BY_STUDENT = 1;
+    private static final int BY_SCHEDULE = 2;
+
+    private final Chain all;
+    private final Map<Integer, Node> byId;
+    private final Map<Integer, Chain> byStudent;
+    private final Map<Integer, Chain> bySchedule;
+
+    private static class Node {
+        final Reservation data;
+        final int id;
+        final int studentId;
+        final int scheduleId;
+        // Links for the global, per-student and per-schedule chains
+        Node prev;
+        Node next;
+        Node prevByStudent;
+        Node nextByStudent;
+        Node prevBySchedule;
+        Node nextBySchedule;
+
+        Node(Reservation data) {
+            this.data = data;
+            this.id = data.getId();
+            this.studentId = data.getStudentId();
+            this.scheduleId = data.getScheduleId();
+        }
+
+        Node prev(int kind) {
+            return kind == ALL ? prev : kind == BY_STUDENT ? prevByStudent : prevBySchedule;
+        }
+
+        Node next(int kind) {
+            return kind == ALL ? next : kind == BY_STUDENT ? nextByStudent : nextBySchedule;
+        }
+
+        void setPrev(int kind, Node node) {
+            if (kind == ALL) {
+                prev = node;
+            } else if (kind == BY_STUDENT) {
+                prevByStudent = node;
+            } else {
+                prevBySchedule = node;
+            }
+        }
+
+        void setNext(int kind, Node node) {
+            if (kind == ALL) {
+                next = node;
+            } else if (kind == BY_STUDENT) {
+                nextByStudent = node;
+            } else {
+                nextBySchedule = node;
+            }
+        }
+    }
+
+    /**
+     * A doubly linked chain of nodes through one set of links
+     */
+    private static class Chain {
+        final int kind;
+        Node head;
+        Node tail;
+        int size;
+
+        Chain(int kind) {
+            this.kind = kind;
+        }
+
+        void append(Node node) {
+            node.setPrev(kind, tail);
+            node.setNext(kind, null);
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.setNext(kind, node);
+            }
+            tail = node;
+            size++;
+        }
+
+        void unlink(Node node) {
+            Node prev = node.prev(kind);
+            Node next = node.next(kind);
+            if (prev == null) {
+                head = next;
+            } else {
+                prev.setNext(kind, next);
+            }
+            if (next == null) {
+                tail = prev;
+            } else {
+                next.setPrev(kind, prev);
+            }
+            node.setPrev(kind, null);
+            node.setNext(kind, null);
+            size--;
+        }
+
+        Reservation[] toArray() {
+            Reservation[] array = new Reservation[size];
+            int index = 0;
+            for (Node current = head; current != null; current = current.next(kind)) {
+                array[index++] = current.data;
+            }
+            return array;
+        }
+    }
+
+    public ReservationStore() {
+        all = new Chain(ALL);
+        byId = new HashMap<>();
+        byStudent = new HashMap<>();
+        bySchedule = new HashMap<>();
+    }
+
+    /**
+     * Add a reservation, replacing any stored reservation with the same ID
+     * @param reservation The reservation to add
+     */
+    public void add(Reservation reservation) {
+        remove(reservation.getId());
+
+        Node node = new Node(reservation);
+        byId.put(node.id, node);
+        all.append(node);
+        byStudent.computeIfAbsent(node.studentId, id -> new Chain(BY_STUDENT)).append(node);
+        bySchedule.computeIfAbsent(node.scheduleId, id -> new Chain(BY_SCHEDULE)).append(node);
+    }
+
+    /**
+     * Remove a reservation from the store
+     * @param reservationId The ID of the reservation to remove
+     * @return The removed reservation or null if not found
+     */
+    public Reservation remove(int reservationId) {
+        Node node = byId.remove(reservationId);
+        if (node == null) {
+            return null;
+        }
+
+        all.unlink(node);
+        unlinkFrom(byStudent, node.studentId, node);
+        unlinkFrom(bySchedule, node.scheduleId, node);
+        return node.data;
+    }
+
+    private void unlinkFrom(Map<Integer, Chain> chains, int key, Node node) {
+        Chain chain = chains.get(key);
+        chain.unlink(node);
+        if (chain.size == 0) {
+            chains.remove(key);
+        }
+    }
+
+    /**
+     * Find a reservation by its ID
+     * @param reservationId The ID to search for
+     * @return The reservation or null if not found
+     */
+    public Reservation find(int reservationId) {
+        Node node = byId.get(reservationId);
+        return node != null ? node.data : null;
+    }
+
+    /**
+     * Check if a reservation is stored
+     * @param reservationId The reservation ID
+     * @return True if the reservation is in the store
+     */
+    public boolean contains(int reservationId) {
+        return byId.containsKey(reservationId);
+    }
+
+    /**
+     * Find all reservations for a specific student
+     * @param studentId The student ID to search for
+     * @return Array of reservations for the student, in insertion order
+     */
+    public Reservation[] findByStudent(int studentId) {
+        Chain chain = byStudent.get(studentId);
+        return chain != null ? chain.toArray() : new Reservation[0];
+    }
+
+    /**
+     * Find all reservations for a specific schedule
+     * @param scheduleId The schedule ID to search for
+     * @return Array of reservations for the schedule, in insertion order
+     */
+    public Reservation[] findBySchedule(int scheduleId) {
+        Chain chain = bySchedule.get(scheduleId);
+        return chain != null ? chain.toArray() : new Reservation[0];
+    }
+
+    /**
+     * Get all reservations as an array
+     * @return Array of all reservations, in insertion order
+     */
+    public Reservation[] toArray() {
+        return all.toArray();
+    }
+
+    /**
+     * Get the number of stored reservations
+     * @return The number of reservations in the store
+     */
+    public int size() {
+        return all.size;
+    }
+
+    /**
+     * Check if the store is empty
+     * @return True if the store is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return all.size == 0;
+    }
+}
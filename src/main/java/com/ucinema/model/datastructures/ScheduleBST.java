@@ -3,60 +3,80 @@ package com.ucinema.model.datastructures;
 import com.ucinema.model.entities.MovieSchedule;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * A Binary Search Tree implementation for managing movie schedules.
- * Schedules are ordered by their start time for efficient searching.
+ * A self-balancing (AVL) Binary Search Tree implementation for managing movie schedules.
+ * Schedules are ordered by (start time, hall ID, schedule ID) for efficient searching,
+ * and a secondary index maps schedule IDs to tree nodes so lookups by ID do not walk the tree.
  */
 public class ScheduleBST {
     private Node root;
+    private final Map<Integer, Node> idIndex;
 
-    private class Node {
+    private static class Node {
         MovieSchedule data;
+        // Key captured at insert time so later mutation of the entity cannot corrupt the ordering
+        LocalDateTime startTime;
+        int hallId;
+        int id;
+        int height;
         Node left;
         Node right;
 
         Node(MovieSchedule data) {
-            this.data = data;
+            this.height = 1;
             this.left = null;
             this.right = null;
+            setData(data);
+        }
+
+        void setData(MovieSchedule data) {
+            this.data = data;
+            this.startTime = data.getStartTime();
+            this.hallId = data.getHallId();
+            this.id = data.getId();
         }
     }
 
     public ScheduleBST() {
         root = null;
+        idIndex = new HashMap<>();
     }
 
     /**
-     * Insert a new movie schedule into the BST
+     * Insert a new movie schedule into the BST.
+     * If a schedule with the same ID is already present it is replaced.
      * @param schedule The movie schedule to insert
      */
     public void insert(MovieSchedule schedule) {
+        if (schedule == null || schedule.getStartTime() == null) {
+            throw new IllegalArgumentException("Cannot insert a schedule without a start time");
+        }
+
+        if (idIndex.containsKey(schedule.getId())) {
+            remove(schedule.getId());
+        }
+
         root = insertRec(root, schedule);
     }
 
     private Node insertRec(Node root, MovieSchedule schedule) {
         if (root == null) {
-            root = new Node(schedule);
-            return root;
+            Node node = new Node(schedule);
+            idIndex.put(node.id, node);
+            return node;
         }
 
-        // Compare start times for ordering
-        if (schedule.getStartTime().isBefore(root.data.getStartTime())) {
+        if (compareToNode(schedule.getStartTime(), schedule.getHallId(), schedule.getId(), root) < 0) {
             root.left = insertRec(root.left, schedule);
-        } else if (schedule.getStartTime().isAfter(root.data.getStartTime())) {
-            root.right = insertRec(root.right, schedule);
         } else {
-            // If schedules have the same start time, compare by hall ID
-            if (schedule.getHallId() < root.data.getHallId()) {
-                root.left = insertRec(root.left, schedule);
-            } else {
-                root.right = insertRec(root.right, schedule);
-            }
+            root.right = insertRec(root.right, schedule);
         }
 
-        return root;
+        return rebalance(root);
     }
 
     /**
@@ -65,26 +85,8 @@ public class ScheduleBST {
      * @return The movie schedule or null if not found
      */
     public MovieSchedule find(int scheduleId) {
-        return findRec(root, scheduleId);
-    }
-
-    private MovieSchedule findRec(Node root, int scheduleId) {
-        if (root == null) {
-            return null;
-        }
-
-        if (root.data.getId() == scheduleId) {
-            return root.data;
-        }
-
-        // Since we can't determine which side based on ID alone,
-        // we need to search both sides
-        MovieSchedule leftResult = findRec(root.left, scheduleId);
-        if (leftResult != null) {
-            return leftResult;
-        }
-
-        return findRec(root.right, scheduleId);
+        Node node = idIndex.get(scheduleId);
+        return node != null ? node.data : null;
     }
 
     /**
@@ -104,18 +106,18 @@ public class ScheduleBST {
             return;
         }
 
-        // If root's start time is greater than our start range, check the left subtree
-        if (start.isBefore(root.data.getStartTime())) {
+        // Only descend left if schedules at or after the range start can be there
+        if (!root.startTime.isBefore(start)) {
             findInTimeRangeRec(root.left, start, end, result);
         }
 
         // If this node is within our range, add it
-        if (!root.data.getStartTime().isBefore(start) && !root.data.getStartTime().isAfter(end)) {
+        if (!root.startTime.isBefore(start) && !root.startTime.isAfter(end)) {
             result.add(root.data);
         }
 
-        // If root's start time is less than our end range, check the right subtree
-        if (root.data.getStartTime().isBefore(end)) {
+        // Only descend right if schedules at or before the range end can be there
+        if (!root.startTime.isAfter(end)) {
             findInTimeRangeRec(root.right, start, end, result);
         }
     }
@@ -150,7 +152,7 @@ public class ScheduleBST {
      * @return List of all schedules
      */
     public List<MovieSchedule> getAllInOrder() {
-        List<MovieSchedule> result = new ArrayList<>();
+        List<MovieSchedule> result = new ArrayList<>(idIndex.size());
         inOrderTraversal(root, result);
         return result;
     }
@@ -171,27 +173,28 @@ public class ScheduleBST {
      * @return True if removed, false if not found
      */
     public boolean remove(int scheduleId) {
-        MovieSchedule schedule = find(scheduleId);
-        if (schedule == null) {
+        Node node = idIndex.get(scheduleId);
+        if (node == null) {
             return false;
         }
 
-        root = removeRec(root, schedule);
+        root = removeRec(root, node.startTime, node.hallId, node.id);
+        idIndex.remove(scheduleId);
         return true;
     }
 
-    private Node removeRec(Node root, MovieSchedule schedule) {
+    private Node removeRec(Node root, LocalDateTime startTime, int hallId, int id) {
         if (root == null) {
             return null;
         }
 
         // Navigate to the node
-        int comparison = compareSchedules(schedule, root.data);
+        int comparison = compareToNode(startTime, hallId, id, root);
 
         if (comparison < 0) {
-            root.left = removeRec(root.left, schedule);
+            root.left = removeRec(root.left, startTime, hallId, id);
         } else if (comparison > 0) {
-            root.right = removeRec(root.right, schedule);
+            root.right = removeRec(root.right, startTime, hallId, id);
         } else {
             // Node with only one child or no child
             if (root.left == null) {
@@ -200,30 +203,97 @@ public class ScheduleBST {
                 return root.left;
             }
 
-            // Node with two children: Get the inorder successor
-            root.data = minValue(root.right);
-
-            // Delete the inorder successor
-            root.right = removeRec(root.right, root.data);
+            // Node with two children: move the inorder successor into this node
+            Node successor = minNode(root.right);
+            root.right = removeRec(root.right, successor.startTime, successor.hallId, successor.id);
+            root.setData(successor.data);
+            idIndex.put(root.id, root);
         }
 
-        return root;
+        return rebalance(root);
     }
 
-    private MovieSchedule minValue(Node root) {
-        MovieSchedule minValue = root.data;
+    private Node minNode(Node root) {
         while (root.left != null) {
-            minValue = root.left.data;
             root = root.left;
         }
-        return minValue;
+        return root;
     }
 
-    private int compareSchedules(MovieSchedule a, MovieSchedule b) {
-        int timeComparison = a.getStartTime().compareTo(b.getStartTime());
+    /**
+     * Get the number of schedules in the tree
+     * @return The number of schedules
+     */
+    public int size() {
+        return idIndex.size();
+    }
+
+    /**
+     * Check if the tree is empty
+     * @return True if the tree is empty
+     */
+    public boolean isEmpty() {
+        return idIndex.isEmpty();
+    }
+
+    private int compareToNode(LocalDateTime startTime, int hallId, int id, Node node) {
+        int timeComparison = startTime.compareTo(node.startTime);
         if (timeComparison != 0) {
             return timeComparison;
         }
-        return Integer.compare(a.getHallId(), b.getHallId());
+        int hallComparison = Integer.compare(hallId, node.hallId);
+        if (hallComparison != 0) {
+            return hallComparison;
+        }
+        return Integer.compare(id, node.id);
+    }
+
+    // AVL balancing helpers
+
+    private int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private void updateHeight(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+
+    private Node rebalance(Node node) {
+        updateHeight(node);
+        int balance = height(node.left) - height(node.right);
+
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+
+        return node;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,280 @@
+package com.ucinema.model.datastructures;
+
+import com.ucinema.model.entities.MovieSchedule;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An interval tree over the [startTime, endTime) slots of the schedules in one hall.
+ * Implemented as an AVL tree ordered by (start time, schedule ID) where every node also
+ * tracks the latest end time in its subtree, so overlap queries can skip whole subtrees.
+ */
+public class ScheduleIntervalTree {
+    private Node root;
+    private final Map<Integer, Node> idIndex;
+
+    private static class Node {
+        MovieSchedule data;
+        // Interval captured at insert time so later mutation of the entity cannot corrupt the tree
+        LocalDateTime start;
+        LocalDateTime end;
+        int id;
+        LocalDateTime maxEnd;
+        int height;
+        Node left;
+        Node right;
+
+        Node(MovieSchedule data) {
+            this.height = 1;
+            setData(data);
+        }
+
+        void setData(MovieSchedule data) {
+            this.data = data;
+            this.start = data.getStartTime();
+            this.end = data.getEndTime();
+            this.id = data.getId();
+            this.maxEnd = end;
+        }
+    }
+
+    public ScheduleIntervalTree() {
+        root = null;
+        idIndex = new HashMap<>();
+    }
+
+    /**
+     * Insert a schedule's time slot into the tree.
+     * If a schedule with the same ID is already present it is replaced.
+     * @param schedule The schedule to insert
+     */
+    public void insert(MovieSchedule schedule) {
+        if (schedule == null || schedule.getStartTime() == null || schedule.getEndTime() == null) {
+            throw new IllegalArgumentException("Cannot insert a schedule without start and end times");
+        }
+
+        if (idIndex.containsKey(schedule.getId())) {
+            remove(schedule.getId());
+        }
+
+        root = insertRec(root, schedule);
+    }
+
+    private Node insertRec(Node root, MovieSchedule schedule) {
+        if (root == null) {
+            Node node = new Node(schedule);
+            idIndex.put(node.id, node);
+            return node;
+        }
+
+        if (compareToNode(schedule.getStartTime(), schedule.getId(), root) < 0) {
+            root.left = insertRec(root.left, schedule);
+        } else {
+            root.right = insertRec(root.right, schedule);
+        }
+
+        return rebalance(root);
+    }
+
+    /**
+     * Remove a schedule's time slot by schedule ID
+     * @param scheduleId The schedule ID
+     * @return True if removed, false if not found
+     */
+    public boolean remove(int scheduleId) {
+        Node node = idIndex.get(scheduleId);
+        if (node == null) {
+            return false;
+        }
+
+        root = removeRec(root, node.start, node.id);
+        idIndex.remove(scheduleId);
+        return true;
+    }
+
+    private Node removeRec(Node root, LocalDateTime start, int id) {
+        if (root == null) {
+            return null;
+        }
+
+        int comparison = compareToNode(start, id, root);
+
+        if (comparison < 0) {
+            root.left = removeRec(root.left, start, id);
+        } else if (comparison > 0) {
+            root.right = removeRec(root.right, start, id);
+        } else {
+            if (root.left == null) {
+                return root.right;
+            } else if (root.right == null) {
+                return root.left;
+            }
+
+            // Node with two children: move the inorder successor into this node
+            Node successor = root.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            root.right = removeRec(root.right, successor.start, successor.id);
+            root.setData(successor.data);
+            idIndex.put(root.id, root);
+        }
+
+        return rebalance(root);
+    }
+
+    /**
+     * Check whether a schedule is in the tree
+     * @param scheduleId The schedule ID
+     * @return True if present
+     */
+    public boolean contains(int scheduleId) {
+        return idIndex.containsKey(scheduleId);
+    }
+
+    /**
+     * Check if any schedule overlaps the window [start, end)
+     * @param start The window start
+     * @param end The window end
+     * @param excludeScheduleId Schedule ID to ignore (for updates), or null
+     * @return True if at least one other schedule overlaps the window
+     */
+    public boolean overlaps(LocalDateTime start, LocalDateTime end, Integer excludeScheduleId) {
+        return anyOverlapRec(root, start, end, excludeScheduleId);
+    }
+
+    private boolean anyOverlapRec(Node root, LocalDateTime start, LocalDateTime end, Integer excludeId) {
+        if (root == null || !root.maxEnd.isAfter(start)) {
+            return false;
+        }
+
+        if (anyOverlapRec(root.left, start, end, excludeId)) {
+            return true;
+        }
+
+        // Nodes to the right start even later, so nothing there can overlap either
+        if (!root.start.isBefore(end)) {
+            return false;
+        }
+
+        if (root.end.isAfter(start) && (excludeId == null || root.id != excludeId)) {
+            return true;
+        }
+
+        return anyOverlapRec(root.right, start, end, excludeId);
+    }
+
+    /**
+     * Find every schedule that overlaps the window [start, end)
+     * @param start The window start
+     * @param end The window end
+     * @return List of overlapping schedules ordered by start time
+     */
+    public List<MovieSchedule> findOverlapping(LocalDateTime start, LocalDateTime end) {
+        List<MovieSchedule> result = new ArrayList<>();
+        findOverlappingRec(root, start, end, result);
+        return result;
+    }
+
+    private void findOverlappingRec(Node root, LocalDateTime start, LocalDateTime end, List<MovieSchedule> result) {
+        if (root == null || !root.maxEnd.isAfter(start)) {
+            return;
+        }
+
+        findOverlappingRec(root.left, start, end, result);
+
+        if (!root.start.isBefore(end)) {
+            return;
+        }
+
+        if (root.end.isAfter(start)) {
+            result.add(root.data);
+        }
+
+        findOverlappingRec(root.right, start, end, result);
+    }
+
+    /**
+     * Get the number of schedules in the tree
+     * @return The size
+     */
+    public int size() {
+        return idIndex.size();
+    }
+
+    /**
+     * Check if the tree is empty
+     * @return True if empty
+     */
+    public boolean isEmpty() {
+        return idIndex.isEmpty();
+    }
+
+    private int compareToNode(LocalDateTime start, int id, Node node) {
+        int timeComparison = start.compareTo(node.start);
+        if (timeComparison != 0) {
+            return timeComparison;
+        }
+        return Integer.compare(id, node.id);
+    }
+
+    // AVL balancing helpers, keeping the maxEnd augmentation up to date
+
+    private int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+
+        return node;
+    }
+}
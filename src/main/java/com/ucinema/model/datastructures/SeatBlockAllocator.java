@@ -0,0 +1,225 @@
+package com.ucinema.model.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Finds the best contiguous block of free seats for a group in one screening.
+ * <p>
+ * Each row keeps a bitset of free columns. Window starts of N free seats are found with
+ * O(log N) shift-and-AND passes over the row's words, and because the block score
+ * (row distance x 100 + column distance, summed over the block, the same weighting as the
+ * seat priorities in HallService) is convex in the start column, only the nearest valid
+ * start on either side of the ideal one has to be scored. A query therefore costs
+ * O(rows * words * log N), where words is one for any hall up to 64 columns wide.
+ * Reserve and release update a single bit.
+ */
+public class SeatBlockAllocator {
+    private final SeatLayout layout;
+    private final int rowCount;
+    private final int columnCount;
+    private final int wordsPerRow;
+    // Free columns per row, row-major: row r uses words [r * wordsPerRow, (r + 1) * wordsPerRow)
+    private final long[] freeColumns;
+    // Seat ordinal at (row, column), or -1 where the layout has no seat
+    private final int[] ordinalAt;
+    private final int idealRow;
+    private final int idealColumn;
+
+    /**
+     * Create an allocator for a screening
+     * @param layout The hall's seat layout
+     * @param occupancy The screening's current occupancy, or null if every seat is free
+     */
+    public SeatBlockAllocator(SeatLayout layout, SeatOccupancy occupancy) {
+        this.layout = layout;
+        this.rowCount = layout.getRowCount();
+        this.columnCount = layout.getColumnCount();
+        this.wordsPerRow = Math.max(1, (columnCount + 63) >>> 6);
+        this.freeColumns = new long[Math.max(0, rowCount) * wordsPerRow];
+        this.ordinalAt = new int[Math.max(0, rowCount * columnCount)];
+        this.idealRow = rowCount / 2;
+        this.idealColumn = columnCount / 2;
+
+        Arrays.fill(ordinalAt, -1);
+        for (int ordinal = 0; ordinal < layout.getSeatCount(); ordinal++) {
+            int row = layout.getRow(ordinal);
+            int column = layout.getColumn(ordinal);
+            ordinalAt[row * columnCount + column] = ordinal;
+            if (occupancy == null || !occupancy.isReserved(ordinal)) {
+                setFree(row, column, true);
+            }
+        }
+    }
+
+    /**
+     * Mark a seat as taken
+     * @param ordinal The seat ordinal
+     */
+    public void reserve(int ordinal) {
+        setFree(layout.getRow(ordinal), layout.getColumn(ordinal), false);
+    }
+
+    /**
+     * Mark a seat as free again
+     * @param ordinal The seat ordinal
+     */
+    public void release(int ordinal) {
+        setFree(layout.getRow(ordinal), layout.getColumn(ordinal), true);
+    }
+
+    private void setFree(int row, int column, boolean free) {
+        int index = row * wordsPerRow + (column >>> 6);
+        long mask = 1L << column;
+        if (free) {
+            freeColumns[index] |= mask;
+        } else {
+            freeColumns[index] &= ~mask;
+        }
+    }
+
+    /**
+     * Find the highest-scoring block of adjacent free seats in a single row
+     * @param count Number of seats needed
+     * @return Ordinals of the seats from left to right, or an empty array if no row has room
+     */
+    public int[] findBestBlock(int count) {
+        if (count <= 0 || count > columnCount) {
+            return new int[0];
+        }
+
+        long[] starts = new long[wordsPerRow];
+        long[] scratch = new long[wordsPerRow];
+        int idealStart = idealColumn - (count - 1) / 2;
+
+        long bestScore = Long.MAX_VALUE;
+        int bestRow = -1;
+        int bestStart = -1;
+
+        for (int row = 0; row < rowCount; row++) {
+            // Rows further from the ideal than the best block so far cannot win
+            long rowPenalty = (long) Math.abs(row - idealRow) * 100 * count;
+            if (rowPenalty >= bestScore) {
+                continue;
+            }
+
+            if (!findWindowStarts(row, count, starts, scratch)) {
+                continue;
+            }
+
+            int after = nextSetBit(starts, Math.max(0, idealStart));
+            int before = idealStart >= 0 ? previousSetBit(starts, Math.min(idealStart, columnCount - 1)) : -1;
+
+            for (int start : new int[]{after, before}) {
+                if (start < 0) {
+                    continue;
+                }
+                long score = rowPenalty + columnDistanceSum(start, start + count - 1);
+                if (score < bestScore) {
+                    bestScore = score;
+                    bestRow = row;
+                    bestStart = start;
+                }
+            }
+        }
+
+        if (bestRow < 0) {
+            return new int[0];
+        }
+
+        int[] block = new int[count];
+        for (int i = 0; i < count; i++) {
+            block[i] = ordinalAt[bestRow * columnCount + bestStart + i];
+        }
+        return block;
+    }
+
+    /**
+     * Compute the columns at which a run of {@code count} free seats starts in a row
+     * @return True if at least one run exists
+     */
+    private boolean findWindowStarts(int row, int count, long[] starts, long[] scratch) {
+        System.arraycopy(freeColumns, row * wordsPerRow, starts, 0, wordsPerRow);
+
+        // Bit c stays set while columns c .. c + covered - 1 are all free; double coverage each pass
+        int covered = 1;
+        while (covered < count) {
+            int shift = Math.min(covered, count - covered);
+            shiftRight(starts, shift, scratch);
+            boolean any = false;
+            for (int i = 0; i < wordsPerRow; i++) {
+                starts[i] &= scratch[i];
+                any |= starts[i] != 0;
+            }
+            if (!any) {
+                return false;
+            }
+            covered += shift;
+        }
+
+        for (long word : starts) {
+            if (word != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void shiftRight(long[] source, int shift, long[] target) {
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int i = 0; i < wordsPerRow; i++) {
+            int from = i + wordShift;
+            long low = from < wordsPerRow ? source[from] : 0L;
+            long high = from + 1 < wordsPerRow ? source[from + 1] : 0L;
+            target[i] = bitShift == 0 ? low : (low >>> bitShift) | (high << (64 - bitShift));
+        }
+    }
+
+    private int nextSetBit(long[] bits, int from) {
+        int index = from >>> 6;
+        if (index >= bits.length) {
+            return -1;
+        }
+        long word = bits[index] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (index << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == bits.length) {
+                return -1;
+            }
+            word = bits[index];
+        }
+    }
+
+    private int previousSetBit(long[] bits, int from) {
+        int index = from >>> 6;
+        long word = bits[index] & (-1L >>> (63 - (from & 63)));
+        while (true) {
+            if (word != 0) {
+                return (index << 6) + 63 - Long.numberOfLeadingZeros(word);
+            }
+            if (index-- == 0) {
+                return -1;
+            }
+            word = bits[index];
+        }
+    }
+
+    /**
+     * Sum of |column - idealColumn| over the columns first .. last
+     */
+    private long columnDistanceSum(int first, int last) {
+        if (first >= idealColumn) {
+            return arithmeticSum(first - idealColumn, last - idealColumn);
+        }
+        if (last <= idealColumn) {
+            return arithmeticSum(idealColumn - last, idealColumn - first);
+        }
+        return arithmeticSum(1, idealColumn - first) + arithmeticSum(0, last - idealColumn);
+    }
+
+    private long arithmeticSum(long from, long to) {
+        return (from + to) * (to - from + 1) / 2;
+    }
+}
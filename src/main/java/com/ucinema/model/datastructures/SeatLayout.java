@@ -0,0 +1,264 @@
+package com.ucinema.model.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * An immutable seat graph for one hall layout.
+ * Seats are addressed by dense int ordinals and stored column-wise in parallel arrays,
+ * and adjacency is kept in compressed sparse row form: the neighbours of seat {@code s}
+ * are {@code targets[offsets[s]]} up to (but excluding) {@code targets[offsets[s + 1]]}.
+ * Instances are built with {@link Builder}.
+ */
+public final class SeatLayout {
+    private final String[] seatIds;
+    private final int[] rows;
+    private final int[] columns;
+    private final String[] types;
+    private final int[] offsets;
+    private final int[] targets;
+    // Open-addressing index from seat ID to ordinal + 1 (0 marks an empty slot)
+    private final int[] idSlots;
+    private final int rowCount;
+    private final int columnCount;
+
+    private SeatLayout(Builder builder) {
+        int seatCount = builder.seatCount;
+        this.seatIds = Arrays.copyOf(builder.seatIds, seatCount);
+        this.rows = Arrays.copyOf(builder.rows, seatCount);
+        this.columns = Arrays.copyOf(builder.columns, seatCount);
+        this.types = Arrays.copyOf(builder.types, seatCount);
+
+        // Count degrees, prefix-sum them into offsets, then scatter the edges
+        this.offsets = new int[seatCount + 1];
+        for (int i = 0; i < builder.edgeCount; i++) {
+            offsets[builder.edgeFrom[i] + 1]++;
+            offsets[builder.edgeTo[i] + 1]++;
+        }
+        for (int i = 0; i < seatCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        this.targets = new int[offsets[seatCount]];
+        int[] cursor = Arrays.copyOf(offsets, seatCount);
+        for (int i = 0; i < builder.edgeCount; i++) {
+            int from = builder.edgeFrom[i];
+            int to = builder.edgeTo[i];
+            targets[cursor[from]++] = to;
+            targets[cursor[to]++] = from;
+        }
+
+        int maxRow = -1;
+        int maxColumn = -1;
+        for (int i = 0; i < seatCount; i++) {
+            maxRow = Math.max(maxRow, rows[i]);
+            maxColumn = Math.max(maxColumn, columns[i]);
+        }
+        this.rowCount = maxRow + 1;
+        this.columnCount = maxColumn + 1;
+
+        this.idSlots = new int[slotCapacity(seatCount)];
+        for (int i = 0; i < seatCount; i++) {
+            int slot = findSlot(seatIds[i]);
+            if (idSlots[slot] != 0) {
+                throw new IllegalArgumentException("Duplicate seat ID: " + seatIds[i]);
+            }
+            idSlots[slot] = i + 1;
+        }
+    }
+
+    private static int slotCapacity(int seatCount) {
+        int capacity = 4;
+        while (capacity < seatCount * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private int findSlot(String seatId) {
+        int mask = idSlots.length - 1;
+        int h = seatId.hashCode() * 0x9E3779B9;
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (idSlots[slot] != 0 && !seatIds[idSlots[slot] - 1].equals(seatId)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Get the number of seats in the layout
+     * @return The seat count
+     */
+    public int getSeatCount() {
+        return seatIds.length;
+    }
+
+    /**
+     * Get the number of rows spanned by the layout
+     * @return Highest row index + 1
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get the number of columns spanned by the layout
+     * @return Highest column index + 1
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Look up a seat's ordinal by its ID
+     * @param seatId The seat ID (e.g. "A1")
+     * @return The ordinal, or -1 if the seat does not exist
+     */
+    public int ordinalOf(String seatId) {
+        if (seatId == null) {
+            return -1;
+        }
+        return idSlots[findSlot(seatId)] - 1;
+    }
+
+    /**
+     * Get a seat's ID
+     * @param ordinal The seat ordinal
+     * @return The seat ID
+     */
+    public String getSeatId(int ordinal) {
+        return seatIds[ordinal];
+    }
+
+    /**
+     * Get a seat's zero-based row
+     * @param ordinal The seat ordinal
+     * @return The row index
+     */
+    public int getRow(int ordinal) {
+        return rows[ordinal];
+    }
+
+    /**
+     * Get a seat's column
+     * @param ordinal The seat ordinal
+     * @return The column index
+     */
+    public int getColumn(int ordinal) {
+        return columns[ordinal];
+    }
+
+    /**
+     * Get a seat's type
+     * @param ordinal The seat ordinal
+     * @return The seat type
+     */
+    public String getType(int ordinal) {
+        return types[ordinal];
+    }
+
+    /**
+     * Get the index in the target array of a seat's first neighbour
+     * @param ordinal The seat ordinal
+     * @return Start index (inclusive) for {@link #neighbourAt(int)}
+     */
+    public int neighbourStart(int ordinal) {
+        return offsets[ordinal];
+    }
+
+    /**
+     * Get the index in the target array just past a seat's last neighbour
+     * @param ordinal The seat ordinal
+     * @return End index (exclusive) for {@link #neighbourAt(int)}
+     */
+    public int neighbourEnd(int ordinal) {
+        return offsets[ordinal + 1];
+    }
+
+    /**
+     * Get a neighbour ordinal from the target array
+     * @param index An index between neighbourStart and neighbourEnd of some seat
+     * @return The neighbour's ordinal
+     */
+    public int neighbourAt(int index) {
+        return targets[index];
+    }
+
+    /**
+     * Get a copy of a seat's neighbour ordinals
+     * @param ordinal The seat ordinal
+     * @return Array of neighbour ordinals
+     */
+    public int[] getNeighbours(int ordinal) {
+        return Arrays.copyOfRange(targets, offsets[ordinal], offsets[ordinal + 1]);
+    }
+
+    /**
+     * Mutable builder that collects seats and edges before freezing them into a SeatLayout
+     */
+    public static final class Builder {
+        private String[] seatIds = new String[16];
+        private int[] rows = new int[16];
+        private int[] columns = new int[16];
+        private String[] types = new String[16];
+        private int seatCount;
+        private int[] edgeFrom = new int[32];
+        private int[] edgeTo = new int[32];
+        private int edgeCount;
+
+        /**
+         * Add a seat
+         * @param seatId The seat ID, unique within the layout
+         * @param row Zero-based row index
+         * @param column Column index
+         * @param type Seat type, e.g. "standard", "premium", "accessible"
+         * @return The ordinal assigned to the seat
+         */
+        public int addSeat(String seatId, int row, int column, String type) {
+            if (seatCount == seatIds.length) {
+                int capacity = seatCount * 2;
+                seatIds = Arrays.copyOf(seatIds, capacity);
+                rows = Arrays.copyOf(rows, capacity);
+                columns = Arrays.copyOf(columns, capacity);
+                types = Arrays.copyOf(types, capacity);
+            }
+            seatIds[seatCount] = seatId;
+            rows[seatCount] = row;
+            columns[seatCount] = column;
+            types[seatCount] = type;
+            return seatCount++;
+        }
+
+        /**
+         * Add an undirected edge between two seats
+         * @param ordinal1 The first seat ordinal
+         * @param ordinal2 The second seat ordinal
+         */
+        public void addEdge(int ordinal1, int ordinal2) {
+            if (ordinal1 < 0 || ordinal1 >= seatCount || ordinal2 < 0 || ordinal2 >= seatCount) {
+                throw new IllegalArgumentException("Both seats must exist in the layout");
+            }
+            if (edgeCount == edgeFrom.length) {
+                edgeFrom = Arrays.copyOf(edgeFrom, edgeCount * 2);
+                edgeTo = Arrays.copyOf(edgeTo, edgeCount * 2);
+            }
+            edgeFrom[edgeCount] = ordinal1;
+            edgeTo[edgeCount] = ordinal2;
+            edgeCount++;
+        }
+
+        /**
+         * Get the number of seats added so far
+         * @return The seat count
+         */
+        public int getSeatCount() {
+            return seatCount;
+        }
+
+        /**
+         * Freeze the collected seats and edges
+         * @return The immutable layout
+         */
+        public SeatLayout build() {
+            return new SeatLayout(this);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ucinema.model.datastructures;
+
+/**
+ * A compact bitset recording which seats are taken for a single screening.
+ * Seats are addressed by their dense ordinal within the hall (see {@link HallGraph.Seat#getOrdinal()}),
+ * so a 200-seat screening needs four longs rather than one object per seat.
+ */
+public class SeatOccupancy {
+    private final long[] words;
+    private final int seatCount;
+    private int reservedCount;
+
+    /**
+     * Create an occupancy map with every seat free
+     * @param seatCount Number of seats in the hall
+     */
+    public SeatOccupancy(int seatCount) {
+        if (seatCount < 0) {
+            throw new IllegalArgumentException("Seat count cannot be negative");
+        }
+        this.seatCount = seatCount;
+        this.words = new long[(seatCount + 63) >>> 6];
+        this.reservedCount = 0;
+    }
+
+    private SeatOccupancy(SeatOccupancy source) {
+        this.seatCount = source.seatCount;
+        this.words = source.words.clone();
+        this.reservedCount = source.reservedCount;
+    }
+
+    /**
+     * Copy the current state, e.g. to publish it to readers while the original keeps changing
+     * @return An independent copy of this map
+     */
+    public SeatOccupancy snapshot() {
+        return new SeatOccupancy(this);
+    }
+
+    /**
+     * Check if a seat is taken
+     * @param ordinal The seat ordinal
+     * @return True if the seat is reserved
+     */
+    public boolean isReserved(int ordinal) {
+        checkOrdinal(ordinal);
+        return (words[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * Mark a seat as taken
+     * @param ordinal The seat ordinal
+     * @return True if successful, false if already reserved
+     */
+    public boolean reserve(int ordinal) {
+        checkOrdinal(ordinal);
+        int index = ordinal >>> 6;
+        long mask = 1L << ordinal;
+        if ((words[index] & mask) != 0) {
+            return false;
+        }
+        words[index] |= mask;
+        reservedCount++;
+        return true;
+    }
+
+    /**
+     * Mark a seat as free again
+     * @param ordinal The seat ordinal
+     * @return True if successful, false if not reserved
+     */
+    public boolean release(int ordinal) {
+        checkOrdinal(ordinal);
+        int index = ordinal >>> 6;
+        long mask = 1L << ordinal;
+        if ((words[index] & mask) == 0) {
+            return false;
+        }
+        words[index] &= ~mask;
+        reservedCount--;
+        return true;
+    }
+
+    /**
+     * Get the number of seats covered by this map
+     * @return The seat count
+     */
+    public int getSeatCount() {
+        return seatCount;
+    }
+
+    /**
+     * Get the number of reserved seats
+     * @return The reserved seat count
+     */
+    public int getReservedCount() {
+        return reservedCount;
+    }
+
+    /**
+     * Get the number of free seats
+     * @return The available seat count
+     */
+    public int getAvailableCount() {
+        return seatCount - reservedCount;
+    }
+
+    private void checkOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= seatCount) {
+            throw new IndexOutOfBoundsException("Seat ordinal " + ordinal + " out of range [0, " + seatCount + ")");
+        }
+    }
+}
@@ -2,61 +2,88 @@ package com.ucinema.model.datastructures;
 
 import com.ucinema.model.entities.Student;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
  * A hash table implementation for efficient student lookup.
- * Uses separate chaining to handle collisions.
+ * Uses open addressing with linear probing over parallel arrays keyed by the primitive
+ * student ID, so entries need no node objects. IDs are scrambled with a mixing hash before
+ * probing, which keeps sequential IDs from forming long runs, and removal shifts later
+ * entries of the probe run back instead of leaving tombstones.
  */
 public class StudentHashTable {
     private static final int DEFAULT_CAPACITY = 16;
     private static final double LOAD_FACTOR_THRESHOLD = 0.75;
 
-    private LinkedList<Student>[] table;
+    private int[] keys;
+    // A null value marks an empty slot
+    private Student[] values;
     private int size;
     private int capacity;
+    private int mask;
+    private int resizeThreshold;
 
     /**
      * Create a new hash table with default capacity
      */
-    @SuppressWarnings("unchecked")
     public StudentHashTable() {
-        this.capacity = DEFAULT_CAPACITY;
-        this.table = new LinkedList[capacity];
-        this.size = 0;
-
-        // Initialize the chains
-        for (int i = 0; i < capacity; i++) {
-            table[i] = new LinkedList<>();
-        }
+        this(DEFAULT_CAPACITY);
     }
 
     /**
      * Create a new hash table with specified capacity
      *
-     * @param capacity The initial capacity
+     * @param capacity The initial capacity, rounded up to a power of two
      */
-    @SuppressWarnings("unchecked")
     public StudentHashTable(int capacity) {
-        this.capacity = capacity;
-        this.table = new LinkedList[capacity];
-        this.size = 0;
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        allocate(tableSizeFor(capacity));
+    }
 
-        // Initialize the chains
-        for (int i = 0; i < capacity; i++) {
-            table[i] = new LinkedList<>();
+    private static int tableSizeFor(int capacity) {
+        int tableSize = 2;
+        while (tableSize < capacity && tableSize < (1 << 30)) {
+            tableSize <<= 1;
         }
+        return tableSize;
+    }
+
+    private void allocate(int newCapacity) {
+        this.capacity = newCapacity;
+        this.mask = newCapacity - 1;
+        this.keys = new int[newCapacity];
+        this.values = new Student[newCapacity];
+        this.resizeThreshold = (int) (newCapacity * LOAD_FACTOR_THRESHOLD);
     }
 
     /**
-     * Hash function to determine the index for a student
+     * Hash function to determine the home slot for a student
      *
      * @param studentId The student ID
-     * @return The hash value
+     * @return The slot index
      */
     private int hash(int studentId) {
-        return studentId % capacity;
+        // Murmur3 finaliser: every input bit affects the low bits used for the slot
+        int h = studentId;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h & mask;
+    }
+
+    /**
+     * Find the slot holding a student ID, or the empty slot where it would go
+     */
+    private int slotOf(int studentId) {
+        int slot = hash(studentId);
+        while (values[slot] != null && keys[slot] != studentId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
     }
 
     /**
@@ -70,23 +97,19 @@ public class StudentHashTable {
             throw new IllegalArgumentException("Cannot insert null student");
         }
 
-        // Check if we need to resize
-        if ((double) size / capacity >= LOAD_FACTOR_THRESHOLD) {
-            resize();
+        int slot = slotOf(student.getId());
+        if (values[slot] != null) {
+            return false; // Duplicate found
         }
 
-        int index = hash(student.getId());
+        keys[slot] = student.getId();
+        values[slot] = student;
+        size++;
 
-        // Check for duplicate
-        for (Student existingStudent : table[index]) {
-            if (existingStudent.getId() == student.getId()) {
-                return false; // Duplicate found
-            }
+        // Check if we need to resize
+        if (size > resizeThreshold) {
+            resize();
         }
-
-        // Insert the student
-        table[index].add(student);
-        size++;
         return true;
     }
 
@@ -96,15 +119,7 @@ public class StudentHashTable {
      * @return The student or null if not found
      */
     public Student find(int studentId) {
-        int index = hash(studentId);
-
-        for (Student student : table[index]) {
-            if (student.getId() == studentId) {
-                return student;
-            }
-        }
-
-        return null; // Not found
+        return values[slotOf(studentId)];
     }
 
     /**
@@ -113,18 +128,29 @@ public class StudentHashTable {
      * @return The removed student or null if not found
      */
     public Student remove(int studentId) {
-        int index = hash(studentId);
-
-        for (int i = 0; i < table[index].size(); i++) {
-            Student student = table[index].get(i);
-            if (student.getId() == studentId) {
-                table[index].remove(i);
-                size--;
-                return student;
+        int slot = slotOf(studentId);
+        Student removed = values[slot];
+        if (removed == null) {
+            return null; // Not found
+        }
+
+        // Backward-shift: pull later entries of the run into the gap if the gap lies on their probe path
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (values[next] != null) {
+            int home = hash(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
             }
+            next = (next + 1) & mask;
         }
+        values[gap] = null;
+        keys[gap] = 0;
 
-        return null; // Not found
+        size--;
+        return removed;
     }
 
     /**
@@ -132,10 +158,12 @@ public class StudentHashTable {
      * @return List of all students
      */
     public List<Student> getAllStudents() {
-        List<Student> allStudents = new ArrayList<>();
+        List<Student> allStudents = new ArrayList<>(size);
 
-        for (LinkedList<Student> chain : table) {
-            allStudents.addAll(chain);
+        for (Student student : values) {
+            if (student != null) {
+                allStudents.add(student);
+            }
         }
 
         return allStudents;
@@ -144,27 +172,19 @@ public class StudentHashTable {
     /**
      * Resize the hash table when it gets too full
      */
-    @SuppressWarnings("unchecked")
     private void resize() {
-        int newCapacity = capacity * 2;
-        LinkedList<Student>[] newTable = new LinkedList[newCapacity];
-
-        // Initialize new chains
-        for (int i = 0; i < newCapacity; i++) {
-            newTable[i] = new LinkedList<>();
-        }
+        int[] oldKeys = keys;
+        Student[] oldValues = values;
+        allocate(capacity * 2);
 
         // Rehash all existing students
-        for (LinkedList<Student> chain : table) {
-            for (Student student : chain) {
-                int newIndex = student.getId() % newCapacity;
-                newTable[newIndex].add(student);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
             }
         }
-
-        // Update table and capacity
-        table = newTable;
-        capacity = newCapacity;
     }
 
     /**
@@ -182,4 +202,4 @@ public class StudentHashTable {
     public boolean isEmpty() {
         return size == 0;
     }
-}
\ No newline at end of file
+}
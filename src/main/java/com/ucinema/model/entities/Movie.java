@@ -1,6 +1,9 @@
 package com.ucinema.model.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 
@@ -9,9 +12,12 @@ import java.time.LocalDate;
  */
 @Entity
 @Table(name = "movies")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "movies")
 public class Movie {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "movie_ids")
+    @GenericGenerator(name = "movie_ids", strategy = "com.ucinema.util.TableBlockIdGenerator")
     private int id;
 
     @Column(nullable = false)
@@ -1,6 +1,9 @@
 package com.ucinema.model.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 import java.time.LocalDateTime;
 
 /**
@@ -8,9 +11,12 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "movie_schedules")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "movie_schedules")
 public class MovieSchedule {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "schedule_ids")
+    @GenericGenerator(name = "schedule_ids", strategy = "com.ucinema.util.TableBlockIdGenerator")
     private int id;
 
     @Column(name = "movie_id", nullable = false)
@@ -1,6 +1,7 @@
 package com.ucinema.model.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
 import java.time.LocalDateTime;
 
 /**
@@ -10,7 +11,8 @@ import java.time.LocalDateTime;
 @Table(name = "students")
 public class Student {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "student_ids")
+    @GenericGenerator(name = "student_ids", strategy = "com.ucinema.util.TableBlockIdGenerator")
     private int id;
 
     @Column(nullable = false)
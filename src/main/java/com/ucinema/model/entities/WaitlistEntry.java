@@ -0,0 +1,120 @@
+package com.ucinema.model.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class representing a student waiting for seats at a sold-out screening.
+ */
+@Entity
+@Table(name = "waitlist")
+public class WaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @Column(name = "student_id", nullable = false)
+    private int studentId;
+
+    @Column(name = "schedule_id", nullable = false)
+    private int scheduleId;
+
+    @Column(name = "party_size", nullable = false)
+    private int partySize;
+
+    @Column
+    private String status; // "waiting", "promoted" or "cancelled"
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Default constructor required by JPA
+    public WaitlistEntry() {
+    }
+
+    // Constructor for joining the waitlist
+    public WaitlistEntry(int studentId, int scheduleId, int partySize) {
+        this.studentId = studentId;
+        this.scheduleId = scheduleId;
+        this.partySize = partySize;
+        this.status = "waiting";
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(int studentId) {
+        this.studentId = studentId;
+    }
+
+    public int getScheduleId() {
+        return scheduleId;
+    }
+
+    public void setScheduleId(int scheduleId) {
+        this.scheduleId = scheduleId;
+    }
+
+    public int getPartySize() {
+        return partySize;
+    }
+
+    public void setPartySize(int partySize) {
+        this.partySize = partySize;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    @Override
+    public String toString() {
+        return "WaitlistEntry{" +
+                "id=" + id +
+                ", studentId=" + studentId +
+                ", scheduleId=" + scheduleId +
+                ", partySize=" + partySize +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
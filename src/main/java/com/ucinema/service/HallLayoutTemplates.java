@@ -0,0 +1,318 @@
+package com.ucinema.service;
+
+import com.ucinema.model.datastructures.SeatLayout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide factory and cache of hall seat layouts.
+ * A layout depends only on the hall capacity (which selects the standard rows, seats per row
+ * and center aisle), so each shape is generated once and the immutable {@link SeatLayout}
+ * is shared by every hall with that capacity.
+ */
+public final class HallLayoutTemplates {
+
+    // Predefined layouts for standard capacity halls
+    // Format: capacity -> [rows, seatsPerRow, hasCenterAisle]
+    private static final Map<Integer, int[]> STANDARD_LAYOUTS;
+
+    static {
+        Map<Integer, int[]> layouts = new HashMap<>();
+        layouts.put(25, new int[]{5, 5, 0}); // 5 rows x 5 seats
+        layouts.put(50, new int[]{5, 10, 0}); // 5 rows x 10 seats
+        layouts.put(75, new int[]{6, 13, 1}); // 6 rows x 13 seats with center aisle
+        layouts.put(100, new int[]{8, 13, 1}); // 8 rows x 13 seats with center aisle
+        layouts.put(150, new int[]{10, 16, 0}); // 10 rows x 16 seats without center aisle
+        layouts.put(200, new int[]{11, 19, 1}); // 11 rows x 19 seats with center aisle
+        STANDARD_LAYOUTS = Collections.unmodifiableMap(layouts);
+    }
+
+    private static final Map<Integer, SeatLayout> TEMPLATES = new ConcurrentHashMap<>();
+
+    private HallLayoutTemplates() {
+    }
+
+    /**
+     * Check if a capacity is one of the standard options
+     * @param capacity The hall capacity
+     * @return True if the capacity has its own standard layout
+     */
+    public static boolean isStandardCapacity(int capacity) {
+        return STANDARD_LAYOUTS.containsKey(capacity);
+    }
+
+    /**
+     * Find the closest standard capacity
+     * @param capacity The target capacity
+     * @return The closest standard capacity
+     */
+    public static int findClosestStandardCapacity(int capacity) {
+        int closestCapacity = 25; // Default smallest
+        int minDiff = Math.abs(capacity - closestCapacity);
+
+        for (Integer standardCapacity : STANDARD_LAYOUTS.keySet()) {
+            int diff = Math.abs(capacity - standardCapacity);
+            if (diff < minDiff) {
+                minDiff = diff;
+                closestCapacity = standardCapacity;
+            }
+        }
+
+        return closestCapacity;
+    }
+
+    /**
+     * Get the standard layout for a given capacity
+     * @param capacity The hall capacity
+     * @return int[] array with [rows, seatsPerRow, hasCenterAisle]
+     */
+    public static int[] getStandardLayout(int capacity) {
+        return STANDARD_LAYOUTS.get(findClosestStandardCapacity(capacity)).clone();
+    }
+
+    /**
+     * Describe the layout used for a capacity, as stored in Hall.seatingLayout
+     * @param capacity The hall capacity
+     * @return Description such as "Rows:11,Seats:19,CenterAisle:true"
+     */
+    public static String describe(int capacity) {
+        int[] layout = getStandardLayout(capacity);
+        StringBuilder description = new StringBuilder();
+        description.append("Rows:").append(layout[0]).append(",Seats:").append(layout[1]);
+        if (layout[2] == 1) {
+            description.append(",CenterAisle:true");
+        }
+        return description.toString();
+    }
+
+    /**
+     * Get the shared seat layout for a capacity, generating it on first use
+     * @param capacity The hall capacity
+     * @return The immutable seat layout
+     */
+    public static SeatLayout forCapacity(int capacity) {
+        return TEMPLATES.computeIfAbsent(capacity, HallLayoutTemplates::createLayout);
+    }
+
+    /**
+     * Generate the seat layout for a capacity using the standardized layouts
+     * @param targetCapacity The hall capacity
+     * @return The seat layout
+     */
+    private static SeatLayout createLayout(int targetCapacity) {
+        int standardCapacity = findClosestStandardCapacity(targetCapacity);
+        if (standardCapacity != targetCapacity) {
+            System.out.println("Using standard layout for capacity " + standardCapacity +
+                    " instead of requested " + targetCapacity);
+        }
+
+        int[] layout = STANDARD_LAYOUTS.get(standardCapacity);
+        int totalRows = layout[0];
+        int maxSeatsInRow = layout[1];
+        boolean hasCenterAisle = layout[2] == 1;
+
+        System.out.println("Creating a " + totalRows + " x " + maxSeatsInRow +
+                (hasCenterAisle ? " layout with center aisle" : " layout") +
+                " template for capacity " + targetCapacity);
+
+        // Create a flattened list of all seat positions to create
+        List<int[]> seatPositions = new ArrayList<>();
+
+        // First, generate all possible seat positions based on layout
+        for (int i = 0; i < totalRows; i++) {
+            int seatsInThisRow;
+
+            // For small halls (25 seats)
+            if (targetCapacity == 25) {
+                seatsInThisRow = 5; // All rows have 5 seats
+            }
+            // For medium halls (50 seats)
+            else if (targetCapacity == 50) {
+                seatsInThisRow = 10; // All rows have 10 seats
+            }
+            // Special handling for 150-seat halls
+            else if (targetCapacity == 150) {
+                if (i < 2) {
+                    // First two rows have 12 seats (75% of max)
+                    seatsInThisRow = 12;
+                } else if (i < 4) {
+                    // Next two rows have 14 seats (87.5% of max)
+                    seatsInThisRow = 14;
+                } else {
+                    // All other rows have full seats
+                    seatsInThisRow = maxSeatsInRow;
+                }
+            }
+            // For larger halls, create a curved layout
+            else {
+                if (i == 0) {
+                    // First row has 80% of max seats
+                    seatsInThisRow = (int) Math.round(maxSeatsInRow * 0.8);
+                } else if (i == 1) {
+                    // Second row has 90% of max seats
+                    seatsInThisRow = (int) Math.round(maxSeatsInRow * 0.9);
+                } else {
+                    // All other rows have full seats
+                    seatsInThisRow = maxSeatsInRow;
+                }
+
+                // Ensure even number for center aisle
+                if (hasCenterAisle && seatsInThisRow % 2 != 0) {
+                    seatsInThisRow--;
+                }
+            }
+
+            // Calculate center position for proper alignment
+            int leftPadding = (maxSeatsInRow - seatsInThisRow) / 2;
+
+            // Add each seat position to our list
+            for (int j = 0; j < seatsInThisRow; j++) {
+                // Calculate actual column number with centering
+                int actualCol = leftPadding + j + 1;
+
+                // Skip center seat if hall has center aisle
+                if (hasCenterAisle && seatsInThisRow >= 8) {
+                    int middleCol = maxSeatsInRow / 2;
+
+                    // Skip middle seat
+                    if (actualCol == middleCol) {
+                        continue;
+                    }
+
+                    // Adjust column numbers after the aisle
+                    if (actualCol > middleCol) {
+                        actualCol++;
+                    }
+                }
+
+                // Add this seat position [row, column]
+                seatPositions.add(new int[] {i, actualCol});
+            }
+        }
+
+        // Determine seat priorities
+        // We want middle rows, center seats to have higher priority
+        int idealRow = totalRows / 2;
+        int idealCol = maxSeatsInRow / 2;
+        seatPositions.sort((a, b) -> {
+            // Create a priority score - lower is better (closer to center)
+            int scoreA = Math.abs(a[0] - idealRow) * 100 + Math.abs(a[1] - idealCol);
+            int scoreB = Math.abs(b[0] - idealRow) * 100 + Math.abs(b[1] - idealCol);
+
+            // Sort by score (best seats first)
+            return Integer.compare(scoreA, scoreB);
+        });
+
+        // If we have more positions than needed capacity, trim the list
+        if (seatPositions.size() > targetCapacity) {
+            seatPositions = seatPositions.subList(0, targetCapacity);
+        }
+
+        // Grid of ordinals for neighbour lookups; columns run from 1 to maxSeatsInRow + 1 after the aisle shift
+        int[][] ordinalGrid = new int[totalRows][maxSeatsInRow + 3];
+        for (int[] row : ordinalGrid) {
+            Arrays.fill(row, -1);
+        }
+
+        // Now create the seats
+        SeatLayout.Builder builder = new SeatLayout.Builder();
+        for (int[] pos : seatPositions) {
+            int i = pos[0];
+            int actualCol = pos[1];
+            char rowChar = (char) ('A' + i);
+
+            // Create seat ID (e.g., A1, B5)
+            String seatId = rowChar + String.valueOf(actualCol);
+            String seatType = seatType(targetCapacity, totalRows, maxSeatsInRow, i, actualCol);
+
+            // Create the seat
+            int ordinal = builder.addSeat(seatId, i, actualCol, seatType);
+            ordinalGrid[i][actualCol] = ordinal;
+
+            // Add edges to already created neighbours (horizontally, vertically or diagonally)
+            for (int dRow = -1; dRow <= 1; dRow++) {
+                for (int dCol = -1; dCol <= 1; dCol++) {
+                    int otherRow = i + dRow;
+                    int otherCol = actualCol + dCol;
+                    if ((dRow == 0 && dCol == 0) || otherRow < 0 || otherRow >= totalRows
+                            || otherCol < 0 || otherCol >= ordinalGrid[otherRow].length) {
+                        continue;
+                    }
+                    int otherOrdinal = ordinalGrid[otherRow][otherCol];
+                    if (otherOrdinal >= 0 && otherOrdinal != ordinal) {
+                        builder.addEdge(ordinal, otherOrdinal);
+                    }
+                }
+            }
+        }
+
+        // Verify we created exactly the right number of seats
+        if (builder.getSeatCount() != targetCapacity) {
+            System.out.println("WARNING: Created " + builder.getSeatCount() + " seats, but target capacity was " +
+                    targetCapacity + ". This may indicate a layout issue.");
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Assign seat types based on standardized patterns for each hall size
+     * @return "standard", "premium" or "accessible"
+     */
+    private static String seatType(int targetCapacity, int totalRows, int maxSeatsInRow, int i, int actualCol) {
+        String seatType = "standard";
+
+        // For small halls (25 seats)
+        if (targetCapacity == 25) {
+            // Premium seats in the middle row
+            if (i == 2 && actualCol >= 2 && actualCol <= 4) {
+                seatType = "premium";
+            }
+            // Accessible seats in corners
+            if ((i == 0 && (actualCol == 1 || actualCol == 5)) ||
+                    (i == 4 && (actualCol == 1 || actualCol == 5))) {
+                seatType = "accessible";
+            }
+        }
+        // For medium halls (50 seats)
+        else if (targetCapacity == 50) {
+            // Premium seats in middle rows and center
+            if ((i >= 1 && i <= 3) && (actualCol >= 4 && actualCol <= 7)) {
+                seatType = "premium";
+            }
+            // Accessible seats in corners
+            if ((i == 0 && (actualCol == 1 || actualCol == 10)) ||
+                    (i == 4 && (actualCol == 1 || actualCol == 10))) {
+                seatType = "accessible";
+            }
+        }
+        // For larger halls (75, 100, 150, 200 seats)
+        else {
+            // Calculate middle rows and center seats
+            int middleRowStart = totalRows / 3;
+            int middleRowEnd = (2 * totalRows / 3);
+
+            // Premium seats in the middle section
+            if (i >= middleRowStart && i <= middleRowEnd) {
+                // Center 40-60% of seats are premium
+                if (actualCol >= maxSeatsInRow * 0.2 && actualCol <= maxSeatsInRow * 0.8) {
+                    seatType = "premium";
+                }
+            }
+
+            // Accessible seats in strategic locations
+            if ((i == 0 && (actualCol == 1 || actualCol == maxSeatsInRow)) ||
+                    (i == totalRows - 1 && (actualCol == 1 || actualCol == maxSeatsInRow))) {
+                seatType = "accessible";
+            }
+        }
+
+        return seatType;
+    }
+}
@@ -2,39 +2,122 @@ package com.ucinema.service;
 
 import com.ucinema.dao.MovieScheduleDAO;
 import com.ucinema.model.datastructures.ScheduleBST;
+import com.ucinema.model.datastructures.ScheduleIntervalTree;
 import com.ucinema.model.entities.Movie;
 import com.ucinema.model.entities.MovieSchedule;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
 
 /**
  * Service class for movie schedule-related operations.
+ * The service is shared between threads, so the in-memory BST, interval trees and hall index
+ * are only touched while holding the lock on scheduleBST. Writes keep the lock from the conflict
+ * check until the saved schedule is indexed, so two concurrent writes cannot both take a slot.
  */
 public class MovieScheduleService {
     private final MovieScheduleDAO scheduleDAO;
     private final MovieService movieService;
     private final ScheduleBST scheduleBST;
+    // Active schedules per hall, used for conflict detection without a database round trip
+    private final Map<Integer, ScheduleIntervalTree> hallIntervals;
+    // Schedule ID -> hall whose interval tree holds the schedule
+    private final Map<Integer, Integer> indexedHalls;
+    // Told the schedule ID after a schedule has been updated or deleted
+    private final List<IntConsumer> changeListeners = new CopyOnWriteArrayList<>();
 
     public MovieScheduleService() {
+        this(new MovieService());
+    }
+
+    /**
+     * Create the service on top of a shared movie service
+     * @param movieService The movie service to look up durations with
+     */
+    public MovieScheduleService(MovieService movieService) {
         this.scheduleDAO = new MovieScheduleDAO();
-        this.movieService = new MovieService();
+        this.movieService = movieService;
         this.scheduleBST = new ScheduleBST();
+        this.hallIntervals = new HashMap<>();
+        this.indexedHalls = new HashMap<>();
         initializeScheduleBST();
     }
 
     /**
-     * Initialize the schedule BST with data from the database
+     * Initialize the schedule BST and hall interval trees with data from the database
      */
     private void initializeScheduleBST() {
         List<MovieSchedule> schedules = scheduleDAO.findAll();
         if (schedules != null) {
-            for (MovieSchedule schedule : schedules) {
-                scheduleBST.insert(schedule);
+            synchronized (scheduleBST) {
+                for (MovieSchedule schedule : schedules) {
+                    scheduleBST.insert(schedule);
+                    indexHallSlot(schedule);
+                }
             }
         }
     }
 
+    /**
+     * Add a schedule's time slot to its hall's interval tree if the schedule is active.
+     * Caller holds the lock on scheduleBST.
+     * @param schedule The schedule to index
+     */
+    private void indexHallSlot(MovieSchedule schedule) {
+        if (schedule.isActive() && schedule.getStartTime() != null && schedule.getEndTime() != null) {
+            hallIntervals.computeIfAbsent(schedule.getHallId(), id -> new ScheduleIntervalTree())
+                    .insert(schedule);
+            indexedHalls.put(schedule.getId(), schedule.getHallId());
+        }
+    }
+
+    /**
+     * Remove a schedule's time slot from the interval tree of the hall it was indexed under.
+     * Caller holds the lock on scheduleBST.
+     * @param scheduleId The schedule ID
+     */
+    private void unindexHallSlot(int scheduleId) {
+        Integer hallId = indexedHalls.remove(scheduleId);
+        if (hallId != null) {
+            hallIntervals.get(hallId).remove(scheduleId);
+        }
+    }
+
+    /**
+     * Check if a hall is free for the window [start, end) using the in-memory interval trees
+     * @param hallId The hall ID
+     * @param start The window start
+     * @param end The window end
+     * @param excludeScheduleId Schedule ID to ignore (for updates), or null
+     * @return True if no active schedule in the hall overlaps the window
+     */
+    public boolean isHallAvailable(int hallId, LocalDateTime start, LocalDateTime end, Integer excludeScheduleId) {
+        synchronized (scheduleBST) {
+            ScheduleIntervalTree tree = hallIntervals.get(hallId);
+            return tree == null || !tree.overlaps(start, end, excludeScheduleId);
+        }
+    }
+
+    /**
+     * Find all active schedules in a hall that overlap the window [start, end)
+     * @param hallId The hall ID
+     * @param start The window start
+     * @param end The window end
+     * @return List of conflicting schedules ordered by start time
+     */
+    public List<MovieSchedule> findHallConflicts(int hallId, LocalDateTime start, LocalDateTime end) {
+        synchronized (scheduleBST) {
+            ScheduleIntervalTree tree = hallIntervals.get(hallId);
+            return tree == null ? new ArrayList<>() : tree.findOverlapping(start, end);
+        }
+    }
+
     /**
      * Add a new movie schedule
      * @param movieId Movie ID
@@ -53,21 +136,74 @@ public class MovieScheduleService {
         // Calculate end time based on movie duration
         LocalDateTime endTime = startTime.plusMinutes(movie.getDuration());
 
-        // Check if the hall is available during this time
-        if (!scheduleDAO.isHallAvailable(hallId, startTime, endTime, null)) {
-            throw new IllegalArgumentException("Hall is not available during this time");
+        synchronized (scheduleBST) {
+            // Check if the hall is available during this time
+            if (!isHallAvailable(hallId, startTime, endTime, null)) {
+                throw new IllegalArgumentException("Hall is not available during this time");
+            }
+
+            // Create and save the schedule
+            MovieSchedule schedule = new MovieSchedule(movieId, hallId, startTime, endTime, price);
+            MovieSchedule savedSchedule = scheduleDAO.save(schedule);
+
+            // Add to BST and hall interval tree
+            if (savedSchedule != null) {
+                scheduleBST.insert(savedSchedule);
+                indexHallSlot(savedSchedule);
+            }
+
+            return savedSchedule;
         }
+    }
 
-        // Create and save the schedule
-        MovieSchedule schedule = new MovieSchedule(movieId, hallId, startTime, endTime, price);
-        MovieSchedule savedSchedule = scheduleDAO.save(schedule);
+    /**
+     * Add many schedules at once, saved in JDBC batches in one transaction.
+     * Every schedule is checked like in addSchedule, and against the others in the list.
+     * @param schedules New schedules; the end time of each is set from its movie's duration
+     * @return The saved schedules or null if they could not be saved
+     */
+    public List<MovieSchedule> addSchedules(List<MovieSchedule> schedules) {
+        // Look up each movie once
+        Map<Integer, Movie> movies = new HashMap<>();
+        for (MovieSchedule schedule : schedules) {
+            Movie movie = movies.computeIfAbsent(schedule.getMovieId(), movieService::findMovieById);
+            if (movie == null) {
+                throw new IllegalArgumentException("Movie not found: " + schedule.getMovieId());
+            }
+            schedule.setEndTime(schedule.getStartTime().plusMinutes(movie.getDuration()));
+        }
 
-        // Add to BST
-        if (savedSchedule != null) {
-            scheduleBST.insert(savedSchedule);
+        // Sorted by hall and start time, a clash inside the list is always between neighbours
+        List<MovieSchedule> byHall = new ArrayList<>(schedules);
+        byHall.sort(Comparator.comparingInt(MovieSchedule::getHallId)
+                .thenComparing(MovieSchedule::getStartTime));
+        for (int i = 1; i < byHall.size(); i++) {
+            MovieSchedule previous = byHall.get(i - 1);
+            MovieSchedule current = byHall.get(i);
+            if (previous.getHallId() == current.getHallId()
+                    && current.getStartTime().isBefore(previous.getEndTime())) {
+                throw new IllegalArgumentException("Hall " + current.getHallId() +
+                        " is booked twice at " + current.getStartTime());
+            }
         }
 
-        return savedSchedule;
+        synchronized (scheduleBST) {
+            for (MovieSchedule schedule : schedules) {
+                if (!isHallAvailable(schedule.getHallId(), schedule.getStartTime(), schedule.getEndTime(), null)) {
+                    throw new IllegalArgumentException("Hall " + schedule.getHallId() +
+                            " is not available at " + schedule.getStartTime());
+                }
+            }
+
+            List<MovieSchedule> savedSchedules = scheduleDAO.saveAll(schedules);
+            if (savedSchedules != null) {
+                for (MovieSchedule schedule : savedSchedules) {
+                    scheduleBST.insert(schedule);
+                    indexHallSlot(schedule);
+                }
+            }
+            return savedSchedules;
+        }
     }
 
     /**
@@ -77,7 +213,10 @@ public class MovieScheduleService {
      */
     public MovieSchedule findScheduleById(int scheduleId) {
         // Try to find in BST first for faster access
-        MovieSchedule schedule = scheduleBST.find(scheduleId);
+        MovieSchedule schedule;
+        synchronized (scheduleBST) {
+            schedule = scheduleBST.find(scheduleId);
+        }
         if (schedule != null) {
             return schedule;
         }
@@ -92,34 +231,38 @@ public class MovieScheduleService {
      * @return The updated schedule
      */
     public MovieSchedule updateSchedule(MovieSchedule schedule) {
-        // For updates that change time, check hall availability
-        if (schedule.getId() > 0) {
-            MovieSchedule existing = scheduleDAO.findById(schedule.getId());
-            if (existing != null &&
-                    (!existing.getStartTime().equals(schedule.getStartTime()) ||
-                            !existing.getEndTime().equals(schedule.getEndTime()) ||
-                            existing.getHallId() != schedule.getHallId())) {
-
-                // Check if the hall is available during the new time
-                if (!scheduleDAO.isHallAvailable(schedule.getHallId(),
+        MovieSchedule updatedSchedule = updateIndexedSchedule(schedule);
+        if (updatedSchedule != null) {
+            notifyChanged(schedule.getId());
+        }
+        return updatedSchedule;
+    }
+
+    private MovieSchedule updateIndexedSchedule(MovieSchedule schedule) {
+        synchronized (scheduleBST) {
+            // An active schedule must not overlap any other active schedule in its hall
+            if (schedule.getId() > 0 && schedule.isActive()) {
+                if (!isHallAvailable(schedule.getHallId(),
                         schedule.getStartTime(),
                         schedule.getEndTime(),
                         schedule.getId())) {
                     throw new IllegalArgumentException("Hall is not available during this time");
                 }
             }
-        }
 
-        MovieSchedule updatedSchedule = scheduleDAO.update(schedule);
+            MovieSchedule updatedSchedule = scheduleDAO.update(schedule);
 
-        // Update BST
-        if (updatedSchedule != null) {
-            // Remove old entry and insert updated one
-            scheduleBST.remove(schedule.getId());
-            scheduleBST.insert(updatedSchedule);
-        }
+            // Update BST and hall interval trees
+            if (updatedSchedule != null) {
+                // Remove old entry and insert updated one
+                scheduleBST.remove(schedule.getId());
+                scheduleBST.insert(updatedSchedule);
+                unindexHallSlot(schedule.getId());
+                indexHallSlot(updatedSchedule);
+            }
 
-        return updatedSchedule;
+            return updatedSchedule;
+        }
     }
 
     /**
@@ -128,16 +271,44 @@ public class MovieScheduleService {
      * @return True if successful
      */
     public boolean deleteSchedule(MovieSchedule schedule) {
-        boolean result = scheduleDAO.delete(schedule);
+        boolean result;
+        synchronized (scheduleBST) {
+            result = scheduleDAO.delete(schedule);
 
-        // Remove from BST
+            // Remove from BST and hall interval tree
+            if (result) {
+                scheduleBST.remove(schedule.getId());
+                unindexHallSlot(schedule.getId());
+            }
+        }
         if (result) {
-            scheduleBST.remove(schedule.getId());
+            notifyChanged(schedule.getId());
         }
-
         return result;
     }
 
+    /**
+     * Register a callback for schedule changes
+     * @param listener Called with the schedule ID after a schedule has been updated or deleted
+     */
+    public void addChangeListener(IntConsumer listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Unregister a schedule change callback
+     * @param listener The callback to remove
+     */
+    public void removeChangeListener(IntConsumer listener) {
+        changeListeners.remove(listener);
+    }
+
+    private void notifyChanged(int scheduleId) {
+        for (IntConsumer listener : changeListeners) {
+            listener.accept(scheduleId);
+        }
+    }
+
     /**
      * Get all schedules
      * @return List of all schedules
@@ -146,12 +317,24 @@ public class MovieScheduleService {
         return scheduleDAO.findAll();
     }
 
+    /**
+     * Get one page of schedules in start time order
+     * @param after The last schedule of the previous page, or null for the first page
+     * @param limit The page size
+     * @return The next page of schedules
+     */
+    public List<MovieSchedule> getSchedulePage(MovieSchedule after, int limit) {
+        return scheduleDAO.findPage(after, limit);
+    }
+
     /**
      * Get all schedules from BST (sorted by start time)
      * @return List of all schedules
      */
     public List<MovieSchedule> getAllSchedulesFromBST() {
-        return scheduleBST.getAllInOrder();
+        synchronized (scheduleBST) {
+            return scheduleBST.getAllInOrder();
+        }
     }
 
     /**
@@ -160,7 +343,9 @@ public class MovieScheduleService {
      * @return List of schedules for the movie
      */
     public List<MovieSchedule> findSchedulesByMovie(int movieId) {
-        return scheduleBST.findByMovie(movieId);
+        synchronized (scheduleBST) {
+            return scheduleBST.findByMovie(movieId);
+        }
     }
 
     /**
@@ -179,7 +364,9 @@ public class MovieScheduleService {
      * @return List of schedules within the time range
      */
     public List<MovieSchedule> findSchedulesInTimeRange(LocalDateTime start, LocalDateTime end) {
-        return scheduleBST.findInTimeRange(start, end);
+        synchronized (scheduleBST) {
+            return scheduleBST.findInTimeRange(start, end);
+        }
     }
 
     /**
@@ -33,6 +33,15 @@ public class MovieService {
         return movieDAO.save(movie);
     }
 
+    /**
+     * Add many movies at once, saved in JDBC batches in one transaction
+     * @param movies The new movies
+     * @return The added movies or null if operation failed
+     */
+    public List<Movie> addMovies(List<Movie> movies) {
+        return movieDAO.saveAll(movies);
+    }
+
     /**
      * Find a movie by ID
      * @param movieId The movie ID
@@ -0,0 +1,853 @@
+package com.ucinema.service;
+
+import com.ucinema.dao.ReservationDAO;
+import com.ucinema.dao.WaitlistDAO;
+import com.ucinema.model.datastructures.SeatBlockAllocator;
+import com.ucinema.model.datastructures.SeatLayout;
+import com.ucinema.model.datastructures.SeatOccupancy;
+import com.ucinema.model.entities.MovieSchedule;
+import com.ucinema.model.entities.Reservation;
+import com.ucinema.model.entities.WaitlistEntry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer engine for seat state.
+ * <p>
+ * Screenings are spread over a fixed number of shards by schedule ID. Each shard is one thread
+ * that owns the seat occupancy and group allocator of its screenings, so every booking and
+ * cancellation for a screening runs in order on that thread without locks. Bookings for
+ * screenings on different shards run in parallel. After each change the owner publishes a
+ * copy of the occupancy, and readers only ever see these immutable snapshots.
+ * <p>
+ * Bookings are written through a {@link ReservationWritePipeline}: the owner marks the seats as
+ * taken straight away, hands the rows to the group-commit writer and moves on to the next
+ * command, then settles the seats once the write has committed. A group is one claim, stored
+ * completely or not at all.
+ * <p>
+ * Each screening also keeps its waitlist as a FIFO queue mirrored from the waitlist table. When
+ * a cancellation frees a seat, the first waiting student whose party fits into the free seats is
+ * given seats in the same transaction that cancels the old reservation.
+ * <p>
+ * Shard threads never call the hall or schedule services. Each command looks up the
+ * screening's hall, price and immutable seat layout on the calling thread and passes them to
+ * the shard, which rebuilds a screening whose hall or layout has changed. Schedule and layout
+ * changes also evict the affected screenings so their published snapshots are not reused.
+ * <p>
+ * Known limit: loading a screening, cancelling (with its waitlist promotion) and joining or
+ * leaving a waitlist still run their transaction on the shard thread, so other commands for
+ * screenings on that shard wait behind them. The time they block the shards is counted and
+ * reported by {@link #getShardDatabaseMillis()}; more shards spread the wait over more threads.
+ */
+public class ReservationEngine {
+    // Number of shards, e.g. -Ducinema.reservation.shards=8
+    public static final String SHARD_COUNT_PROPERTY = "ucinema.reservation.shards";
+
+    private final MovieScheduleService scheduleService;
+    private final HallService hallService;
+    private final SeatHoldService seatHolds;
+    private final ReservationDAO reservationDAO;
+    private final WaitlistDAO waitlistDAO;
+    private final ReservationWritePipeline writePipeline;
+    private final Shard[] shards;
+    // Cleared by shutdown(); new commands are refused while the ones already accepted finish
+    private volatile boolean accepting = true;
+    // Latest published occupancy per schedule ID
+    private final Map<Integer, SeatOccupancy> snapshots;
+    private final IntConsumer scheduleListener = this::evictSchedule;
+    private final IntConsumer layoutListener = this::evictHall;
+    // Database calls still made on shard threads, and the time the shards were blocked by them
+    private final LongAdder shardDatabaseCalls = new LongAdder();
+    private final LongAdder shardDatabaseNanos = new LongAdder();
+
+    /**
+     * What a command needs to know about a screening, looked up on the calling thread
+     */
+    private static final class ScreeningInfo {
+        final int scheduleId;
+        final int hallId;
+        final double price;
+        final SeatLayout layout;
+
+        ScreeningInfo(int scheduleId, int hallId, double price, SeatLayout layout) {
+            this.scheduleId = scheduleId;
+            this.hallId = hallId;
+            this.price = price;
+            this.layout = layout;
+        }
+    }
+
+    /**
+     * Seat state of one screening, only touched by its shard's thread
+     */
+    private static final class Screening {
+        final int hallId;
+        final SeatLayout layout;
+        final SeatOccupancy seats;
+        // Students waiting for seats, in joining order
+        final Deque<WaitlistEntry> waitlist = new ArrayDeque<>();
+        SeatBlockAllocator allocator;
+
+        Screening(int hallId, SeatLayout layout, SeatOccupancy seats) {
+            this.hallId = hallId;
+            this.layout = layout;
+            this.seats = seats;
+        }
+
+        boolean matches(ScreeningInfo info) {
+            return hallId == info.hallId && layout == info.layout;
+        }
+    }
+
+    /**
+     * One worker thread and the screenings it owns
+     */
+    private static final class Shard {
+        final ExecutorService executor;
+        final Map<Integer, Screening> screenings = new HashMap<>();
+
+        Shard(int index) {
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "reservation-shard-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Create the engine with its own write pipeline
+     * @param scheduleService The schedule service
+     * @param hallService The hall service
+     * @param seatHolds The seat hold service
+     * @param shardCount Number of shard threads
+     */
+    public ReservationEngine(MovieScheduleService scheduleService, HallService hallService,
+                             SeatHoldService seatHolds, int shardCount) {
+        this(scheduleService, hallService, seatHolds, shardCount, new ReservationWritePipeline());
+    }
+
+    /**
+     * Create the engine
+     * @param scheduleService The schedule service
+     * @param hallService The hall service
+     * @param seatHolds The seat hold service
+     * @param shardCount Number of shard threads
+     * @param writePipeline The pipeline that stores single-seat reservations; stopped with the engine
+     */
+    public ReservationEngine(MovieScheduleService scheduleService, HallService hallService,
+                             SeatHoldService seatHolds, int shardCount, ReservationWritePipeline writePipeline) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        this.scheduleService = scheduleService;
+        this.hallService = hallService;
+        this.seatHolds = seatHolds;
+        this.reservationDAO = new ReservationDAO();
+        this.waitlistDAO = new WaitlistDAO();
+        this.writePipeline = writePipeline;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+        this.snapshots = new ConcurrentHashMap<>();
+        scheduleService.addChangeListener(scheduleListener);
+        hallService.addLayoutListener(layoutListener);
+    }
+
+    /**
+     * Get the shard count configured by {@link #SHARD_COUNT_PROPERTY}, defaulting to the number of processors
+     * @return The shard count
+     */
+    public static int defaultShardCount() {
+        return Integer.getInteger(SHARD_COUNT_PROPERTY, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Get the number of shards
+     * @return The shard count
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Get the pipeline that stores single-seat reservations
+     * @return The write pipeline
+     */
+    public ReservationWritePipeline getWritePipeline() {
+        return writePipeline;
+    }
+
+    private Shard shardFor(int scheduleId) {
+        return shards[Math.floorMod(scheduleId, shards.length)];
+    }
+
+    /**
+     * Run a command on the thread that owns a screening
+     */
+    private <T> CompletableFuture<T> submit(int scheduleId, Supplier<T> command) {
+        if (!accepting) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Reservation engine has been shut down"));
+        }
+        return resume(scheduleId, command);
+    }
+
+    /**
+     * Run the next step of a command that was already accepted on the thread that owns its
+     * screening; still allowed while shutdown() drains the shards
+     */
+    private <T> CompletableFuture<T> resume(int scheduleId, Supplier<T> command) {
+        try {
+            return CompletableFuture.supplyAsync(command, shardFor(scheduleId).executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Reservation engine has been shut down"));
+        }
+    }
+
+    /**
+     * Look up a screening's hall, price and seat layout. Calling thread only, never a shard.
+     * @return The screening info or null if the schedule or its hall does not exist
+     */
+    private ScreeningInfo info(int scheduleId) {
+        MovieSchedule schedule = scheduleService.findScheduleById(scheduleId);
+        if (schedule == null) {
+            return null;
+        }
+        SeatLayout layout = hallService.getSeatLayout(schedule.getHallId());
+        if (layout == null) {
+            return null;
+        }
+        return new ScreeningInfo(scheduleId, schedule.getHallId(), schedule.getPrice(), layout);
+    }
+
+    private ScreeningInfo requireInfo(int scheduleId) {
+        ScreeningInfo info = info(scheduleId);
+        if (info == null) {
+            throw new IllegalArgumentException("Schedule not found");
+        }
+        return info;
+    }
+
+    /**
+     * Get a screening's state, loading it from the database on first use or when its hall or
+     * layout has changed since it was loaded. Shard thread only.
+     */
+    private Screening screening(ScreeningInfo info) {
+        Shard shard = shardFor(info.scheduleId);
+        Screening screening = shard.screenings.get(info.scheduleId);
+        if (screening != null && screening.matches(info)) {
+            return screening;
+        }
+
+        SeatOccupancy seats = new SeatOccupancy(info.layout.getSeatCount());
+        List<String> reservedSeats = onShard(() -> reservationDAO.getReservedSeats(info.scheduleId));
+        if (reservedSeats != null) {
+            for (String seatId : reservedSeats) {
+                int ordinal = info.layout.ordinalOf(seatId);
+                if (ordinal >= 0) {
+                    seats.reserve(ordinal);
+                }
+            }
+        }
+
+        screening = new Screening(info.hallId, info.layout, seats);
+        loadWaitlist(info.scheduleId, screening);
+        shard.screenings.put(info.scheduleId, screening);
+        publish(info.scheduleId, screening);
+        return screening;
+    }
+
+    /**
+     * Get a screening's state only if it is loaded with the given hall and layout. Shard thread only.
+     * @return The screening or null
+     */
+    private Screening loadedScreening(ScreeningInfo info) {
+        Screening screening = shardFor(info.scheduleId).screenings.get(info.scheduleId);
+        return screening != null && screening.matches(info) ? screening : null;
+    }
+
+    /**
+     * Make a database call on a shard thread, counting the time the shard is blocked by it
+     */
+    private <T> T onShard(Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            shardDatabaseNanos.add(System.nanoTime() - start);
+            shardDatabaseCalls.increment();
+        }
+    }
+
+    /**
+     * Get the number of database calls made on shard threads
+     * @return The call count
+     */
+    public long getShardDatabaseCalls() {
+        return shardDatabaseCalls.sum();
+    }
+
+    /**
+     * Get the total time shard threads have been blocked by database calls
+     * @return The time in milliseconds, summed over all shards
+     */
+    public double getShardDatabaseMillis() {
+        return shardDatabaseNanos.sum() / 1_000_000.0;
+    }
+
+    private void loadWaitlist(int scheduleId, Screening screening) {
+        screening.waitlist.clear();
+        List<WaitlistEntry> waiting = onShard(() -> waitlistDAO.findWaitingBySchedule(scheduleId));
+        if (waiting != null) {
+            screening.waitlist.addAll(waiting);
+        }
+    }
+
+    private void publish(int scheduleId, Screening screening) {
+        snapshots.put(scheduleId, screening.seats.snapshot());
+    }
+
+    private void occupy(Screening screening, int ordinal) {
+        if (screening.seats.reserve(ordinal) && screening.allocator != null) {
+            screening.allocator.reserve(ordinal);
+        }
+    }
+
+    private void vacate(Screening screening, int ordinal) {
+        if (screening.seats.release(ordinal) && screening.allocator != null) {
+            screening.allocator.release(ordinal);
+        }
+    }
+
+    private SeatBlockAllocator allocator(Screening screening) {
+        if (screening.allocator == null) {
+            screening.allocator = new SeatBlockAllocator(screening.layout, screening.seats);
+        }
+        return screening.allocator;
+    }
+
+    private int requireSeat(Screening screening, String seatId) {
+        int ordinal = screening.layout.ordinalOf(seatId);
+        if (ordinal < 0) {
+            throw new IllegalArgumentException("Seat not found: " + seatId);
+        }
+        return ordinal;
+    }
+
+    /**
+     * Drop a screening's state so the next command reloads it, e.g. after its schedule changed
+     * @param scheduleId The schedule ID
+     */
+    public void evictSchedule(int scheduleId) {
+        snapshots.remove(scheduleId);
+        try {
+            shardFor(scheduleId).executor.execute(() -> {
+                shardFor(scheduleId).screenings.remove(scheduleId);
+                snapshots.remove(scheduleId);
+            });
+        } catch (RejectedExecutionException e) {
+            // Shut down; nothing left to evict
+        }
+    }
+
+    /**
+     * Drop the state of every screening in a hall, e.g. after its seat layout was replaced
+     * @param hallId The hall ID
+     */
+    public void evictHall(int hallId) {
+        for (Shard shard : shards) {
+            try {
+                shard.executor.execute(() -> shard.screenings.entrySet().removeIf(entry -> {
+                    if (entry.getValue().hallId != hallId) {
+                        return false;
+                    }
+                    snapshots.remove(entry.getKey());
+                    return true;
+                }));
+            } catch (RejectedExecutionException e) {
+                // Shut down; nothing left to evict
+            }
+        }
+    }
+
+    /**
+     * Get the latest published occupancy of a screening
+     * @param scheduleId The schedule ID
+     * @return A read-only snapshot, or null if the schedule does not exist
+     */
+    public SeatOccupancy getSnapshot(int scheduleId) {
+        SeatOccupancy snapshot = snapshots.get(scheduleId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        ScreeningInfo info = info(scheduleId);
+        if (info == null) {
+            return null;
+        }
+        return await(submit(scheduleId, () -> {
+            screening(info);
+            return snapshots.get(scheduleId);
+        }));
+    }
+
+    /**
+     * Find the best block of adjacent free seats in one row
+     * @param scheduleId The schedule ID
+     * @param seatCount Number of seats needed
+     * @return Future of the seat ordinals from left to right, empty if no row has room
+     */
+    public CompletableFuture<int[]> findBestBlock(int scheduleId, int seatCount) {
+        ScreeningInfo info = info(scheduleId);
+        if (info == null) {
+            return CompletableFuture.completedFuture(new int[0]);
+        }
+        return submit(scheduleId, () -> allocator(screening(info)).findBestBlock(seatCount));
+    }
+
+    /**
+     * Reserve one seat
+     * @param studentId Student ID
+     * @param scheduleId Schedule ID
+     * @param seatId Seat ID
+     * @return Future of the stored reservation, or of null if it could not be saved. Completes
+     *         exceptionally with IllegalStateException if the seat is taken or held by someone else.
+     */
+    public CompletableFuture<Reservation> reserve(int studentId, int scheduleId, String seatId) {
+        ScreeningInfo info;
+        try {
+            info = requireInfo(scheduleId);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Reservation> accepted = submit(scheduleId, () -> {
+            Screening screening = screening(info);
+            int ordinal = requireSeat(screening, seatId);
+
+            if (seatHolds.isHeldByOther(scheduleId, seatId, studentId)) {
+                throw new IllegalStateException("This seat is being held by another student");
+            }
+            if (screening.seats.isReserved(ordinal)) {
+                throw new IllegalStateException("This seat is already reserved");
+            }
+
+            // Take the seat now so later commands see it as taken while the write is pending
+            occupy(screening, ordinal);
+            publish(scheduleId, screening);
+            return new Reservation(studentId, scheduleId, seatId, info.price);
+        });
+
+        // The unique index still rejects a seat claimed by another process
+        return accepted.thenCompose(reservation -> writePipeline.submit(reservation)
+                .exceptionally(e -> ReservationDAO.ClaimResult.FAILED)
+                .thenCompose(result -> resume(scheduleId, () -> settle(info, reservation, result))));
+    }
+
+    /**
+     * Settle a single-seat booking once its write has committed. Shard thread only.
+     * The screening may have been evicted and reloaded while the write was pending, so the seat
+     * is marked again rather than assumed to still be marked.
+     */
+    private Reservation settle(ScreeningInfo info, Reservation reservation, ReservationDAO.ClaimResult result) {
+        int scheduleId = reservation.getScheduleId();
+        Screening screening = loadedScreening(info);
+        int ordinal = info.layout.ordinalOf(reservation.getSeatId());
+        switch (result) {
+            case CLAIMED:
+                if (screening != null) {
+                    occupy(screening, ordinal);
+                    publish(scheduleId, screening);
+                }
+                seatHolds.release(scheduleId, reservation.getSeatId(), reservation.getStudentId());
+                return reservation;
+            case SEAT_TAKEN:
+                // The seat really is taken, so it stays marked
+                if (screening != null) {
+                    occupy(screening, ordinal);
+                    publish(scheduleId, screening);
+                }
+                throw new IllegalStateException("This seat is already reserved");
+            default:
+                // Nothing was stored, so give the seat back
+                if (screening != null) {
+                    vacate(screening, ordinal);
+                    publish(scheduleId, screening);
+                }
+                return null;
+        }
+    }
+
+    /**
+     * Reserve several seats of one screening together, all or nothing
+     * @param studentId Student ID
+     * @param scheduleId Schedule ID
+     * @param seatIds Distinct seat IDs
+     * @return Future of the stored reservations in seat order, or of null if they could not be
+     *         saved. Completes exceptionally with IllegalStateException if any seat is unavailable.
+     */
+    public CompletableFuture<List<Reservation>> reserveGroup(int studentId, int scheduleId, List<String> seatIds) {
+        ScreeningInfo info;
+        try {
+            info = requireInfo(scheduleId);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<List<Reservation>> accepted = submit(scheduleId, () -> {
+            Screening screening = screening(info);
+            int[] ordinals = new int[seatIds.size()];
+            List<String> taken = new ArrayList<>();
+            for (int i = 0; i < ordinals.length; i++) {
+                String seatId = seatIds.get(i);
+                ordinals[i] = requireSeat(screening, seatId);
+                if (seatHolds.isHeldByOther(scheduleId, seatId, studentId)) {
+                    throw new IllegalStateException("Seat " + seatId + " is being held by another student");
+                }
+                if (screening.seats.isReserved(ordinals[i])) {
+                    taken.add(seatId);
+                }
+            }
+            if (!taken.isEmpty()) {
+                throw new IllegalStateException("Already reserved: " + String.join(", ", taken));
+            }
+
+            // Take the seats now so later commands see them as taken while the write is pending
+            List<Reservation> reservations = new ArrayList<>();
+            for (int i = 0; i < ordinals.length; i++) {
+                occupy(screening, ordinals[i]);
+                reservations.add(new Reservation(studentId, scheduleId, seatIds.get(i), info.price));
+            }
+            publish(scheduleId, screening);
+            return reservations;
+        });
+
+        return accepted.thenCompose(reservations -> writePipeline.submitGroup(reservations)
+                .exceptionally(e -> ReservationDAO.ClaimResult.FAILED)
+                .thenCompose(result -> {
+                    if (result != ReservationDAO.ClaimResult.SEAT_TAKEN) {
+                        return resume(scheduleId, () -> settleGroup(info, reservations, result, null));
+                    }
+                    // Another process booked some of the seats; ask the database which ones off the shard
+                    return CompletableFuture.supplyAsync(() -> reservationDAO.getReservedSeats(scheduleId))
+                            .thenCompose(reservedSeats -> resume(scheduleId,
+                                    () -> settleGroup(info, reservations, result, reservedSeats)));
+                }));
+    }
+
+    /**
+     * Settle a group booking once its write has committed. Shard thread only.
+     * @param reservedSeats The seats the database reports as reserved, only read when a seat was taken
+     */
+    private List<Reservation> settleGroup(ScreeningInfo info, List<Reservation> reservations,
+                                          ReservationDAO.ClaimResult result, List<String> reservedSeats) {
+        int scheduleId = info.scheduleId;
+        Screening screening = loadedScreening(info);
+        Set<String> stored = reservedSeats != null ? new HashSet<>(reservedSeats) : Collections.emptySet();
+        List<String> taken = new ArrayList<>();
+        for (Reservation reservation : reservations) {
+            String seatId = reservation.getSeatId();
+            // Nothing of the group was stored unless it was claimed, so only seats others hold stay marked
+            boolean reserved = result == ReservationDAO.ClaimResult.CLAIMED || stored.contains(seatId);
+            if (screening != null) {
+                int ordinal = info.layout.ordinalOf(seatId);
+                if (reserved) {
+                    occupy(screening, ordinal);
+                } else {
+                    vacate(screening, ordinal);
+                }
+            }
+            if (result == ReservationDAO.ClaimResult.CLAIMED) {
+                seatHolds.release(scheduleId, seatId, reservation.getStudentId());
+            } else if (reserved) {
+                taken.add(seatId);
+            }
+        }
+        if (screening != null) {
+            publish(scheduleId, screening);
+        }
+
+        switch (result) {
+            case CLAIMED:
+                return reservations;
+            case SEAT_TAKEN:
+                throw new IllegalStateException(taken.isEmpty() ? "One of the selected seats was just reserved"
+                        : "Already reserved: " + String.join(", ", taken));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Cancel a reservation and free its seat, promoting the first waiting student whose party fits
+     * @param reservation The reservation to cancel
+     * @return Future of the reservations made for the promoted student (empty if nobody was
+     *         promoted), or of null if the reservation could not be cancelled
+     */
+    public CompletableFuture<List<Reservation>> cancel(Reservation reservation) {
+        int scheduleId = reservation.getScheduleId();
+        ScreeningInfo info = info(scheduleId);
+        return submit(scheduleId, () -> {
+            Screening screening = info != null ? screening(info) : null;
+            int ordinal = screening != null ? screening.layout.ordinalOf(reservation.getSeatId()) : -1;
+            if (ordinal < 0) {
+                return onShard(() -> reservationDAO.cancelReservation(reservation.getId()))
+                        ? Collections.<Reservation>emptyList() : null;
+            }
+
+            // Free the seat first so the waitlist can be offered it
+            boolean wasReserved = screening.seats.isReserved(ordinal);
+            vacate(screening, ordinal);
+
+            List<Reservation> promoted = promoteNext(info, screening, reservation.getId());
+            if (promoted == null && !onShard(() -> reservationDAO.cancelReservation(reservation.getId()))) {
+                if (wasReserved) {
+                    occupy(screening, ordinal);
+                }
+                return null;
+            }
+            publish(scheduleId, screening);
+            return promoted != null ? promoted : Collections.<Reservation>emptyList();
+        });
+    }
+
+    /**
+     * Cancel a reservation and give seats to the first waiting student whose party fits, in one
+     * transaction. Shard thread only.
+     * @return The new reservations, or null if nobody could be promoted and nothing was changed
+     */
+    private List<Reservation> promoteNext(ScreeningInfo info, Screening screening, int cancelledReservationId) {
+        int scheduleId = info.scheduleId;
+        for (WaitlistEntry entry : screening.waitlist) {
+            int[] ordinals = pickSeats(scheduleId, screening, entry);
+            if (ordinals == null) {
+                continue;
+            }
+
+            List<Reservation> reservations = new ArrayList<>();
+            for (int ordinal : ordinals) {
+                reservations.add(new Reservation(entry.getStudentId(), scheduleId,
+                        screening.layout.getSeatId(ordinal), info.price));
+            }
+            if (!onShard(() -> waitlistDAO.cancelAndPromote(cancelledReservationId, entry, reservations))) {
+                // The waitlist may have changed elsewhere; start from the stored one next time
+                loadWaitlist(scheduleId, screening);
+                return null;
+            }
+
+            for (int ordinal : ordinals) {
+                occupy(screening, ordinal);
+            }
+            screening.waitlist.remove(entry);
+            System.out.println("Promoted student " + entry.getStudentId() + " from the waitlist of schedule " +
+                    scheduleId + " with " + reservations.size() + " seat(s)");
+            return reservations;
+        }
+        return null;
+    }
+
+    /**
+     * Choose free seats for a waiting party: the best adjacent block if there is one, otherwise any
+     * free seats. Seats another student is holding are left alone, like on the direct booking paths.
+     * @return The seat ordinals, or null if there are not enough free seats
+     */
+    private int[] pickSeats(int scheduleId, Screening screening, WaitlistEntry entry) {
+        int partySize = entry.getPartySize();
+        List<Integer> held = new ArrayList<>();
+        for (String seatId : seatHolds.getHeldSeats(scheduleId).keySet()) {
+            int ordinal = screening.layout.ordinalOf(seatId);
+            if (ordinal >= 0 && !screening.seats.isReserved(ordinal)
+                    && seatHolds.isHeldByOther(scheduleId, seatId, entry.getStudentId())) {
+                held.add(ordinal);
+            }
+        }
+        if (screening.seats.getAvailableCount() - held.size() < partySize) {
+            return null;
+        }
+
+        // Hide the held seats from the block search, then free them again
+        SeatBlockAllocator allocator = allocator(screening);
+        int[] block;
+        for (int ordinal : held) {
+            allocator.reserve(ordinal);
+        }
+        try {
+            block = allocator.findBestBlock(partySize);
+        } finally {
+            for (int ordinal : held) {
+                allocator.release(ordinal);
+            }
+        }
+        if (block.length == partySize) {
+            return block;
+        }
+
+        int[] seats = new int[partySize];
+        int found = 0;
+        for (int ordinal = 0; ordinal < screening.seats.getSeatCount() && found < partySize; ordinal++) {
+            if (!screening.seats.isReserved(ordinal) && !seatHolds.isHeldByOther(scheduleId,
+                    screening.layout.getSeatId(ordinal), entry.getStudentId())) {
+                seats[found++] = ordinal;
+            }
+        }
+        // A hold may have been taken since the count above
+        return found == partySize ? seats : null;
+    }
+
+    /**
+     * Put a student on the waitlist of a screening that has too few free seats for their party
+     * @param studentId Student ID
+     * @param scheduleId Schedule ID
+     * @param partySize Number of seats wanted
+     * @return Future of the stored entry, or of null if it could not be saved. Completes
+     *         exceptionally with IllegalStateException if seats are available or the student is already waiting.
+     */
+    public CompletableFuture<WaitlistEntry> joinWaitlist(int studentId, int scheduleId, int partySize) {
+        ScreeningInfo info;
+        try {
+            info = requireInfo(scheduleId);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return submit(scheduleId, () -> {
+            Screening screening = screening(info);
+            if (screening.seats.getAvailableCount() >= partySize) {
+                throw new IllegalStateException("Seats are still available for this screening");
+            }
+            for (WaitlistEntry entry : screening.waitlist) {
+                if (entry.getStudentId() == studentId) {
+                    throw new IllegalStateException("You are already on the waitlist for this screening");
+                }
+            }
+
+            WaitlistEntry entry = onShard(() -> waitlistDAO.save(new WaitlistEntry(studentId, scheduleId, partySize)));
+            if (entry != null) {
+                screening.waitlist.addLast(entry);
+            }
+            return entry;
+        });
+    }
+
+    /**
+     * Take a student off the waitlist of a screening
+     * @param studentId Student ID
+     * @param scheduleId Schedule ID
+     * @return Future of true if the student was waiting
+     */
+    public CompletableFuture<Boolean> leaveWaitlist(int studentId, int scheduleId) {
+        ScreeningInfo info;
+        try {
+            info = requireInfo(scheduleId);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return submit(scheduleId, () -> {
+            Screening screening = screening(info);
+            for (WaitlistEntry entry : screening.waitlist) {
+                if (entry.getStudentId() == studentId) {
+                    if (!onShard(() -> waitlistDAO.cancel(entry.getId()))) {
+                        return false;
+                    }
+                    screening.waitlist.remove(entry);
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Get a student's place on the waitlist of a screening
+     * @param studentId Student ID
+     * @param scheduleId Schedule ID
+     * @return Future of the 1-based position, or of 0 if the student is not waiting
+     */
+    public CompletableFuture<Integer> getWaitlistPosition(int studentId, int scheduleId) {
+        ScreeningInfo info;
+        try {
+            info = requireInfo(scheduleId);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return submit(scheduleId, () -> {
+            Screening screening = screening(info);
+            int position = 1;
+            for (WaitlistEntry entry : screening.waitlist) {
+                if (entry.getStudentId() == studentId) {
+                    return position;
+                }
+                position++;
+            }
+            return 0;
+        });
+    }
+
+    /**
+     * Wait for a command and rethrow its failure unwrapped
+     * @param future The command's future
+     * @return The command's result
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stop accepting commands, let the shards finish the ones already submitted, write the pending
+     * reservations and settle them, then stop the shard threads
+     */
+    public void shutdown() {
+        scheduleService.removeChangeListener(scheduleListener);
+        hallService.removeLayoutListener(layoutListener);
+        accepting = false;
+
+        // A shard runs its commands in order, so once this marker has run every earlier command
+        // has handed its reservations to the pipeline
+        for (Shard shard : shards) {
+            try {
+                shard.executor.submit(() -> { }).get(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                System.out.println("Reservation shard did not drain: " + e);
+            }
+        }
+
+        // Completing the writes queues their settle steps on the shards, which are still running
+        writePipeline.shutdown();
+        for (Shard shard : shards) {
+            shard.executor.shutdown();
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
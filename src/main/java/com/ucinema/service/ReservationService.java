@@ -1,107 +1,264 @@
 package com.ucinema.service;
 
 import com.ucinema.dao.ReservationDAO;
-import com.ucinema.model.datastructures.ReservationLinkedList;
+import com.ucinema.model.ReservationRow;
+import com.ucinema.model.datastructures.HallGraph;
+import com.ucinema.model.datastructures.ReservationStore;
+import com.ucinema.model.datastructures.SeatOccupancy;
 import com.ucinema.model.entities.MovieSchedule;
 import com.ucinema.model.entities.Reservation;
+import com.ucinema.model.entities.WaitlistEntry;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service class for reservation-related operations.
+ * Seat state is owned by a {@link ReservationEngine}, which applies every booking and
+ * cancellation for a screening on that screening's shard thread; this service waits for the
+ * result. The database's unique index on active (schedule, seat) pairs stays the final arbiter
+ * between processes.
  */
 public class ReservationService {
+    // Largest number of seats one student can book in a single group reservation
+    public static final int MAX_GROUP_SIZE = 10;
+
     private final ReservationDAO reservationDAO;
     private final MovieScheduleService scheduleService;
     private final HallService hallService;
-    private final ReservationLinkedList reservationList;
+    private final ReservationStore reservationStore;
+    private final SeatHoldService seatHolds;
+    private final ReservationEngine engine;
 
-    public ReservationService() {
+    /**
+     * Create the service on top of shared services and reservation engine. The caller owns the
+     * engine and seat holds and shuts them down.
+     * @param scheduleService The schedule service
+     * @param hallService The hall service
+     * @param seatHolds The seat hold service
+     * @param engine The engine owning the seat state
+     */
+    public ReservationService(MovieScheduleService scheduleService, HallService hallService,
+                              SeatHoldService seatHolds, ReservationEngine engine) {
         this.reservationDAO = new ReservationDAO();
-        this.scheduleService = new MovieScheduleService();
-        this.hallService = new HallService();
-        this.reservationList = new ReservationLinkedList();
-        initializeReservationList();
+        this.scheduleService = scheduleService;
+        this.hallService = hallService;
+        this.seatHolds = seatHolds;
+        this.engine = engine;
+        this.reservationStore = new ReservationStore();
+        initializeReservationStore();
     }
 
     /**
-     * Initialize the reservation list with data from the database
+     * Initialize the reservation store with data from the database
      */
-    private void initializeReservationList() {
+    private void initializeReservationStore() {
         List<Reservation> reservations = reservationDAO.findAll();
         if (reservations != null) {
             for (Reservation reservation : reservations) {
-                reservationList.add(reservation);
+                reservationStore.add(reservation);
             }
         }
     }
 
     /**
-     * Make a new reservation
+     * Get the seat occupancy for a screening, loading it from the database on first use
+     * @param scheduleId The schedule ID
+     * @return A read-only snapshot of the occupancy map, or null if the schedule does not exist
+     */
+    public SeatOccupancy getSeatOccupancy(int scheduleId) {
+        return engine.getSnapshot(scheduleId);
+    }
+
+    /**
+     * Check if a seat is free for a screening using the in-memory occupancy map
+     * @param scheduleId The schedule ID
+     * @param seatId The seat ID
+     * @return True if the seat exists and is not reserved
+     */
+    public boolean isSeatAvailable(int scheduleId, String seatId) {
+        SeatOccupancy occupancy = getSeatOccupancy(scheduleId);
+        HallGraph.Seat seat = findSeat(scheduleId, seatId);
+        return occupancy != null && seat != null && seat.getOrdinal() < occupancy.getSeatCount()
+                && !occupancy.isReserved(seat.getOrdinal());
+    }
+
+    /**
+     * Find the best block of adjacent free seats in one row for a group
+     * @param scheduleId The schedule ID
+     * @param seatCount Number of seats needed
+     * @return List of adjacent seats from left to right, or empty list if no row has room
+     */
+    public List<HallGraph.Seat> findBestAdjacentSeats(int scheduleId, int seatCount) {
+        List<HallGraph.Seat> seats = new ArrayList<>();
+        MovieSchedule schedule = scheduleService.findScheduleById(scheduleId);
+        if (schedule == null) {
+            return seats;
+        }
+
+        for (int ordinal : ReservationEngine.await(engine.findBestBlock(scheduleId, seatCount))) {
+            seats.add(hallService.getSeatByOrdinal(schedule.getHallId(), ordinal));
+        }
+        return seats;
+    }
+
+    /**
+     * Resolve a seat ID within the hall of a schedule
+     * @param scheduleId The schedule ID
+     * @param seatId The seat ID
+     * @return The seat or null if not found
+     */
+    private HallGraph.Seat findSeat(int scheduleId, String seatId) {
+        MovieSchedule schedule = scheduleService.findScheduleById(scheduleId);
+        return schedule != null ? hallService.getSeat(schedule.getHallId(), seatId) : null;
+    }
+
+    /**
+     * Hold a free seat for a student while they finish choosing
+     * @param studentId Student ID
+     * @param scheduleId Schedule ID
+     * @param seatId Seat ID
+     * @return True if the student now holds the seat, false if it is reserved or held by someone else
+     */
+    public boolean holdSeat(int studentId, int scheduleId, String seatId) {
+        if (!isSeatAvailable(scheduleId, seatId)) {
+            return false;
+        }
+        return seatHolds.hold(scheduleId, seatId, studentId);
+    }
+
+    /**
+     * Release a student's hold on a seat
+     * @param studentId Student ID
+     * @param scheduleId Schedule ID
+     * @param seatId Seat ID
+     */
+    public void releaseSeatHold(int studentId, int scheduleId, String seatId) {
+        seatHolds.release(scheduleId, seatId, studentId);
+    }
+
+    /**
+     * Get the seats of a schedule that are currently held
+     * @param scheduleId Schedule ID
+     * @return Map of seat ID to the student holding it
+     */
+    public Map<String, Integer> getHeldSeats(int scheduleId) {
+        return seatHolds.getHeldSeats(scheduleId);
+    }
+
+    /**
+     * Make a new reservation, converting the student's hold on the seat if there is one
      * @param studentId Student ID
      * @param scheduleId Schedule ID
      * @param seatId Seat ID
      * @return The created reservation or null if operation failed
      */
     public Reservation makeReservation(int studentId, int scheduleId, String seatId) {
-        // Check if seat is already reserved
-        if (reservationDAO.isSeatReserved(scheduleId, seatId)) {
-            throw new IllegalStateException("This seat is already reserved");
+        Reservation reservation = ReservationEngine.await(engine.reserve(studentId, scheduleId, seatId));
+        if (reservation != null) {
+            synchronized (reservationStore) {
+                reservationStore.add(reservation);
+            }
         }
+        return reservation;
+    }
 
-        // Get the schedule to get the price
-        MovieSchedule schedule = scheduleService.findScheduleById(scheduleId);
-        if (schedule == null) {
-            throw new IllegalArgumentException("Schedule not found");
+    /**
+     * Reserve several seats of one screening for a student in a single transaction.
+     * All seats are checked against the same occupancy state and inserted together, so the
+     * group is either booked completely or not at all.
+     * @param studentId Student ID
+     * @param scheduleId Schedule ID
+     * @param seatIds IDs of the seats to reserve
+     * @return The created reservations in seat order, or null if the operation failed
+     */
+    public List<Reservation> makeGroupReservation(int studentId, int scheduleId, List<String> seatIds) {
+        if (seatIds == null || seatIds.isEmpty()) {
+            throw new IllegalArgumentException("No seats selected");
         }
-
-        // Reserve the seat in the hall graph
-        boolean seatReserved = hallService.reserveSeat(seatId);
-        if (!seatReserved) {
-            throw new IllegalStateException("Failed to reserve seat");
+        if (seatIds.size() > MAX_GROUP_SIZE) {
+            throw new IllegalArgumentException("A group reservation can include at most " + MAX_GROUP_SIZE + " seats");
         }
-
-        // Create and save the reservation
-        Reservation reservation = new Reservation(studentId, scheduleId, seatId, schedule.getPrice());
-        Reservation savedReservation = reservationDAO.save(reservation);
-
-        // Add to linked list
-        if (savedReservation != null) {
-            reservationList.add(savedReservation);
-        } else {
-            // If saving fails, unreserve the seat
-            hallService.cancelSeatReservation(seatId);
+        if (new HashSet<>(seatIds).size() != seatIds.size()) {
+            throw new IllegalArgumentException("The same seat was selected twice");
         }
 
-        return savedReservation;
+        List<Reservation> reservations = ReservationEngine.await(
+                engine.reserveGroup(studentId, scheduleId, new ArrayList<>(seatIds)));
+        if (reservations != null) {
+            synchronized (reservationStore) {
+                for (Reservation reservation : reservations) {
+                    reservationStore.add(reservation);
+                }
+            }
+        }
+        return reservations;
     }
 
     /**
-     * Cancel a reservation
+     * Cancel a reservation. The freed seat goes to the first student on the screening's
+     * waitlist whose party fits, in the same transaction.
      * @param reservationId The reservation ID
-     * @return True if successful
+     * @return True if successful, false if the reservation does not exist or is already cancelled
      */
     public boolean cancelReservation(int reservationId) {
         Reservation reservation = findReservationById(reservationId);
-        if (reservation == null) {
+        // The seat of a cancelled reservation may already belong to someone else
+        if (reservation == null || "cancelled".equals(reservation.getStatus())) {
             return false;
         }
 
-        // Cancel the reservation in the database
-        boolean cancelled = reservationDAO.cancelReservation(reservationId);
-
-        if (cancelled) {
-            // Unreserve the seat in the hall graph
-            hallService.cancelSeatReservation(reservation.getSeatId());
+        // Cancel the reservation in the database, free the seat and promote from the waitlist
+        List<Reservation> promoted = ReservationEngine.await(engine.cancel(reservation));
+        if (promoted == null) {
+            return false;
+        }
 
-            // Remove from linked list
-            reservationList.remove(reservationId);
+        // Update the reservation store
+        synchronized (reservationStore) {
+            reservationStore.remove(reservationId);
+            for (Reservation promotedReservation : promoted) {
+                reservationStore.add(promotedReservation);
+            }
+        }
+        return true;
+    }
 
-            return true;
+    /**
+     * Put a student on the waitlist of a screening without enough free seats
+     * @param studentId Student ID
+     * @param scheduleId Schedule ID
+     * @param partySize Number of seats wanted
+     * @return The waitlist entry or null if operation failed
+     */
+    public WaitlistEntry joinWaitlist(int studentId, int scheduleId, int partySize) {
+        if (partySize < 1 || partySize > MAX_GROUP_SIZE) {
+            throw new IllegalArgumentException("Party size must be between 1 and " + MAX_GROUP_SIZE);
         }
+        return ReservationEngine.await(engine.joinWaitlist(studentId, scheduleId, partySize));
+    }
+
+    /**
+     * Take a student off the waitlist of a screening
+     * @param studentId Student ID
+     * @param scheduleId Schedule ID
+     * @return True if the student was waiting
+     */
+    public boolean leaveWaitlist(int studentId, int scheduleId) {
+        return ReservationEngine.await(engine.leaveWaitlist(studentId, scheduleId));
+    }
 
-        return false;
+    /**
+     * Get a student's place on the waitlist of a screening
+     * @param studentId Student ID
+     * @param scheduleId Schedule ID
+     * @return The 1-based position, or 0 if the student is not waiting
+     */
+    public int getWaitlistPosition(int studentId, int scheduleId) {
+        return ReservationEngine.await(engine.getWaitlistPosition(studentId, scheduleId));
     }
 
     /**
@@ -110,13 +267,16 @@ public class ReservationService {
      * @return The reservation or null if not found
      */
     public Reservation findReservationById(int reservationId) {
-        // Try to find in linked list first for faster access
-        Reservation reservation = reservationList.find(reservationId);
+        // Try to find in the reservation store first for faster access
+        Reservation reservation;
+        synchronized (reservationStore) {
+            reservation = reservationStore.find(reservationId);
+        }
         if (reservation != null) {
             return reservation;
         }
 
-        // If not in linked list, fetch from database
+        // If not in the store, fetch from database
         return reservationDAO.findById(reservationId);
     }
 
@@ -126,15 +286,19 @@ public class ReservationService {
      * @return Array of reservations
      */
     public Reservation[] findReservationsByStudent(int studentId) {
-        return reservationList.findByStudent(studentId);
+        synchronized (reservationStore) {
+            return reservationStore.findByStudent(studentId);
+        }
     }
 
     /**
-     * Get all reservations from linked list
+     * Get all reservations from the in-memory store
      * @return Array of all reservations
      */
     public Reservation[] getAllReservationsFromList() {
-        return reservationList.toArray();
+        synchronized (reservationStore) {
+            return reservationStore.toArray();
+        }
     }
 
     /**
@@ -191,6 +355,51 @@ public class ReservationService {
     public List<Reservation> findReservationsByTimeRange(LocalDateTime start, LocalDateTime end) {
         return reservationDAO.findByReservationTimeRange(start, end);
     }
+
+    /**
+     * Get one page of reservations from database, newest first
+     * @param after The last reservation of the previous page, or null for the first page
+     * @param limit The page size
+     * @return The next page of reservations
+     */
+    public List<Reservation> getReservationPage(Reservation after, int limit) {
+        return reservationDAO.findPage(after, limit);
+    }
+
+    /**
+     * Get one page of reservations with a given status, newest first
+     * @param status The reservation status
+     * @param after The last reservation of the previous page, or null for the first page
+     * @param limit The page size
+     * @return The next page of reservations with the status
+     */
+    public List<Reservation> findReservationPageByStatus(String status, Reservation after, int limit) {
+        return reservationDAO.findPageByStatus(status, after, limit);
+    }
+
+    /**
+     * Get one page of the reservations made within a time range, newest first
+     * @param start The start time
+     * @param end The end time
+     * @param after The last reservation of the previous page, or null for the first page
+     * @param limit The page size
+     * @return The next page of reservations in the range
+     */
+    public List<Reservation> findReservationPageByTimeRange(LocalDateTime start, LocalDateTime end,
+                                                           Reservation after, int limit) {
+        return reservationDAO.findPageByReservationTimeRange(start, end, after, limit);
+    }
+
+    /**
+     * Get a student's non-cancelled reservations as display rows, loaded in one query
+     * @param studentId The student ID
+     * @return Rows with movie, hall and start time, newest first
+     */
+    public List<ReservationRow> getReservationRows(int studentId) {
+        List<ReservationRow> rows = reservationDAO.findRowsByStudentId(studentId);
+        return rows != null ? rows : new ArrayList<>();
+    }
+
     /**
      * Get all reservations for a specific student (non-cancelled)
      * @param studentId The student ID
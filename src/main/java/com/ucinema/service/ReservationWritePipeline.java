@@ -0,0 +1,281 @@
+package com.ucinema.service;
+
+import com.ucinema.dao.ReservationDAO;
+import com.ucinema.model.entities.Reservation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous group-commit writer for reservation claims.
+ * <p>
+ * A claim is one seat or a group of seats booked together. Claims are queued and a single writer
+ * thread stores them in batches. A batch is closed once it holds the maximum number of claims or
+ * the oldest one has waited for the commit window, and is then written in one transaction. This
+ * turns a burst of bookings into a few commits, and SQLite pays one fsync per commit rather than
+ * one per row. A group claim is all or nothing within the batch. Each caller's future completes
+ * after its batch has committed.
+ */
+public class ReservationWritePipeline {
+    // Batch limits, e.g. -Ducinema.writer.batch.size=64 -Ducinema.writer.window.millis=2
+    public static final String BATCH_SIZE_PROPERTY = "ucinema.writer.batch.size";
+    public static final String WINDOW_MILLIS_PROPERTY = "ucinema.writer.window.millis";
+    public static final int DEFAULT_BATCH_SIZE = 64;
+    public static final long DEFAULT_WINDOW_MILLIS = 2;
+
+    private final ReservationDAO reservationDAO;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final BlockingQueue<PendingWrite> queue;
+    private final Thread writer;
+    private volatile boolean running;
+
+    // Written by the writer thread only, read through getMetrics()
+    private long batchCount;
+    private long writtenCount;
+    private long seatCount;
+    private int largestBatch;
+    private long totalCommitNanos;
+    private long longestCommitNanos;
+    private long lastCommitNanos;
+
+    /**
+     * A claim waiting to be written
+     */
+    private static final class PendingWrite {
+        final List<Reservation> reservations;
+        final CompletableFuture<ReservationDAO.ClaimResult> result = new CompletableFuture<>();
+
+        PendingWrite(List<Reservation> reservations) {
+            this.reservations = reservations;
+        }
+    }
+
+    /**
+     * Point-in-time pipeline statistics
+     */
+    public static final class Metrics {
+        private final long batchCount;
+        private final long writtenCount;
+        private final long seatCount;
+        private final int largestBatch;
+        private final int queueDepth;
+        private final double averageCommitMillis;
+        private final double longestCommitMillis;
+        private final double lastCommitMillis;
+
+        private Metrics(long batchCount, long writtenCount, long seatCount, int largestBatch, int queueDepth,
+                        double averageCommitMillis, double longestCommitMillis, double lastCommitMillis) {
+            this.batchCount = batchCount;
+            this.writtenCount = writtenCount;
+            this.seatCount = seatCount;
+            this.largestBatch = largestBatch;
+            this.queueDepth = queueDepth;
+            this.averageCommitMillis = averageCommitMillis;
+            this.longestCommitMillis = longestCommitMillis;
+            this.lastCommitMillis = lastCommitMillis;
+        }
+
+        public long getBatchCount() {
+            return batchCount;
+        }
+
+        public long getWrittenCount() {
+            return writtenCount;
+        }
+
+        public long getSeatCount() {
+            return seatCount;
+        }
+
+        public double getAverageBatchSize() {
+            return batchCount == 0 ? 0 : (double) writtenCount / batchCount;
+        }
+
+        public int getLargestBatch() {
+            return largestBatch;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public double getAverageCommitMillis() {
+            return averageCommitMillis;
+        }
+
+        public double getLongestCommitMillis() {
+            return longestCommitMillis;
+        }
+
+        public double getLastCommitMillis() {
+            return lastCommitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d writes (%d seats) in %d batches (avg %.1f, max %d), queue depth %d, " +
+                            "commit avg %.2f ms, max %.2f ms, last %.2f ms",
+                    writtenCount, seatCount, batchCount, getAverageBatchSize(), largestBatch, queueDepth,
+                    averageCommitMillis, longestCommitMillis, lastCommitMillis);
+        }
+    }
+
+    /**
+     * Create and start a pipeline with the batch limits from the system properties
+     */
+    public ReservationWritePipeline() {
+        this(Integer.getInteger(BATCH_SIZE_PROPERTY, DEFAULT_BATCH_SIZE),
+                Long.getLong(WINDOW_MILLIS_PROPERTY, DEFAULT_WINDOW_MILLIS));
+    }
+
+    /**
+     * Create and start a pipeline
+     * @param maxBatchSize Most claims written in one transaction
+     * @param windowMillis Longest time a claim waits for others to join its batch
+     */
+    public ReservationWritePipeline(int maxBatchSize, long windowMillis) {
+        if (maxBatchSize <= 0 || windowMillis < 0) {
+            throw new IllegalArgumentException("Batch size must be positive and window cannot be negative");
+        }
+        this.reservationDAO = new ReservationDAO();
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.queue = new LinkedBlockingQueue<>();
+        this.running = true;
+        this.writer = new Thread(this::run, "reservation-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue a single-seat reservation for writing
+     * @param reservation The reservation to insert; receives its ID when claimed
+     * @return Future completed with CLAIMED, SEAT_TAKEN or FAILED once the batch has committed
+     */
+    public CompletableFuture<ReservationDAO.ClaimResult> submit(Reservation reservation) {
+        return submitGroup(Collections.singletonList(reservation));
+    }
+
+    /**
+     * Queue a group of reservations that must be stored together or not at all
+     * @param reservations The reservations to insert; each receives its ID when claimed
+     * @return Future completed with CLAIMED, SEAT_TAKEN if any seat was taken, or FAILED once the batch has committed
+     */
+    public CompletableFuture<ReservationDAO.ClaimResult> submitGroup(List<Reservation> reservations) {
+        PendingWrite write = new PendingWrite(reservations);
+        // Checked together with shutdown() so nothing is queued after the writer's last drain
+        synchronized (queue) {
+            if (!running) {
+                write.result.completeExceptionally(new IllegalStateException("Reservation writer has been shut down"));
+                return write.result;
+            }
+            queue.add(write);
+        }
+        return write.result;
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Let the batch fill up until it is full or the window closes
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Interrupted by shutdown; write whatever has been collected
+            }
+
+            if (!batch.isEmpty()) {
+                try {
+                    write(batch);
+                } catch (RuntimeException e) {
+                    // The writer must survive; fail whatever this batch has not answered yet
+                    System.out.println("Reservation writer failed on a batch of " + batch.size() + ": " + e);
+                    for (PendingWrite write : batch) {
+                        write.result.completeExceptionally(e);
+                    }
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Write one batch in a single transaction and complete its futures
+     */
+    private void write(List<PendingWrite> batch) {
+        List<List<Reservation>> groups = new ArrayList<>(batch.size());
+        int seats = 0;
+        for (PendingWrite write : batch) {
+            groups.add(write.reservations);
+            seats += write.reservations.size();
+        }
+
+        long start = System.nanoTime();
+        ReservationDAO.ClaimResult[] results = reservationDAO.claimGroups(groups);
+        long elapsed = System.nanoTime() - start;
+        recordBatch(batch.size(), seats, elapsed);
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result.complete(results != null ? results[i] : ReservationDAO.ClaimResult.FAILED);
+        }
+    }
+
+    private synchronized void recordBatch(int size, int seats, long commitNanos) {
+        batchCount++;
+        writtenCount += size;
+        seatCount += seats;
+        largestBatch = Math.max(largestBatch, size);
+        totalCommitNanos += commitNanos;
+        longestCommitNanos = Math.max(longestCommitNanos, commitNanos);
+        lastCommitNanos = commitNanos;
+    }
+
+    /**
+     * Get batch size, queue depth and commit latency statistics
+     * @return The current metrics
+     */
+    public synchronized Metrics getMetrics() {
+        double averageCommitNanos = batchCount == 0 ? 0 : (double) totalCommitNanos / batchCount;
+        return new Metrics(batchCount, writtenCount, seatCount, largestBatch, queue.size(),
+                averageCommitNanos / 1_000_000, longestCommitNanos / 1_000_000.0, lastCommitNanos / 1_000_000.0);
+    }
+
+    /**
+     * Stop accepting claims, write the ones already queued and stop the writer thread
+     */
+    public void shutdown() {
+        synchronized (queue) {
+            running = false;
+        }
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
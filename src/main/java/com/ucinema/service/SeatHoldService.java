@@ -0,0 +1,228 @@
+package com.ucinema.service;
+
+import com.ucinema.model.datastructures.HashedTimingWheel;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service class for temporary seat holds.
+ * While a student is choosing, the selected seats are held per (schedule, seat) so that no
+ * other session can take them. Holds live in concurrent maps shared by every screen and
+ * expire after a fixed TTL; expiry is driven by a single hashed timing wheel, so each hold
+ * costs O(1) to place, refresh, release or expire. A schedule's map is dropped when its last
+ * hold goes, so screenings nobody is choosing seats for take no memory.
+ */
+public class SeatHoldService {
+    public static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000;
+    private static final long TICK_MILLIS = 100;
+    private static final int WHEEL_SIZE = 512;
+
+    private final long ttlMillis;
+    private final HashedTimingWheel expiryWheel;
+    // Schedule ID -> seat ID -> hold
+    private final Map<Integer, Map<String, Hold>> holds;
+
+    /**
+     * A seat held by one student
+     */
+    private static final class Hold {
+        final int studentId;
+        HashedTimingWheel.Timeout expiry;
+
+        Hold(int studentId) {
+            this.studentId = studentId;
+        }
+    }
+
+    /**
+     * Create the service
+     * @param ttlMillis How long a hold lasts without being refreshed, in milliseconds
+     */
+    public SeatHoldService(long ttlMillis) {
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("Hold TTL must be positive");
+        }
+        this.ttlMillis = ttlMillis;
+        this.expiryWheel = new HashedTimingWheel(TICK_MILLIS, WHEEL_SIZE, "seat-hold-expiry");
+        this.holds = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the hold TTL
+     * @return TTL in milliseconds
+     */
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * Place a hold unless the seat is already held. Schedule maps are only changed inside
+     * compute calls on the outer map, so a map emptied by a release cannot lose a new hold.
+     * @return The hold already on the seat, or null if the candidate was placed
+     */
+    private Hold putIfAbsent(int scheduleId, String seatId, Hold candidate) {
+        Hold[] current = new Hold[1];
+        holds.compute(scheduleId, (id, scheduleHolds) -> {
+            if (scheduleHolds == null) {
+                scheduleHolds = new ConcurrentHashMap<>();
+            }
+            current[0] = scheduleHolds.putIfAbsent(seatId, candidate);
+            return scheduleHolds;
+        });
+        return current[0];
+    }
+
+    /**
+     * Remove a hold, dropping the schedule's map once its last hold is gone
+     * @return True if the hold was still on the seat
+     */
+    private boolean remove(int scheduleId, String seatId, Hold hold) {
+        boolean[] removed = new boolean[1];
+        holds.computeIfPresent(scheduleId, (id, scheduleHolds) -> {
+            removed[0] = scheduleHolds.remove(seatId, hold);
+            return scheduleHolds.isEmpty() ? null : scheduleHolds;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Hold a seat for a student, or refresh the student's existing hold
+     * @param scheduleId The schedule ID
+     * @param seatId The seat ID
+     * @param studentId The student ID
+     * @return True if the student now holds the seat, false if another student holds it
+     */
+    public boolean hold(int scheduleId, String seatId, int studentId) {
+        Hold candidate = new Hold(studentId);
+        Hold current = putIfAbsent(scheduleId, seatId, candidate);
+        if (current != null && current.studentId != studentId) {
+            return false;
+        }
+
+        Hold hold = current != null ? current : candidate;
+        synchronized (hold) {
+            if (hold.expiry != null) {
+                hold.expiry.cancel();
+            }
+            hold.expiry = expiryWheel.schedule(() -> expire(scheduleId, seatId, hold), ttlMillis);
+        }
+
+        // An expiry may have removed a refreshed hold just before it was rescheduled
+        Map<String, Hold> scheduleHolds = holds.get(scheduleId);
+        if (scheduleHolds == null || scheduleHolds.get(seatId) != hold) {
+            return hold(scheduleId, seatId, studentId);
+        }
+        return true;
+    }
+
+    private void expire(int scheduleId, String seatId, Hold hold) {
+        if (remove(scheduleId, seatId, hold)) {
+            System.out.println("Hold on seat " + seatId + " for schedule " + scheduleId + " expired");
+        }
+    }
+
+    /**
+     * Release a student's hold on a seat
+     * @param scheduleId The schedule ID
+     * @param seatId The seat ID
+     * @param studentId The student ID
+     * @return True if the student held the seat
+     */
+    public boolean release(int scheduleId, String seatId, int studentId) {
+        Map<String, Hold> scheduleHolds = holds.get(scheduleId);
+        if (scheduleHolds == null) {
+            return false;
+        }
+        Hold hold = scheduleHolds.get(seatId);
+        if (hold == null || hold.studentId != studentId || !remove(scheduleId, seatId, hold)) {
+            return false;
+        }
+        synchronized (hold) {
+            if (hold.expiry != null) {
+                hold.expiry.cancel();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Release every hold a student has for a schedule
+     * @param scheduleId The schedule ID
+     * @param studentId The student ID
+     * @return Number of holds released
+     */
+    public int releaseAll(int scheduleId, int studentId) {
+        Map<String, Hold> scheduleHolds = holds.get(scheduleId);
+        if (scheduleHolds == null) {
+            return 0;
+        }
+        int released = 0;
+        for (Map.Entry<String, Hold> entry : scheduleHolds.entrySet()) {
+            if (entry.getValue().studentId == studentId && release(scheduleId, entry.getKey(), studentId)) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Get the student holding a seat
+     * @param scheduleId The schedule ID
+     * @param seatId The seat ID
+     * @return The student ID, or null if the seat is not held
+     */
+    public Integer getHolder(int scheduleId, String seatId) {
+        Map<String, Hold> scheduleHolds = holds.get(scheduleId);
+        Hold hold = scheduleHolds != null ? scheduleHolds.get(seatId) : null;
+        return hold != null ? hold.studentId : null;
+    }
+
+    /**
+     * Check if a seat is held by someone other than the given student
+     * @param scheduleId The schedule ID
+     * @param seatId The seat ID
+     * @param studentId The student ID
+     * @return True if another student holds the seat
+     */
+    public boolean isHeldByOther(int scheduleId, String seatId, int studentId) {
+        Integer holder = getHolder(scheduleId, seatId);
+        return holder != null && holder != studentId;
+    }
+
+    /**
+     * Get every held seat of a schedule
+     * @param scheduleId The schedule ID
+     * @return Map of seat ID to the student holding it
+     */
+    public Map<String, Integer> getHeldSeats(int scheduleId) {
+        Map<String, Integer> heldSeats = new HashMap<>();
+        Map<String, Hold> scheduleHolds = holds.get(scheduleId);
+        if (scheduleHolds != null) {
+            for (Map.Entry<String, Hold> entry : scheduleHolds.entrySet()) {
+                heldSeats.put(entry.getKey(), entry.getValue().studentId);
+            }
+        }
+        return heldSeats;
+    }
+
+    /**
+     * Get the number of active holds across all schedules
+     * @return The hold count
+     */
+    public int getHoldCount() {
+        int count = 0;
+        for (Map<String, Hold> scheduleHolds : holds.values()) {
+            count += scheduleHolds.size();
+        }
+        return count;
+    }
+
+    /**
+     * Stop the expiry thread
+     */
+    public void shutdown() {
+        expiryWheel.stop();
+    }
+}
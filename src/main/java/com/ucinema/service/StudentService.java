@@ -4,33 +4,118 @@ import com.ucinema.dao.StudentDAO;
 import com.ucinema.model.datastructures.StudentHashTable;
 import com.ucinema.model.entities.Student;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service class for student-related operations.
+ * Emails are unique regardless of case (the database enforces this with a NOCASE index), so the
+ * email index is keyed on the lower-cased address. The service is shared between threads; the
+ * cache and indexes are only touched in synchronized methods.
  */
 public class StudentService {
     private final StudentDAO studentDAO;
     private final StudentHashTable studentCache;
+    // Secondary indexes: lower-cased email and student number -> student
+    private final Map<String, Student> studentsByEmail;
+    private final Map<String, Student> studentsByNumber;
+    // Index keys each student was filed under, so they can be dropped even if the entity was edited in place
+    private final Map<Integer, String[]> indexedKeys;
+    // Email keys shared by students stored before emails were unique regardless of case;
+    // lookups for these go to the database with the email exactly as entered
+    private final Set<String> ambiguousEmails;
 
     public StudentService() {
         this.studentDAO = new StudentDAO();
         this.studentCache = new StudentHashTable();
+        this.studentsByEmail = new HashMap<>();
+        this.studentsByNumber = new HashMap<>();
+        this.indexedKeys = new HashMap<>();
+        this.ambiguousEmails = new HashSet<>();
         initializeCache();
     }
 
     /**
      * Initialize the cache with students from the database
      */
-    private void initializeCache() {
+    private synchronized void initializeCache() {
         List<Student> students = studentDAO.findAll();
         if (students != null) {
             for (Student student : students) {
                 studentCache.insert(student);
+                indexStudent(student);
             }
         }
     }
 
+    /**
+     * Normalise an email for index lookups
+     * @param email The email as entered
+     * @return The trimmed, lower-cased email, or null
+     */
+    private static String emailKey(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Add a student to the email and student number indexes
+     * @param student The student to index
+     */
+    private synchronized void indexStudent(Student student) {
+        String email = emailKey(student.getEmail());
+        String number = student.getStudentNumber();
+        if (email != null) {
+            Student other = studentsByEmail.put(email, student);
+            if (other != null && other.getId() != student.getId()) {
+                ambiguousEmails.add(email);
+                System.out.println("Warning: students " + other.getId() + " and " + student.getId() +
+                        " have emails that differ only by case");
+            }
+        }
+        if (number != null) {
+            studentsByNumber.put(number, student);
+        }
+        indexedKeys.put(student.getId(), new String[]{email, number});
+    }
+
+    /**
+     * Remove a student from the email and student number indexes
+     * @param studentId The student ID
+     */
+    private synchronized void unindexStudent(int studentId) {
+        String[] keys = indexedKeys.remove(studentId);
+        if (keys == null) {
+            return;
+        }
+        // Another student may have taken over an ambiguous email key
+        if (keys[0] != null && studentsByEmail.get(keys[0]) != null
+                && studentsByEmail.get(keys[0]).getId() == studentId) {
+            studentsByEmail.remove(keys[0]);
+        }
+        if (keys[1] != null) {
+            studentsByNumber.remove(keys[1]);
+        }
+    }
+
+    /**
+     * Get the student registered under an email, whatever its case
+     * @param email The email as entered
+     * @return The student, or null if none or if several students share the email key
+     */
+    private synchronized Student emailOwner(String email) {
+        String key = emailKey(email);
+        return ambiguousEmails.contains(key) ? null : studentsByEmail.get(key);
+    }
+
+    private synchronized boolean isEmailAmbiguous(String email) {
+        return ambiguousEmails.contains(emailKey(email));
+    }
+
     /**
      * Register a new student
      * @param name Student name
@@ -40,13 +125,16 @@ public class StudentService {
      * @return The registered student or null if registration failed
      */
     public Student registerStudent(String name, String email, String password, String studentNumber) {
-        // Check if email or student number already exists
-        if (studentDAO.findByEmail(email) != null) {
-            throw new IllegalArgumentException("Email already registered");
-        }
+        // Check if email or student number already exists; a concurrent registration that
+        // gets past these checks is rejected by the unique indexes
+        synchronized (this) {
+            if (studentsByEmail.containsKey(emailKey(email))) {
+                throw new IllegalArgumentException("Email already registered");
+            }
 
-        if (studentDAO.findByStudentNumber(studentNumber) != null) {
-            throw new IllegalArgumentException("Student number already registered");
+            if (studentsByNumber.containsKey(studentNumber)) {
+                throw new IllegalArgumentException("Student number already registered");
+            }
         }
 
         // Create and save the student
@@ -55,12 +143,53 @@ public class StudentService {
 
         // Add to cache
         if (savedStudent != null) {
-            studentCache.insert(savedStudent);
+            synchronized (this) {
+                studentCache.insert(savedStudent);
+                indexStudent(savedStudent);
+            }
         }
 
         return savedStudent;
     }
 
+    /**
+     * Register many students at once, saved in JDBC batches in one transaction.
+     * Students whose email or student number is already registered, or repeats one earlier
+     * in the list, are skipped.
+     * @param students The new students
+     * @return The registered students, or null if they could not be saved
+     */
+    public List<Student> registerStudents(List<Student> students) {
+        List<Student> newStudents = new ArrayList<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> numbers = new HashSet<>();
+        synchronized (this) {
+            for (Student student : students) {
+                String key = emailKey(student.getEmail());
+                if (studentsByEmail.containsKey(key) || studentsByNumber.containsKey(student.getStudentNumber())
+                        || !emails.add(key) || !numbers.add(student.getStudentNumber())) {
+                    System.out.println("Skipping already registered student: " + student.getEmail());
+                    continue;
+                }
+                newStudents.add(student);
+            }
+        }
+        if (newStudents.isEmpty()) {
+            return newStudents;
+        }
+
+        List<Student> savedStudents = studentDAO.saveAll(newStudents);
+        if (savedStudents != null) {
+            synchronized (this) {
+                for (Student student : savedStudents) {
+                    studentCache.insert(student);
+                    indexStudent(student);
+                }
+            }
+        }
+        return savedStudents;
+    }
+
     /**
      * Authenticate a student
      * @param email Student email
@@ -68,7 +197,15 @@ public class StudentService {
      * @return The authenticated student or null if authentication failed
      */
     public Student login(String email, String password) {
-        return studentDAO.authenticate(email, password);
+        // Unknown emails are rejected without a database round trip
+        if (isEmailAmbiguous(email)) {
+            return studentDAO.authenticate(email.trim(), password);
+        }
+        Student student = emailOwner(email);
+        if (student == null) {
+            return null;
+        }
+        return studentDAO.authenticate(student.getEmail(), password);
     }
 
     /**
@@ -78,7 +215,10 @@ public class StudentService {
      */
     public Student findStudentById(int studentId) {
         // Try to find in cache first for faster access
-        Student student = studentCache.find(studentId);
+        Student student;
+        synchronized (this) {
+            student = studentCache.find(studentId);
+        }
         if (student != null) {
             return student;
         }
@@ -93,7 +233,10 @@ public class StudentService {
      * @return The student or null if not found
      */
     public Student findStudentByEmail(String email) {
-        return studentDAO.findByEmail(email);
+        if (isEmailAmbiguous(email)) {
+            return studentDAO.findByEmail(email.trim());
+        }
+        return emailOwner(email);
     }
 
     /**
@@ -101,8 +244,8 @@ public class StudentService {
      * @param studentNumber The student number to search for
      * @return The student or null if not found
      */
-    public Student findStudentByNumber(String studentNumber) {
-        return studentDAO.findByStudentNumber(studentNumber);
+    public synchronized Student findStudentByNumber(String studentNumber) {
+        return studentsByNumber.get(studentNumber);
     }
 
     /**
@@ -120,12 +263,32 @@ public class StudentService {
      * @return The updated student
      */
     public Student updateStudent(Student student) {
+        // Email and student number must stay unique
+        synchronized (this) {
+            String email = emailKey(student.getEmail());
+            Student emailOwner = studentsByEmail.get(email);
+            String[] ownKeys = indexedKeys.get(student.getId());
+            boolean keepsOwnEmail = ownKeys != null && email != null && email.equals(ownKeys[0]);
+            if (emailOwner != null && emailOwner.getId() != student.getId() && !keepsOwnEmail) {
+                throw new IllegalArgumentException("Email already registered");
+            }
+
+            Student numberOwner = studentsByNumber.get(student.getStudentNumber());
+            if (numberOwner != null && numberOwner.getId() != student.getId()) {
+                throw new IllegalArgumentException("Student number already registered");
+            }
+        }
+
         Student updatedStudent = studentDAO.update(student);
 
         // Update cache
         if (updatedStudent != null) {
-            studentCache.remove(student.getId());
-            studentCache.insert(updatedStudent);
+            synchronized (this) {
+                studentCache.remove(student.getId());
+                studentCache.insert(updatedStudent);
+                unindexStudent(student.getId());
+                indexStudent(updatedStudent);
+            }
         }
 
         return updatedStudent;
@@ -139,11 +302,21 @@ public class StudentService {
         return studentDAO.findAll();
     }
 
+    /**
+     * Get one page of students in ID order
+     * @param after The last student of the previous page, or null for the first page
+     * @param limit The page size
+     * @return The next page of students
+     */
+    public List<Student> getStudentPage(Student after, int limit) {
+        return studentDAO.findPage(after, limit);
+    }
+
     /**
      * Get all students from cache
      * @return List of all cached students
      */
-    public List<Student> getAllStudentsFromCache() {
+    public synchronized List<Student> getAllStudentsFromCache() {
         return studentCache.getAllStudents();
     }
 }
\ No newline at end of file
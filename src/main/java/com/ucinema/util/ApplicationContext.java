@@ -0,0 +1,135 @@
+package com.ucinema.util;
+
+import com.ucinema.service.HallService;
+import com.ucinema.service.MovieScheduleService;
+import com.ucinema.service.MovieService;
+import com.ucinema.service.ReservationEngine;
+import com.ucinema.service.ReservationService;
+import com.ucinema.service.SeatHoldService;
+import com.ucinema.service.StudentService;
+
+/**
+ * Process-wide registry of the application services.
+ * Each service, and the in-memory structures it loads from the database, is created once
+ * when the context starts and shared by every screen afterwards.
+ */
+public class ApplicationContext {
+    // Seat hold lifetime in seconds, e.g. -Ducinema.hold.ttl.seconds=120
+    public static final String HOLD_TTL_PROPERTY = "ucinema.hold.ttl.seconds";
+
+    private static ApplicationContext instance;
+
+    private final StudentService studentService;
+    private final MovieService movieService;
+    private final HallService hallService;
+    private final MovieScheduleService scheduleService;
+    private final SeatHoldService seatHoldService;
+    private final ReservationEngine reservationEngine;
+    private final ReservationService reservationService;
+    private final long warmUpMillis;
+
+    private ApplicationContext() {
+        long start = System.nanoTime();
+        long mark = start;
+
+        this.studentService = new StudentService();
+        mark = logWarmUp("StudentService", mark);
+
+        this.movieService = new MovieService();
+        mark = logWarmUp("MovieService", mark);
+
+        this.hallService = new HallService();
+        mark = logWarmUp("HallService", mark);
+
+        this.scheduleService = new MovieScheduleService(movieService);
+        mark = logWarmUp("MovieScheduleService", mark);
+
+        long holdTtlSeconds = Long.getLong(HOLD_TTL_PROPERTY, SeatHoldService.DEFAULT_TTL_MILLIS / 1000);
+        this.seatHoldService = new SeatHoldService(holdTtlSeconds * 1000);
+        this.reservationEngine = new ReservationEngine(scheduleService, hallService, seatHoldService,
+                ReservationEngine.defaultShardCount());
+        this.reservationService = new ReservationService(scheduleService, hallService, seatHoldService, reservationEngine);
+        logWarmUp("ReservationService", mark);
+
+        this.warmUpMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Application context warmed up in " + warmUpMillis + " ms");
+    }
+
+    private static long logWarmUp(String serviceName, long since) {
+        long now = System.nanoTime();
+        System.out.println("  " + serviceName + " ready in " + (now - since) / 1_000_000 + " ms");
+        return now;
+    }
+
+    /**
+     * Create the shared services if they do not exist yet
+     * @return The started context
+     */
+    public static synchronized ApplicationContext start() {
+        if (instance == null) {
+            System.out.println("Starting application context...");
+            instance = new ApplicationContext();
+        }
+        return instance;
+    }
+
+    /**
+     * Get the application context, starting it on first use
+     * @return The context instance
+     */
+    public static ApplicationContext getInstance() {
+        return start();
+    }
+
+    /**
+     * Drop the shared services so the next start reloads them from the database
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            System.out.println("Shutting down application context");
+            instance.reservationEngine.shutdown();
+            System.out.println("Reservation writer: " + instance.reservationEngine.getWritePipeline().getMetrics());
+            System.out.printf("Reservation shards: %d database calls blocked the shards for %.1f ms%n",
+                    instance.reservationEngine.getShardDatabaseCalls(), instance.reservationEngine.getShardDatabaseMillis());
+            System.out.println("Second-level cache:\n" + SecondLevelCache.getStatistics());
+            instance.seatHoldService.shutdown();
+            instance = null;
+        }
+    }
+
+    /**
+     * Get the time taken to create every service
+     * @return Warm-up time in milliseconds
+     */
+    public long getWarmUpMillis() {
+        return warmUpMillis;
+    }
+
+    public StudentService getStudentService() {
+        return studentService;
+    }
+
+    public MovieService getMovieService() {
+        return movieService;
+    }
+
+    public HallService getHallService() {
+        return hallService;
+    }
+
+    public MovieScheduleService getScheduleService() {
+        return scheduleService;
+    }
+
+    public SeatHoldService getSeatHoldService() {
+        return seatHoldService;
+    }
+
+    public ReservationEngine getReservationEngine() {
+        return reservationEngine;
+    }
+
+    public ReservationService getReservationService() {
+        return reservationService;
+    }
+}
@@ -94,6 +94,21 @@ public class DatabaseInitializer {
                             ")"
             );
 
+            // Create waitlist table
+            statement.execute(
+                    "CREATE TABLE IF NOT EXISTS waitlist (" +
+                            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                            "student_id INTEGER NOT NULL," +
+                            "schedule_id INTEGER NOT NULL," +
+                            "party_size INTEGER NOT NULL," +
+                            "status TEXT DEFAULT 'waiting'," +
+                            "created_at TIMESTAMP," +
+                            "updated_at TIMESTAMP," +
+                            "FOREIGN KEY (student_id) REFERENCES students (id)," +
+                            "FOREIGN KEY (schedule_id) REFERENCES movie_schedules (id)" +
+                            ")"
+            );
+
             // Insert admin user
             statement.execute(
                     "INSERT OR IGNORE INTO students (name, email, password, student_id, created_at, updated_at) " +
@@ -101,6 +116,9 @@ public class DatabaseInitializer {
             );
 
             statement.close();
+
+            // Indexes and the other objects the migrations add
+            SchemaMigrator.migrate(connection);
             connection.close();
 
             System.out.println("Database and tables created successfully.");
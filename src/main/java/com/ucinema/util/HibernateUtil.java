@@ -1,5 +1,10 @@
 package com.ucinema.util;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
 import org.hibernate.cfg.Configuration;
@@ -7,42 +12,65 @@ import org.hibernate.cfg.Environment;
 import org.hibernate.service.ServiceRegistry;
 
 import com.ucinema.model.entities.*;
-import java.io.File;
+import javax.cache.CacheManager;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
 import java.util.Properties;
 
 /**
  * Utility class for Hibernate configuration and setup.
  */
 public class HibernateUtil {
+    // Persistence profile keys (see persistence.properties); each can be overridden as a system property
+    public static final String DATABASE_URL_PROPERTY = "ucinema.db.url";
+    private static final String DEFAULT_DATABASE_URL = "jdbc:sqlite:university_cinema.db";
+    public static final String SHOW_SQL_PROPERTY = "ucinema.db.showSql";
+    public static final String WRITE_POOL_SIZE_PROPERTY = "ucinema.pool.write.size";
+    public static final String READ_POOL_SIZE_PROPERTY = "ucinema.pool.read.size";
+    public static final String BATCH_SIZE_PROPERTY = "ucinema.db.batchSize";
+
     private static SessionFactory sessionFactory;
+    private static HikariDataSource writePool;
+    private static HikariDataSource readPool;
+    private static CacheManager cacheManager;
+    private static int batchSize = 1;
 
     /**
      * Get the Hibernate SessionFactory (singleton pattern)
      * @return The SessionFactory instance
      */
-    public static SessionFactory getSessionFactory() {
+    public static synchronized SessionFactory getSessionFactory() {
         if (sessionFactory == null) {
             try {
-                // Add this debug statement
-                File dbFile = new File("university_cinema.db");
-                System.out.println("Looking for database at: " + dbFile.getAbsolutePath());
+                PersistenceSettings persistence = PersistenceSettings.load();
+                String url = persistence.get(DATABASE_URL_PROPERTY, DEFAULT_DATABASE_URL);
+                System.out.println("Using database " + url);
+
+                // Writes go through the SessionFactory's own pool; reads borrow from a separate one
+                writePool = createPool("ucinema-write", url, persistence.getInt(WRITE_POOL_SIZE_PROPERTY, 1),
+                        persistence, false);
+                int readPoolSize = persistence.getInt(READ_POOL_SIZE_PROPERTY, 0);
+                readPool = readPoolSize > 0 ? createPool("ucinema-read", url, readPoolSize, persistence, true) : null;
 
                 Configuration configuration = new Configuration();
 
                 // Hibernate settings
                 Properties settings = new Properties();
-                settings.put(Environment.DRIVER, "org.sqlite.JDBC");
-
-                // You can also update the connection URL if needed
-                // String dbPath = System.getProperty("user.dir") + "/university_cinema.db";
-                // settings.put(Environment.URL, "jdbc:sqlite:" + dbPath);
-
-                settings.put(Environment.URL, "jdbc:sqlite:university_cinema.db");
+                settings.put(Environment.DATASOURCE, writePool);
                 settings.put(Environment.DIALECT, "org.hibernate.community.dialect.SQLiteDialect");
-                settings.put(Environment.SHOW_SQL, "true");
-                settings.put(Environment.FORMAT_SQL, "true");
+                settings.put(Environment.SHOW_SQL, persistence.get(SHOW_SQL_PROPERTY, "false"));
+                settings.put(Environment.FORMAT_SQL, persistence.get("ucinema.db.formatSql", "false"));
                 settings.put(Environment.CURRENT_SESSION_CONTEXT_CLASS, "thread");
-                settings.put(Environment.HBM2DDL_AUTO, "update");
+                settings.put(Environment.HBM2DDL_AUTO, persistence.get("ucinema.db.hbm2ddl", "update"));
+
+                // Send inserts and updates in JDBC batches, grouped by table so batches stay full
+                batchSize = Math.max(1, persistence.getInt(BATCH_SIZE_PROPERTY, 50));
+                settings.put(Environment.STATEMENT_BATCH_SIZE, String.valueOf(batchSize));
+                settings.put(Environment.ORDER_INSERTS, "true");
+                settings.put(Environment.ORDER_UPDATES, "true");
+
+                cacheManager = SecondLevelCache.configure(settings, persistence);
 
                 configuration.setProperties(settings);
 
@@ -52,11 +80,13 @@ public class HibernateUtil {
                 configuration.addAnnotatedClass(Hall.class);
                 configuration.addAnnotatedClass(MovieSchedule.class);
                 configuration.addAnnotatedClass(Reservation.class);
+                configuration.addAnnotatedClass(WaitlistEntry.class);
 
                 ServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder()
                         .applySettings(configuration.getProperties()).build();
 
                 sessionFactory = configuration.buildSessionFactory(serviceRegistry);
+                migrateSchema();
             } catch (Exception e) {
                 e.printStackTrace();
             }
@@ -65,11 +95,138 @@ public class HibernateUtil {
     }
 
     /**
-     * Close the session factory
+     * Create a fixed-size connection pool with the profile's SQLite pragmas applied to each connection
+     * @param name Pool name, shown in logs and thread names
+     * @param url The JDBC URL
+     * @param size Number of connections
+     * @param persistence The persistence settings
+     * @param queryOnly True to reject writes on these connections
+     * @return The pool
+     */
+    private static HikariDataSource createPool(String name, String url, int size,
+                                               PersistenceSettings persistence, boolean queryOnly) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.setJdbcUrl(url);
+        config.setMaximumPoolSize(size);
+        config.setMinimumIdle(size);
+        config.setConnectionTimeout(persistence.getInt("ucinema.pool.timeout.millis", 30000));
+        // sqlite-jdbc applies pragmas passed as connection properties when it opens the file
+        config.setDataSourceProperties(persistence.getPragmas());
+        if (queryOnly) {
+            config.setConnectionInitSql("PRAGMA query_only = true");
+        }
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Open a session for queries only. It runs on a connection from the read pool, so it does not
+     * wait for writers; in WAL mode it sees the data as of the last committed write.
+     * Falls back to an ordinary session when the read pool is disabled.
+     * @return A new session; closing it returns the connection to the read pool
+     */
+    public static Session openReadSession() {
+        SessionFactory factory = getSessionFactory();
+        if (readPool == null) {
+            return factory.openSession();
+        }
+        try {
+            Connection connection = readPool.getConnection();
+            return factory.withOptions()
+                    .connection(connection)
+                    .eventListeners(new ReturnConnectionOnClose(connection))
+                    .openSession();
+        } catch (SQLException e) {
+            throw new HibernateException("Could not get a read connection", e);
+        }
+    }
+
+    /**
+     * Hands a borrowed read connection back to its pool when the session closes
+     */
+    private static final class ReturnConnectionOnClose extends BaseSessionEventListener {
+        private final Connection connection;
+
+        ReturnConnectionOnClose(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public void end() {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                System.out.println("Could not return read connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Bring the schema up to the latest migration once hbm2ddl has created the tables, then check
+     * that the hot queries use their indexes. A failed migration is logged and the application
+     * keeps running without it.
+     */
+    private static void migrateSchema() {
+        try (Connection connection = writePool.getConnection()) {
+            SchemaMigrator.migrate(connection);
+            List<String> problems = SchemaMigrator.checkQueryPlans(connection);
+            for (String problem : problems) {
+                System.out.println("Warning: " + problem);
+            }
+            System.out.println("Schema at version " + SchemaMigrator.currentVersion(connection) +
+                    (problems.isEmpty() ? ", hot queries use indexes" : ""));
+        } catch (SQLException e) {
+            System.out.println("Could not migrate schema: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the JDBC batch size used for inserts and updates
+     * @return Statements per batch
      */
-    public static void shutdown() {
+    public static int getBatchSize() {
+        getSessionFactory();
+        return batchSize;
+    }
+
+    /**
+     * Persist entities in an open transaction. The session is flushed and cleared after every full
+     * batch, so each batch goes out as one JDBC batch and a large import does not keep every
+     * entity in memory.
+     * @param session The session
+     * @param entities The new entities
+     */
+    public static void persistInBatches(Session session, List<?> entities) {
+        int size = getBatchSize();
+        for (int i = 0; i < entities.size(); i++) {
+            session.persist(entities.get(i));
+            if ((i + 1) % size == 0) {
+                session.flush();
+                session.clear();
+            }
+        }
+    }
+
+    /**
+     * Close the session factory, its cache and the connection pools
+     */
+    public static synchronized void shutdown() {
         if (sessionFactory != null) {
             sessionFactory.close();
+            sessionFactory = null;
+        }
+        if (cacheManager != null) {
+            cacheManager.close();
+            cacheManager = null;
+        }
+        if (readPool != null) {
+            readPool.close();
+            readPool = null;
+        }
+        if (writePool != null) {
+            writePool.close();
+            writePool = null;
         }
     }
 }
\ No newline at end of file
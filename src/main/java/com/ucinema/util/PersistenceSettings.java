@@ -0,0 +1,92 @@
+package com.ucinema.util;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Settings of the persistence profile: database URL, SQL logging, connection pools and SQLite
+ * pragmas.
+ * <p>
+ * Values are layered: the defaults in persistence.properties on the classpath, then the external
+ * file named by -Ducinema.persistence.file if given, then any system property with the same key.
+ */
+public class PersistenceSettings {
+    public static final String FILE_PROPERTY = "ucinema.persistence.file";
+    public static final String PRAGMA_PREFIX = "ucinema.sqlite.";
+    private static final String DEFAULTS_RESOURCE = "/persistence.properties";
+
+    private final Properties properties;
+
+    private PersistenceSettings(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Load the settings from the defaults, the external file and the system properties
+     * @return The settings
+     */
+    public static PersistenceSettings load() {
+        Properties properties = new Properties();
+        try (InputStream defaults = PersistenceSettings.class.getResourceAsStream(DEFAULTS_RESOURCE)) {
+            if (defaults != null) {
+                properties.load(defaults);
+            }
+        } catch (IOException e) {
+            System.out.println("Could not read persistence defaults: " + e.getMessage());
+        }
+
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file != null) {
+            try (InputStream external = new FileInputStream(file)) {
+                properties.load(external);
+                System.out.println("Loaded persistence settings from " + file);
+            } catch (IOException e) {
+                System.out.println("Could not read persistence settings from " + file + ": " + e.getMessage());
+            }
+        }
+
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("ucinema.")) {
+                properties.setProperty(key, System.getProperty(key));
+            }
+        }
+        return new PersistenceSettings(properties);
+    }
+
+    /**
+     * Get a setting
+     * @param key The key, e.g. "ucinema.db.url"
+     * @param defaultValue Value used if the key is not set
+     * @return The value
+     */
+    public String get(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue).trim();
+    }
+
+    /**
+     * Get a numeric setting
+     * @param key The key
+     * @param defaultValue Value used if the key is not set
+     * @return The value
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Get the SQLite pragmas to apply to every connection
+     * @return Pragma names mapped to their values, e.g. journal_mode=WAL
+     */
+    public Properties getPragmas() {
+        Properties pragmas = new Properties();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(PRAGMA_PREFIX)) {
+                pragmas.setProperty(key.substring(PRAGMA_PREFIX.length()), properties.getProperty(key).trim());
+            }
+        }
+        return pragmas;
+    }
+}
@@ -12,6 +12,7 @@ import com.ucinema.service.StudentService;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -28,10 +29,11 @@ public class SampleDataInitializer {
      * Constructor
      */
     public SampleDataInitializer() {
-        this.studentService = new StudentService();
-        this.movieService = new MovieService();
-        this.hallService = new HallService();
-        this.scheduleService = new MovieScheduleService();
+        ApplicationContext context = ApplicationContext.getInstance();
+        this.studentService = context.getStudentService();
+        this.movieService = context.getMovieService();
+        this.hallService = context.getHallService();
+        this.scheduleService = context.getScheduleService();
     }
 
     /**
@@ -75,63 +77,24 @@ public class SampleDataInitializer {
     }
 
     /**
-     * Create sample students
+     * Create sample students, skipping any that are already registered
      */
     private void createSampleStudents() {
         System.out.println("Creating sample students...");
 
-        // Create admin student
-        try {
-            Student admin = studentService.registerStudent(
-                    "Admin User",
-                    "admin@university.edu",
-                    "admin123",
-                    "ADMIN001");
-            if (admin != null) {
-                System.out.println("Created admin user: " + admin.getName());
-            }
-        } catch (Exception e) {
-            System.out.println("Admin already exists: " + e.getMessage());
-        }
-
-        // Create regular students
-        try {
-            Student student1 = studentService.registerStudent(
-                    "John Smith",
-                    "john.smith@university.edu",
-                    "password123",
-                    "S12345");
-            if (student1 != null) {
-                System.out.println("Created student: " + student1.getName());
-            }
-        } catch (Exception e) {
-            System.out.println("Student already exists: " + e.getMessage());
-        }
-
-        try {
-            Student student2 = studentService.registerStudent(
-                    "Emma Johnson",
-                    "emma.johnson@university.edu",
-                    "password123",
-                    "S12346");
-            if (student2 != null) {
-                System.out.println("Created student: " + student2.getName());
-            }
-        } catch (Exception e) {
-            System.out.println("Student already exists: " + e.getMessage());
-        }
+        List<Student> newStudents = new ArrayList<>();
+        newStudents.add(new Student("Admin User", "admin@university.edu", "admin123", "ADMIN001"));
+        newStudents.add(new Student("John Smith", "john.smith@university.edu", "password123", "S12345"));
+        newStudents.add(new Student("Emma Johnson", "emma.johnson@university.edu", "password123", "S12346"));
+        newStudents.add(new Student("Michael Brown", "michael.brown@university.edu", "password123", "S12347"));
 
-        try {
-            Student student3 = studentService.registerStudent(
-                    "Michael Brown",
-                    "michael.brown@university.edu",
-                    "password123",
-                    "S12347");
-            if (student3 != null) {
-                System.out.println("Created student: " + student3.getName());
+        List<Student> savedStudents = studentService.registerStudents(newStudents);
+        if (savedStudents != null) {
+            for (Student student : savedStudents) {
+                System.out.println("Created student: " + student.getName());
             }
-        } catch (Exception e) {
-            System.out.println("Student already exists: " + e.getMessage());
+        } else {
+            System.out.println("Failed to create sample students");
         }
     }
 
@@ -142,116 +105,91 @@ public class SampleDataInitializer {
         System.out.println("Creating sample movies...");
 
         // Create movies
-        Movie movie1 = createMovie(
+        List<Movie> newMovies = new ArrayList<>();
+        newMovies.add(new Movie(
                 "The Matrix",
                 "A computer hacker learns from mysterious rebels about the true nature of his reality and his role in the war against its controllers.",
                 136,
                 LocalDate.of(1999, 3, 31),
                 "Science Fiction",
                 "Lana Wachowski, Lilly Wachowski",
-                "R");
+                "R"));
 
-        Movie movie2 = createMovie(
+        newMovies.add(new Movie(
                 "Inception",
                 "A thief who steals corporate secrets through the use of dream-sharing technology is given the inverse task of planting an idea into the mind of a C.E.O.",
                 148,
                 LocalDate.of(2010, 7, 16),
                 "Science Fiction",
                 "Christopher Nolan",
-                "PG-13");
+                "PG-13"));
 
-        Movie movie3 = createMovie(
+        newMovies.add(new Movie(
                 "The Shawshank Redemption",
                 "Two imprisoned men bond over a number of years, finding solace and eventual redemption through acts of common decency.",
                 142,
                 LocalDate.of(1994, 9, 23),
                 "Drama",
                 "Frank Darabont",
-                "R");
+                "R"));
 
-        Movie movie4 = createMovie(
+        newMovies.add(new Movie(
                 "The Dark Knight",
                 "When the menace known as the Joker wreaks havoc and chaos on the people of Gotham, Batman must accept one of the greatest psychological and physical tests of his ability to fight injustice.",
                 152,
                 LocalDate.of(2008, 7, 18),
                 "Action",
                 "Christopher Nolan",
-                "PG-13");
+                "PG-13"));
 
-        Movie movie5 = createMovie(
+        newMovies.add(new Movie(
                 "Pulp Fiction",
                 "The lives of two mob hitmen, a boxer, a gangster and his wife, and a pair of diner bandits intertwine in four tales of violence and redemption.",
                 154,
                 LocalDate.of(1994, 10, 14),
                 "Crime",
                 "Quentin Tarantino",
-                "R");
+                "R"));
+
+        List<Movie> savedMovies = movieService.addMovies(newMovies);
+        if (savedMovies != null) {
+            for (Movie movie : savedMovies) {
+                System.out.println("Created movie: " + movie.getTitle() + " (ID: " + movie.getId() + ")");
+            }
+        } else {
+            System.out.println("Failed to create sample movies");
+        }
 
         // Check if movies were created successfully
         List<Movie> createdMovies = movieService.getAllMovies();
         System.out.println("After movie creation: " + (createdMovies != null ? createdMovies.size() : 0) + " movies in database");
     }
 
-    /**
-     * Helper method to create a movie
-     * @return The created movie or null if failed
-     */
-    private Movie createMovie(String title, String description, int duration,
-                              LocalDate releaseDate, String genre, String director, String rating) {
-        try {
-            Movie movie = movieService.addMovie(
-                    title, description, duration, releaseDate, genre, director, rating);
-
-            if (movie != null) {
-                System.out.println("Created movie: " + title + " (ID: " + movie.getId() + ")");
-                return movie;
-            } else {
-                System.out.println("Failed to create movie: " + title);
-            }
-        } catch (Exception e) {
-            System.out.println("Error creating movie " + title + ": " + e.getMessage());
-            e.printStackTrace();
-        }
-        return null;
-    }
-
     /**
      * Create sample halls
      */
     private void createSampleHalls() {
         System.out.println("Creating sample halls...");
 
-        // Create halls
-        Hall hall1 = createHall("Main Hall", 200, "Main Building", "standard");
-        Hall hall2 = createHall("IMAX Hall", 150, "Science Building", "IMAX");
-        Hall hall3 = createHall("VIP Hall", 50, "Arts Building", "VIP");
+        List<Hall> newHalls = new ArrayList<>();
+        newHalls.add(new Hall("Main Hall", 200, "Main Building", "standard"));
+        newHalls.add(new Hall("IMAX Hall", 150, "Science Building", "IMAX"));
+        newHalls.add(new Hall("VIP Hall", 50, "Arts Building", "VIP"));
+
+        List<Hall> savedHalls = hallService.addHalls(newHalls);
+        if (savedHalls != null) {
+            for (Hall hall : savedHalls) {
+                System.out.println("Created hall: " + hall.getName() + " (ID: " + hall.getId() + ")");
+            }
+        } else {
+            System.out.println("Failed to create sample halls");
+        }
 
         // Check if halls were created successfully
         List<Hall> createdHalls = hallService.getAllHalls();
         System.out.println("After hall creation: " + (createdHalls != null ? createdHalls.size() : 0) + " halls in database");
     }
 
-    /**
-     * Helper method to create a hall
-     * @return The created hall or null if failed
-     */
-    private Hall createHall(String name, int capacity, String location, String type) {
-        try {
-            Hall hall = hallService.addHall(name, capacity, location, type);
-
-            if (hall != null) {
-                System.out.println("Created hall: " + name + " (ID: " + hall.getId() + ")");
-                return hall;
-            } else {
-                System.out.println("Failed to create hall: " + name);
-            }
-        } catch (Exception e) {
-            System.out.println("Error creating hall " + name + ": " + e.getMessage());
-            e.printStackTrace();
-        }
-        return null;
-    }
-
     /**
      * Create sample schedules
      */
@@ -277,6 +215,7 @@ public class SampleDataInitializer {
 
         // Create schedules for the next 7 days
         LocalDate today = LocalDate.now();
+        List<MovieSchedule> newSchedules = new ArrayList<>();
 
         for (int day = 0; day < 7; day++) {
             LocalDate scheduleDate = today.plusDays(day);
@@ -287,33 +226,38 @@ public class SampleDataInitializer {
 
             // Morning show (10:00 AM)
             if (hallArray.length > 0 && movieArray.length > movieIndex1) {
-                createSchedule(
-                        movieArray[movieIndex1].getId(),
-                        hallArray[0].getId(),
-                        scheduleDate,
-                        LocalTime.of(10, 0),
-                        10.00);
+                addIfFree(newSchedules, movieArray[movieIndex1].getId(), hallArray[0].getId(),
+                        LocalDateTime.of(scheduleDate, LocalTime.of(10, 0)), 10.00);
             }
 
             // Afternoon show (2:00 PM)
             if (hallArray.length > 1 && movieArray.length > movieIndex2) {
-                createSchedule(
-                        movieArray[movieIndex2].getId(),
-                        hallArray[1].getId(),
-                        scheduleDate,
-                        LocalTime.of(14, 0),
-                        12.00);
+                addIfFree(newSchedules, movieArray[movieIndex2].getId(), hallArray[1].getId(),
+                        LocalDateTime.of(scheduleDate, LocalTime.of(14, 0)), 12.00);
             }
 
             // Evening show (7:00 PM)
             if (hallArray.length > 2 && movieArray.length > movieIndex3) {
-                createSchedule(
-                        movieArray[movieIndex3].getId(),
-                        hallArray[2].getId(),
-                        scheduleDate,
-                        LocalTime.of(19, 0),
-                        15.00);
+                addIfFree(newSchedules, movieArray[movieIndex3].getId(), hallArray[2].getId(),
+                        LocalDateTime.of(scheduleDate, LocalTime.of(19, 0)), 15.00);
+            }
+        }
+
+        try {
+            List<MovieSchedule> savedSchedules = newSchedules.isEmpty()
+                    ? newSchedules : scheduleService.addSchedules(newSchedules);
+            if (savedSchedules != null) {
+                for (MovieSchedule schedule : savedSchedules) {
+                    System.out.println("Created schedule: Movie ID " + schedule.getMovieId() +
+                            " at " + schedule.getStartTime() + " in Hall ID " + schedule.getHallId() +
+                            " (ID: " + schedule.getId() + ")");
+                }
+            } else {
+                System.out.println("Failed to create sample schedules");
             }
+        } catch (Exception e) {
+            System.out.println("Error creating sample schedules: " + e.getMessage());
+            e.printStackTrace();
         }
 
         // Check if schedules were created successfully
@@ -323,27 +267,22 @@ public class SampleDataInitializer {
     }
 
     /**
-     * Helper method to create a schedule
+     * Helper method to queue a schedule unless its hall is already taken at that time
      */
-    private void createSchedule(int movieId, int hallId, LocalDate date,
-                                LocalTime time, double price) {
-        try {
-            LocalDateTime startTime = LocalDateTime.of(date, time);
-            MovieSchedule schedule = scheduleService.addSchedule(movieId, hallId, startTime, price);
-
-            if (schedule != null) {
-                System.out.println("Created schedule: Movie ID " + movieId +
-                        " at " + startTime + " in Hall ID " + hallId + " (ID: " + schedule.getId() + ")");
-            } else {
-                System.out.println("Failed to create schedule for Movie ID " + movieId +
-                        " at " + startTime + " in Hall ID " + hallId);
-            }
-        } catch (Exception e) {
-            System.out.println("Error creating schedule for Movie ID " + movieId +
-                    " at " + LocalDateTime.of(date, time) + " in Hall ID " + hallId + ": " + e.getMessage());
-            e.printStackTrace();
+    private void addIfFree(List<MovieSchedule> newSchedules, int movieId, int hallId,
+                           LocalDateTime startTime, double price) {
+        Movie movie = movieService.findMovieById(movieId);
+        if (movie == null) {
+            System.out.println("Movie not found, skipping schedule for Movie ID " + movieId);
+            return;
+        }
+        if (!scheduleService.isHallAvailable(hallId, startTime, startTime.plusMinutes(movie.getDuration()), null)) {
+            System.out.println("Hall ID " + hallId + " is not available at " + startTime + ", skipping schedule");
+            return;
         }
+        newSchedules.add(new MovieSchedule(movieId, hallId, startTime, null, price));
     }
+
     /**
      * Get the number of movies in the database
      * @return The number of movies
@@ -0,0 +1,272 @@
+package com.ucinema.util;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Versioned schema changes that hbm2ddl cannot make: extra tables, indexes and partial indexes.
+ * <p>
+ * Tables for the mapped entities come from hbm2ddl (or DatabaseInitializer). Once they exist,
+ * migrate() runs every migration not yet listed in schema_migrations, each in its own
+ * transaction, and records it. New changes are appended to MIGRATIONS with the next version;
+ * a migration that has been released is never edited.
+ */
+public class SchemaMigrator {
+
+    private static final String HISTORY_TABLE_DDL =
+            "CREATE TABLE IF NOT EXISTS schema_migrations (" +
+            "version INTEGER PRIMARY KEY, description TEXT NOT NULL, applied_at TIMESTAMP NOT NULL)";
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "ID generator table",
+                    TableBlockIdGenerator.GENERATOR_TABLE_DDL),
+            new Migration(2, "Indexes for seat, reservation history, hall slot and waitlist lookups",
+                    "CREATE INDEX IF NOT EXISTS ix_reservations_schedule_seat ON reservations (schedule_id, seat_id)",
+                    "CREATE INDEX IF NOT EXISTS ix_reservations_student_status ON reservations (student_id, status)",
+                    "CREATE INDEX IF NOT EXISTS ix_schedules_hall_active_start ON movie_schedules (hall_id, is_active, start_time)",
+                    "CREATE INDEX IF NOT EXISTS ix_schedules_active_start ON movie_schedules (is_active, start_time)",
+                    "CREATE INDEX IF NOT EXISTS ix_waitlist_schedule_status ON waitlist (schedule_id, status, created_at)"),
+            // Fails while the data still holds a double booking; later migrations wait until it is fixed
+            new Migration(3, "At most one active reservation per seat and screening",
+                    "CREATE UNIQUE INDEX IF NOT EXISTS ux_reservations_active_seat " +
+                    "ON reservations (schedule_id, seat_id) WHERE status != 'cancelled'")
+                    .explainFailureWith("Double-booked seats; cancel all but one active reservation of each",
+                            "SELECT 'schedule ' || schedule_id || ', seat ' || seat_id || ': reservations ' || " +
+                            "group_concat(id, ', ') FROM reservations WHERE status != 'cancelled' " +
+                            "GROUP BY schedule_id, seat_id HAVING COUNT(*) > 1 ORDER BY schedule_id, seat_id"),
+            new Migration(4, "Keyset indexes for paging through reservations and schedules",
+                    "CREATE INDEX IF NOT EXISTS ix_reservations_time_id ON reservations (reservation_time, id)",
+                    "CREATE INDEX IF NOT EXISTS ix_reservations_status_time_id ON reservations (status, reservation_time, id)",
+                    "CREATE INDEX IF NOT EXISTS ix_schedules_start_id ON movie_schedules (start_time, id)"),
+            // StudentService looks students up by lower-cased email, so emails must not differ only by case
+            new Migration(5, "Student emails unique regardless of case",
+                    "CREATE UNIQUE INDEX IF NOT EXISTS ux_students_email_nocase ON students (email COLLATE NOCASE)")
+    );
+
+    // Hand-written SQL equivalents of the hot DAO queries, with the same WHERE and ORDER BY
+    // clauses as their HQL, followed by the indexes each may use. Keep them in step with the DAOs.
+    private static final String[][] HOT_QUERIES = {
+            {"ReservationDAO.isSeatReserved",
+                    "SELECT count(*) FROM reservations WHERE schedule_id = ? AND seat_id = ? AND status != 'cancelled'",
+                    "ux_reservations_active_seat", "ix_reservations_schedule_seat"},
+            {"ReservationDAO.getReservedSeats",
+                    "SELECT seat_id FROM reservations WHERE schedule_id = ? AND status != 'cancelled'",
+                    "ux_reservations_active_seat", "ix_reservations_schedule_seat"},
+            {"ReservationDAO.findByStudentId",
+                    "SELECT * FROM reservations WHERE student_id = ? ORDER BY reservation_time DESC",
+                    "ix_reservations_student_status"},
+            {"MovieScheduleDAO.findActiveSchedules",
+                    "SELECT * FROM movie_schedules WHERE start_time >= ? AND is_active = 1 ORDER BY start_time",
+                    "ix_schedules_active_start"},
+            {"MovieScheduleDAO.isHallAvailable",
+                    "SELECT count(*) FROM movie_schedules WHERE hall_id = ? AND is_active = 1 " +
+                    "AND start_time <= ? AND end_time >= ?",
+                    "ix_schedules_hall_active_start"},
+            {"ReservationDAO.findPage",
+                    "SELECT * FROM reservations WHERE (reservation_time, id) < (?, ?) " +
+                    "ORDER BY reservation_time DESC, id DESC LIMIT ?",
+                    "ix_reservations_time_id"},
+            {"ReservationDAO.findPageByStatus",
+                    "SELECT * FROM reservations WHERE status = ? AND (reservation_time, id) < (?, ?) " +
+                    "ORDER BY reservation_time DESC, id DESC LIMIT ?",
+                    "ix_reservations_status_time_id"},
+            {"ReservationDAO.findPageByReservationTimeRange",
+                    "SELECT * FROM reservations WHERE reservation_time >= ? AND reservation_time <= ? " +
+                    "AND (reservation_time, id) < (?, ?) ORDER BY reservation_time DESC, id DESC LIMIT ?",
+                    "ix_reservations_time_id"},
+            {"MovieScheduleDAO.findPage",
+                    "SELECT * FROM movie_schedules WHERE (start_time, id) > (?, ?) ORDER BY start_time, id LIMIT ?",
+                    "ix_schedules_start_id"},
+            // The unique constraint on students.email
+            {"StudentDAO.authenticate",
+                    "SELECT * FROM students WHERE email = ? AND password = ?",
+                    "sqlite_autoindex_students_1"},
+            {"WaitlistDAO.findWaiting",
+                    "SELECT * FROM waitlist WHERE schedule_id = ? AND status = 'waiting' ORDER BY created_at, id",
+                    "ix_waitlist_schedule_status"}
+    };
+
+    /**
+     * One schema version: a description and the statements that make it
+     */
+    private static final class Migration {
+        final int version;
+        final String description;
+        final String[] statements;
+        // Lists the rows that make the migration fail, shown in the error
+        String failureHeading;
+        String failureQuery;
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+        }
+
+        Migration explainFailureWith(String heading, String query) {
+            this.failureHeading = heading;
+            this.failureQuery = query;
+            return this;
+        }
+    }
+
+    /**
+     * Apply the migrations the database does not have yet, in version order.
+     * Stops at the first one that fails, leaving it and everything after it for the next start.
+     * @param connection A connection to the database; its auto-commit setting is restored afterwards
+     * @return The number of migrations applied
+     * @throws SQLException If a migration fails; it has been rolled back
+     */
+    public static int migrate(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        int applied = 0;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(HISTORY_TABLE_DDL);
+
+            Set<Integer> done = new HashSet<>();
+            try (ResultSet versions = statement.executeQuery("SELECT version FROM schema_migrations")) {
+                while (versions.next()) {
+                    done.add(versions.getInt(1));
+                }
+            }
+
+            connection.setAutoCommit(false);
+            for (Migration migration : MIGRATIONS) {
+                if (done.contains(migration.version)) {
+                    continue;
+                }
+                try {
+                    for (String sql : migration.statements) {
+                        statement.execute(sql);
+                    }
+                    // Another process may have applied it at the same time; its statements are idempotent
+                    try (PreparedStatement record = connection.prepareStatement(
+                            "INSERT OR IGNORE INTO schema_migrations (version, description, applied_at) " +
+                            "VALUES (?, ?, CURRENT_TIMESTAMP)")) {
+                        record.setInt(1, migration.version);
+                        record.setString(2, migration.description);
+                        record.executeUpdate();
+                    }
+                    connection.commit();
+                    applied++;
+                    System.out.println("Applied schema migration " + migration.version + ": " + migration.description);
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw new SQLException(failureMessage(connection, migration, done, e), e);
+                }
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return applied;
+    }
+
+    /**
+     * Describe a failed migration: the error, the rows that caused it if the migration can list
+     * them, and the migrations that wait for it
+     */
+    private static String failureMessage(Connection connection, Migration failed, Set<Integer> done, SQLException e) {
+        StringBuilder message = new StringBuilder("Schema migration " + failed.version + " (" +
+                failed.description + ") failed: " + e.getMessage());
+
+        if (failed.failureQuery != null) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery(failed.failureQuery)) {
+                message.append("\n").append(failed.failureHeading).append(":");
+                while (rows.next()) {
+                    message.append("\n  ").append(rows.getString(1));
+                }
+            } catch (SQLException listing) {
+                message.append("\nCould not list the offending rows: ").append(listing.getMessage());
+            }
+        }
+
+        List<String> waiting = new ArrayList<>();
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version > failed.version && !done.contains(migration.version)) {
+                waiting.add(String.valueOf(migration.version));
+            }
+        }
+        if (!waiting.isEmpty()) {
+            message.append("\nMigrations ").append(String.join(", ", waiting))
+                    .append(" are not applied until it succeeds on a later start");
+        }
+        return message.toString();
+    }
+
+    /**
+     * Get the newest schema version applied to the database
+     * @param connection A connection to the database
+     * @return The version, or 0 if no migration has run
+     */
+    public static int currentVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(HISTORY_TABLE_DDL);
+            try (ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_migrations")) {
+                return result.next() ? result.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Check with EXPLAIN QUERY PLAN that every hot query finds its rows through its index
+     * @param connection A connection to the database
+     * @return One line per query that uses none of its indexes, empty if all of them do
+     */
+    public static List<String> checkQueryPlans(Connection connection) throws SQLException {
+        List<String> problems = new ArrayList<>();
+        for (String[] query : HOT_QUERIES) {
+            String plan = explain(connection, query[1]);
+            boolean indexed = false;
+            for (int i = 2; i < query.length && !indexed; i++) {
+                indexed = plan.contains("INDEX " + query[i] + " ");
+            }
+            if (!indexed) {
+                problems.add(query[0] + " does not use " + query[2] + ": " + plan);
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Get the query plan of a statement
+     * @param connection A connection to the database
+     * @param sql The statement, with unbound parameters
+     * @return The plan steps, separated by "; "
+     */
+    public static String explain(Connection connection, String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet steps = statement.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+            while (steps.next()) {
+                if (plan.length() > 0) {
+                    plan.append("; ");
+                }
+                plan.append(steps.getString("detail"));
+            }
+        }
+        return plan.toString();
+    }
+
+    /**
+     * Print the plan of every hot query against a database
+     * @param args The database file, university_cinema.db if not given
+     */
+    public static void main(String[] args) throws SQLException {
+        String file = args.length > 0 ? args[0] : "university_cinema.db";
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file)) {
+            System.out.println("Schema version " + currentVersion(connection));
+            for (String[] query : HOT_QUERIES) {
+                System.out.println(query[0] + ": " + explain(connection, query[1]));
+            }
+        }
+    }
+}
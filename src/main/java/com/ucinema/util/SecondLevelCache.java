@@ -0,0 +1,134 @@
+package com.ucinema.util;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.Environment;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Hibernate's second-level cache, kept in process by Ehcache through JCache. It holds movies,
+ * halls and schedules, which change a few times a semester, and the results of cacheable queries.
+ * <p>
+ * Entities changed through Hibernate are updated in the cache when the transaction commits, and
+ * every cached query over a changed table is dropped. Rows written behind Hibernate's back (plain
+ * JDBC, another process) are only picked up after evictAll() or when the entries expire.
+ */
+public class SecondLevelCache {
+    // Persistence profile keys (see persistence.properties)
+    public static final String ENABLED_PROPERTY = "ucinema.cache.enabled";
+    public static final String ENTITY_SIZE_PROPERTY = "ucinema.cache.entity.size";
+    public static final String QUERY_SIZE_PROPERTY = "ucinema.cache.query.size";
+    public static final String TTL_MINUTES_PROPERTY = "ucinema.cache.ttl.minutes";
+
+    // Region names; they must match the @Cache annotations on the entities
+    public static final String MOVIE_REGION = "movies";
+    public static final String HALL_REGION = "halls";
+    public static final String SCHEDULE_REGION = "movie_schedules";
+
+    private static final String[] ENTITY_REGIONS = {MOVIE_REGION, HALL_REGION, SCHEDULE_REGION};
+
+    private SecondLevelCache() {
+    }
+
+    /**
+     * Turn the cache on in the Hibernate settings if the profile enables it
+     * @param settings The Hibernate settings being built
+     * @param persistence The persistence settings
+     * @return The cache manager the caches live in, or null if the cache is off
+     */
+    static CacheManager configure(Properties settings, PersistenceSettings persistence) {
+        if (!Boolean.parseBoolean(persistence.get(ENABLED_PROPERTY, "true"))) {
+            settings.put(Environment.USE_SECOND_LEVEL_CACHE, "false");
+            settings.put(Environment.USE_QUERY_CACHE, "false");
+            return null;
+        }
+
+        CacheManager cacheManager = createCacheManager(persistence);
+        settings.put(Environment.USE_SECOND_LEVEL_CACHE, "true");
+        settings.put(Environment.USE_QUERY_CACHE, "true");
+        settings.put(Environment.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+        settings.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        settings.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        settings.put(Environment.GENERATE_STATISTICS, "true");
+        return cacheManager;
+    }
+
+    /**
+     * Create one bounded heap cache per region
+     * @param persistence The persistence settings
+     * @return The cache manager
+     */
+    private static CacheManager createCacheManager(PersistenceSettings persistence) {
+        int entitySize = persistence.getInt(ENTITY_SIZE_PROPERTY, 10000);
+        int querySize = persistence.getInt(QUERY_SIZE_PROPERTY, 200);
+        Duration ttl = Duration.ofMinutes(persistence.getInt(TTL_MINUTES_PROPERTY, 60));
+
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager();
+
+        for (String region : ENTITY_REGIONS) {
+            cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(
+                    CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                                    ResourcePoolsBuilder.heap(entitySize))
+                            .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl))));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                Eh107Configuration.fromEhcacheCacheConfiguration(
+                        CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                                        ResourcePoolsBuilder.heap(querySize))
+                                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl))));
+        // Hibernate needs the last change time of every table it has seen; these must never be evicted
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                Eh107Configuration.fromEhcacheCacheConfiguration(
+                        CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                                ResourcePoolsBuilder.heap(Long.MAX_VALUE))));
+        return cacheManager;
+    }
+
+    /**
+     * Drop everything cached, e.g. after rows were changed with plain JDBC
+     */
+    public static void evictAll() {
+        SessionFactory factory = HibernateUtil.getSessionFactory();
+        if (factory != null) {
+            factory.getCache().evictAll();
+        }
+    }
+
+    /**
+     * Describe the hits and misses of each region since the session factory was built
+     * @return One line per region, or a note that the cache is off
+     */
+    public static String getStatistics() {
+        SessionFactory factory = HibernateUtil.getSessionFactory();
+        Statistics statistics = factory == null ? null : factory.getStatistics();
+        if (statistics == null || !statistics.isStatisticsEnabled()) {
+            return "second-level cache off";
+        }
+
+        StringBuilder summary = new StringBuilder();
+        for (String region : ENTITY_REGIONS) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            summary.append(String.format("%s: %d hits, %d misses, %d puts%n", region,
+                    regionStatistics.getHitCount(), regionStatistics.getMissCount(),
+                    regionStatistics.getPutCount()));
+        }
+        summary.append(String.format("queries: %d hits, %d misses, %d puts",
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount()));
+        return summary.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package com.ucinema.util;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Hands out entity IDs from blocks reserved in the id_generators table. Hibernate knows the ID
+ * before the row is inserted, so inserts can be sent in JDBC batches, which IDENTITY columns prevent.
+ * <p>
+ * The block is reserved on the session's own connection, inside its transaction. Hibernate's table
+ * generator takes a second connection for this, which never comes from a one-connection write pool,
+ * and SQLite would make it wait for the write lock the session already holds anyway.
+ * Because the reservation commits or rolls back with the session's transaction, a block whose
+ * transaction rolls back is dropped from memory too: the table no longer records it, so another
+ * process could reserve the same IDs. Every block starts above the entity table's highest ID,
+ * so rows inserted with plain JDBC are skipped.
+ * <p>
+ * Mapped with {@code @GenericGenerator(strategy = "com.ucinema.util.TableBlockIdGenerator")}.
+ */
+public class TableBlockIdGenerator implements IdentifierGenerator {
+    public static final String BLOCK_SIZE_PARAMETER = "block_size";
+    public static final int DEFAULT_BLOCK_SIZE = 50;
+
+    static final String GENERATOR_TABLE_DDL =
+            "CREATE TABLE IF NOT EXISTS id_generators (entity TEXT PRIMARY KEY, next_id INTEGER NOT NULL)";
+
+    private String table;
+    private int blockSize;
+    private long nextId;
+    private long blockEnd;
+    // Counts reserved blocks, so a rollback only drops the block its own transaction reserved
+    private long blockNumber;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+        table = params.getProperty(PersistentIdentifierGenerator.TABLE);
+        blockSize = ConfigurationHelper.getInt(BLOCK_SIZE_PARAMETER, params, DEFAULT_BLOCK_SIZE);
+    }
+
+    @Override
+    public synchronized Object generate(SharedSessionContractImplementor session, Object object) {
+        if (nextId >= blockEnd) {
+            reserveBlock(session);
+        }
+        return (int) nextId++;
+    }
+
+    /**
+     * Move the table's next_id past one more block and take the IDs below it
+     * @param session The session that needs the ID
+     */
+    private void reserveBlock(SharedSessionContractImplementor session) {
+        Connection connection = session.getJdbcCoordinator().getLogicalConnection().getPhysicalConnection();
+        // "WHERE true" keeps SQLite from reading ON CONFLICT as part of the SELECT
+        String reserve = "INSERT INTO id_generators (entity, next_id) " +
+                "SELECT ?, COALESCE(MAX(id), 0) + 1 + ? FROM " + table + " WHERE true " +
+                "ON CONFLICT(entity) DO UPDATE SET next_id = MAX(next_id + ?, excluded.next_id)";
+        try (PreparedStatement update = connection.prepareStatement(reserve);
+             PreparedStatement query = connection.prepareStatement(
+                     "SELECT next_id FROM id_generators WHERE entity = ?")) {
+            update.setString(1, table);
+            update.setInt(2, blockSize);
+            update.setInt(3, blockSize);
+            update.executeUpdate();
+
+            query.setString(1, table);
+            try (ResultSet result = query.executeQuery()) {
+                result.next();
+                blockEnd = result.getLong(1);
+                nextId = blockEnd - blockSize;
+            }
+        } catch (SQLException e) {
+            throw new HibernateException("Could not reserve IDs for " + table, e);
+        }
+
+        long reserved = ++blockNumber;
+        if (session instanceof SessionImplementor) {
+            ((SessionImplementor) session).getActionQueue().registerProcess(
+                    (success, completed) -> blockCompleted(reserved, success));
+        }
+    }
+
+    /**
+     * Drop the current block if the transaction that reserved it did not commit
+     * @param reserved The number of the block the transaction reserved
+     * @param committed True if the transaction committed
+     */
+    private synchronized void blockCompleted(long reserved, boolean committed) {
+        if (!committed && reserved == blockNumber) {
+            nextId = blockEnd;
+        }
+    }
+}
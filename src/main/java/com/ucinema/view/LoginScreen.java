@@ -2,6 +2,7 @@ package com.ucinema.view;
 
 import com.ucinema.model.entities.Student;
 import com.ucinema.service.StudentService;
+import com.ucinema.util.ApplicationContext;
 import com.ucinema.view.admin.AdminDashboard;
 import com.ucinema.view.student.StudentDashboard;
 
@@ -40,7 +41,7 @@ public class LoginScreen {
      */
     public LoginScreen(Stage stage) {
         this.stage = stage;
-        this.studentService = new StudentService();
+        this.studentService = ApplicationContext.getInstance().getStudentService();
     }
 
     /**
@@ -2,6 +2,7 @@ package com.ucinema.view;
 
 import com.ucinema.model.entities.Student;
 import com.ucinema.service.StudentService;
+import com.ucinema.util.ApplicationContext;
 
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -33,7 +34,7 @@ public class RegisterScreen {
      */
     public RegisterScreen(Stage stage) {
         this.stage = stage;
-        this.studentService = new StudentService();
+        this.studentService = ApplicationContext.getInstance().getStudentService();
     }
 
     /**
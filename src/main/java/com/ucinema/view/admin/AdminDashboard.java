@@ -8,6 +8,7 @@ import com.ucinema.service.HallService;
 import com.ucinema.service.MovieScheduleService;
 import com.ucinema.service.MovieService;
 import com.ucinema.service.StudentService;
+import com.ucinema.util.ApplicationContext;
 import com.ucinema.view.LoginScreen;
 
 import javafx.collections.FXCollections;
@@ -40,6 +41,9 @@ import java.util.List;
  */
 public class AdminDashboard {
 
+    // Rows fetched per page in the schedule and student lists, which grow without bound
+    private static final int PAGE_SIZE = 100;
+
     private final Stage stage;
     private final StudentService studentService;
     private final MovieService movieService;
@@ -52,10 +56,11 @@ public class AdminDashboard {
      */
     public AdminDashboard(Stage stage) {
         this.stage = stage;
-        this.studentService = new StudentService();
-        this.movieService = new MovieService();
-        this.hallService = new HallService();
-        this.scheduleService = new MovieScheduleService();
+        ApplicationContext context = ApplicationContext.getInstance();
+        this.studentService = context.getStudentService();
+        this.movieService = context.getMovieService();
+        this.hallService = context.getHallService();
+        this.scheduleService = context.getScheduleService();
     }
 
     /**
@@ -340,10 +345,10 @@ public class AdminDashboard {
 
         buttonBox.getChildren().addAll(addButton, editButton, deleteButton, viewBookingsButton);
 
-        // Load schedules
-        List<MovieSchedule> schedules = scheduleService.getAllSchedules();
-        ObservableList<MovieSchedule> scheduleList = FXCollections.observableArrayList(schedules);
-        scheduleListView.setItems(scheduleList);
+        // Load schedules a page at a time
+        PagedList<MovieSchedule> schedulePages = new PagedList<>(scheduleService::getSchedulePage, PAGE_SIZE);
+        schedulePages.bind(scheduleListView);
+        ObservableList<MovieSchedule> scheduleList = schedulePages.getItems();
 
         // Set actions
         scheduleListView.getSelectionModel().selectedItemProperty().addListener(
@@ -432,10 +437,10 @@ public class AdminDashboard {
 
         buttonBox.getChildren().addAll(viewButton, viewReservationsButton);
 
-        // Load students
-        List<Student> students = studentService.getAllStudents();
-        ObservableList<Student> studentList = FXCollections.observableArrayList(students);
-        studentListView.setItems(studentList);
+        // Load students a page at a time
+        PagedList<Student> studentPages = new PagedList<>(studentService::getStudentPage, PAGE_SIZE);
+        studentPages.bind(studentListView);
+        ObservableList<Student> studentList = studentPages.getItems();
 
         // Set actions
         studentListView.getSelectionModel().selectedItemProperty().addListener(
@@ -2,6 +2,7 @@ package com.ucinema.view.admin;
 
 import com.ucinema.model.entities.Hall;
 import com.ucinema.service.HallService;
+import com.ucinema.util.ApplicationContext;
 
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -41,7 +42,7 @@ public class HallFormScreen {
     public HallFormScreen(Stage parentStage, Hall hallToEdit, AdminDashboard dashboard) {
         this.hallToEdit = hallToEdit;
         this.dashboard = dashboard;
-        this.hallService = new HallService();
+        this.hallService = ApplicationContext.getInstance().getHallService();
 
         // Create a new modal stage
         this.stage = new Stage();
@@ -2,6 +2,7 @@ package com.ucinema.view.admin;
 
 import com.ucinema.model.entities.Movie;
 import com.ucinema.service.MovieService;
+import com.ucinema.util.ApplicationContext;
 
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -42,7 +43,7 @@ public class MovieFormScreen {
     public MovieFormScreen(Stage parentStage, Movie movieToEdit, AdminDashboard dashboard) {
         this.movieToEdit = movieToEdit;
         this.dashboard = dashboard;
-        this.movieService = new MovieService();
+        this.movieService = ApplicationContext.getInstance().getMovieService();
 
         // Create a new modal stage
         this.stage = new Stage();
@@ -0,0 +1,131 @@
+package com.ucinema.view.admin;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+
+import java.util.List;
+
+/**
+ * The items of a ListView, fetched one page at a time as the user scrolls.
+ * <p>
+ * Pages come from a keyset query: each one is asked for with the last item of the page before,
+ * so loading the next page costs the same however long the table is. A page is only fetched
+ * when the last loaded item is shown, so a list that is never scrolled holds one page.
+ * @param <T> The item type
+ */
+public class PagedList<T> {
+
+    /**
+     * Fetches the page that follows an item
+     * @param <T> The item type
+     */
+    public interface PageLoader<T> {
+        /**
+         * @param after The last item of the previous page, or null for the first page
+         * @param limit The maximum number of items to return
+         * @return The next items in list order, or null if they could not be loaded
+         */
+        List<T> load(T after, int limit);
+    }
+
+    private final ObservableList<T> items = FXCollections.observableArrayList();
+    private final PageLoader<T> loader;
+    private final int pageSize;
+
+    // Kept apart from the items, which the dashboard edits when an item is deleted
+    private T lastLoaded;
+    private boolean exhausted;
+    private boolean loadScheduled;
+
+    /**
+     * Constructor
+     * @param loader Fetches each page
+     * @param pageSize Items per page
+     */
+    public PagedList(PageLoader<T> loader, int pageSize) {
+        this.loader = loader;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Get the items loaded so far
+     * @return The observable list of loaded items
+     */
+    public ObservableList<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Check whether there may be more items to load
+     * @return False once a page came back short or failed to load
+     */
+    public boolean hasMore() {
+        return !exhausted;
+    }
+
+    /**
+     * Fetch the next page and append it to the items
+     * @return The number of items added
+     */
+    public int loadNextPage() {
+        if (exhausted) {
+            return 0;
+        }
+
+        List<T> page = loader.load(lastLoaded, pageSize);
+        if (page == null) {
+            // The error has been printed; stop rather than retry on every scroll
+            exhausted = true;
+            return 0;
+        }
+        if (page.size() < pageSize) {
+            exhausted = true;
+        }
+        if (!page.isEmpty()) {
+            lastLoaded = page.get(page.size() - 1);
+            items.addAll(page);
+        }
+        return page.size();
+    }
+
+    /**
+     * Show the items in a list view, loading the first page if nothing is loaded yet
+     * and the next page whenever the last loaded item comes into view
+     * @param listView The list view
+     */
+    public void bind(ListView<T> listView) {
+        if (items.isEmpty()) {
+            loadNextPage();
+        }
+        listView.setItems(items);
+        listView.setCellFactory(view -> new ListCell<>() {
+            @Override
+            protected void updateItem(T item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : item.toString());
+
+                // The list view may be showing other items, such as search results
+                if (!empty && getListView().getItems() == items && getIndex() == items.size() - 1) {
+                    scheduleNextPage();
+                }
+            }
+        });
+    }
+
+    /**
+     * Load the next page after the current layout pass, which must not change the items
+     */
+    private void scheduleNextPage() {
+        if (exhausted || loadScheduled) {
+            return;
+        }
+        loadScheduled = true;
+        Platform.runLater(() -> {
+            loadScheduled = false;
+            loadNextPage();
+        });
+    }
+}
@@ -6,6 +6,7 @@ import com.ucinema.model.entities.MovieSchedule;
 import com.ucinema.service.HallService;
 import com.ucinema.service.MovieScheduleService;
 import com.ucinema.service.MovieService;
+import com.ucinema.util.ApplicationContext;
 
 import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
@@ -56,9 +57,10 @@ public class ScheduleFormScreen {
     public ScheduleFormScreen(Stage parentStage, MovieSchedule scheduleToEdit, AdminDashboard dashboard) {
         this.scheduleToEdit = scheduleToEdit;
         this.dashboard = dashboard;
-        this.scheduleService = new MovieScheduleService();
-        this.movieService = new MovieService();
-        this.hallService = new HallService();
+        ApplicationContext context = ApplicationContext.getInstance();
+        this.scheduleService = context.getScheduleService();
+        this.movieService = context.getMovieService();
+        this.hallService = context.getHallService();
 
         // Create a new modal stage
         this.stage = new Stage();
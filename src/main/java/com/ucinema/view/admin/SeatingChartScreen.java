@@ -3,6 +3,7 @@ package com.ucinema.view.admin;
 import com.ucinema.model.datastructures.HallGraph;
 import com.ucinema.model.entities.Hall;
 import com.ucinema.service.HallService;
+import com.ucinema.util.ApplicationContext;
 
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -40,7 +41,7 @@ public class SeatingChartScreen {
      */
     public SeatingChartScreen(Stage parentStage, Hall hall) {
         this.hall = hall;
-        this.hallService = new HallService();
+        this.hallService = ApplicationContext.getInstance().getHallService();
 
         // Create a new modal stage
         this.stage = new Stage();
@@ -175,12 +176,6 @@ public class SeatingChartScreen {
                     seatButton.setStyle("-fx-background-color: #99cc99;"); // Green for standard
             }
 
-            // Add reserved status indicator
-            if (seat.isReserved()) {
-                seatButton.setStyle(seatButton.getStyle() + "; -fx-opacity: 0.5;");
-                seatButton.setText(seat.getId() + " (X)");
-            }
-
             seatButton.setOnAction(e -> showSeatDetails(seat));
 
             seatingGrid.add(seatButton, seat.getColumn() + 1, seat.getRow() + 2); // +1 for row label, +2 for screen
@@ -245,14 +240,11 @@ public class SeatingChartScreen {
      * @param seat The seat
      */
     private void showSeatDetails(HallGraph.Seat seat) {
-        String status = seat.isReserved() ? "Reserved" : "Available";
-
         showInfoAlert("Seat Details",
                 "Seat ID: " + seat.getId() + "\n" +
                         "Type: " + seat.getType() + "\n" +
                         "Row: " + (seat.getRow() + 1) + "\n" +
-                        "Column: " + (seat.getColumn() + 1) + "\n" +
-                        "Status: " + status);
+                        "Column: " + (seat.getColumn() + 1));
     }
 
     /**
@@ -7,6 +7,7 @@ import com.ucinema.model.entities.Hall;
 import com.ucinema.service.MovieScheduleService;
 import com.ucinema.service.ReservationService;
 import com.ucinema.service.HallService;
+import com.ucinema.util.ApplicationContext;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -53,9 +54,10 @@ public class MovieScheduleScreen {
         this.student = student;
         this.movie = movie;
         this.stage = parentStage; // Use the parentStage instead of creating a new one
-        this.scheduleService = new MovieScheduleService();
-        this.reservationService = new ReservationService();
-        this.hallService = new HallService();
+        ApplicationContext context = ApplicationContext.getInstance();
+        this.scheduleService = context.getScheduleService();
+        this.reservationService = context.getReservationService();
+        this.hallService = context.getHallService();
     }
 
     /**
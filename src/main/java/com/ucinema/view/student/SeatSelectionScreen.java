@@ -1,14 +1,17 @@
 package com.ucinema.view.student;
 
 import com.ucinema.model.datastructures.HallGraph;
+import com.ucinema.model.datastructures.SeatOccupancy;
 import com.ucinema.model.entities.Hall;
 import com.ucinema.model.entities.Movie;
 import com.ucinema.model.entities.MovieSchedule;
 import com.ucinema.model.entities.Reservation;
 import com.ucinema.model.entities.Student;
+import com.ucinema.model.entities.WaitlistEntry;
 import com.ucinema.service.HallService;
 import com.ucinema.service.MovieService;
 import com.ucinema.service.ReservationService;
+import com.ucinema.util.ApplicationContext;
 
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -18,6 +21,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Spinner;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
@@ -31,10 +35,15 @@ import javafx.scene.text.Text;
 import javafx.stage.Stage;
 
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Screen for selecting seats for a movie reservation.
+ * Several seats can be selected and are booked together as one group.
  */
 public class SeatSelectionScreen {
 
@@ -45,7 +54,7 @@ public class SeatSelectionScreen {
     private final HallService hallService;
     private final MovieService movieService;
     private final ReservationService reservationService;
-    private String selectedSeatId = null;
+    private final Set<String> selectedSeatIds = new LinkedHashSet<>();
     private Text selectedSeatText; // Add this field to track the selected seat text element
     private Button confirmButton; // Add this field to track the confirm button
 
@@ -60,18 +69,16 @@ public class SeatSelectionScreen {
         this.student = student;
         this.schedule = schedule;
         this.stage = new Stage();
-        this.hallService = new HallService();
-        this.movieService = new MovieService();
-        this.reservationService = new ReservationService();
+        ApplicationContext context = ApplicationContext.getInstance();
+        this.hallService = context.getHallService();
+        this.movieService = context.getMovieService();
+        this.reservationService = context.getReservationService();
     }
 
     /**
      * Display the seat selection screen
      */
     public void show() {
-        // Force hall refresh to ensure we have all seats
-        hallService.refreshAllHallSeats();
-
         // Get movie and hall information
         Movie movie = movieService.findMovieById(schedule.getMovieId());
         Hall hall = hallService.findHallById(schedule.getHallId());
@@ -84,6 +91,9 @@ public class SeatSelectionScreen {
         // Set the stage title
         stage.setTitle("Select Seat for " + movie.getTitle());
 
+        // Give up the held seats if the window is closed without booking
+        stage.setOnHidden(e -> releaseSelectedSeats());
+
         // Create a border pane as the root
         BorderPane root = new BorderPane();
 
@@ -161,9 +171,12 @@ public class SeatSelectionScreen {
         List<HallGraph.Seat> seats = hallService.getSeatsInHall(hall.getId());
         System.out.println("Found " + seats.size() + " seats for hall ID " + hall.getId());
 
-        // Get reserved seats for this schedule
-        List<String> reservedSeats = reservationService.getReservedSeats(schedule.getId());
-        System.out.println("Found " + (reservedSeats != null ? reservedSeats.size() : 0) + " reserved seats for schedule ID " + schedule.getId());
+        // Get seat occupancy for this schedule
+        SeatOccupancy occupancy = reservationService.getSeatOccupancy(schedule.getId());
+        System.out.println("Found " + (occupancy != null ? occupancy.getReservedCount() : 0) + " reserved seats for schedule ID " + schedule.getId());
+
+        // Seats other students are currently choosing
+        Map<String, Integer> heldSeats = reservationService.getHeldSeats(schedule.getId());
 
         // Create grid pane for seats
         GridPane seatingGrid = new GridPane();
@@ -186,8 +199,9 @@ public class SeatSelectionScreen {
             // Force generation of seats
             hallService.refreshAllHallSeats();
 
-            // Get seats again after generation
+            // Get seats and occupancy again after generation
             seats = hallService.getSeatsInHall(hall.getId());
+            occupancy = reservationService.getSeatOccupancy(schedule.getId());
             System.out.println("After generation: Found " + seats.size() + " seats for hall ID " + hall.getId());
 
             if (seats.isEmpty()) {
@@ -245,11 +259,18 @@ public class SeatSelectionScreen {
             seatButton.setPrefSize(seatWidth, seatWidth);
 
             // Check if seat is reserved
-            boolean isReserved = reservedSeats != null && reservedSeats.contains(seat.getId());
+            boolean isReserved = occupancy != null && seat.getOrdinal() < occupancy.getSeatCount()
+                    && occupancy.isReserved(seat.getOrdinal());
+
+            Integer holder = heldSeats.get(seat.getId());
+            boolean isHeldByOther = holder != null && holder != student.getId();
 
             if (isReserved) {
                 seatButton.setStyle("-fx-background-color: #ff6666;"); // Red for reserved
                 seatButton.setDisable(true);
+            } else if (isHeldByOther) {
+                seatButton.setStyle("-fx-background-color: #ff9933;"); // Orange for held by someone else
+                seatButton.setDisable(true);
             } else {
                 // Set color based on seat type
                 switch (seat.getType()) {
@@ -300,6 +321,7 @@ public class SeatSelectionScreen {
         createLegendItem(legend, "#ffcc66", "Premium");
         createLegendItem(legend, "#99ccff", "Accessible");
         createLegendItem(legend, "#ff6666", "Reserved");
+        createLegendItem(legend, "#ff9933", "Held");
         createLegendItem(legend, "#6666ff", "Selected");
 
         // Selected seat info
@@ -307,7 +329,7 @@ public class SeatSelectionScreen {
         selectionBox.setAlignment(Pos.CENTER);
         selectionBox.setPadding(new Insets(10, 0, 10, 0));
 
-        Label selectionLabel = new Label("Selected Seat:");
+        Label selectionLabel = new Label("Selected Seats:");
         selectionLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
 
         // Store this reference so we can update it later
@@ -326,8 +348,8 @@ public class SeatSelectionScreen {
         confirmButton.setStyle("-fx-background-color: #00309c; -fx-text-fill: white; -fx-font-size: 14px;");
         confirmButton.setDisable(true);
         confirmButton.setOnAction(e -> {
-            if (selectedSeatId != null) {
-                makeReservation(selectedSeatId);
+            if (!selectedSeatIds.isEmpty()) {
+                makeReservation(new ArrayList<>(selectedSeatIds));
             }
         });
 
@@ -339,9 +361,81 @@ public class SeatSelectionScreen {
         // Add everything to the panel
         panel.getChildren().addAll(legend, selectionBox, buttonBox);
 
+        // Offer the waitlist when too few seats are left for some party size
+        SeatOccupancy occupancy = reservationService.getSeatOccupancy(schedule.getId());
+        if (occupancy != null) {
+            HBox waitlistBox = createWaitlistBox(occupancy.getAvailableCount());
+            if (waitlistBox != null) {
+                panel.getChildren().add(waitlistBox);
+            }
+        }
+
         return panel;
     }
 
+    /**
+     * Create the waitlist controls for a screening with too few free seats for a party
+     * @param available Number of free seats
+     * @return HBox with the student's waitlist position or a button to join, or null if every
+     *         party size still fits and the student is not waiting
+     */
+    private HBox createWaitlistBox(int available) {
+        HBox waitlistBox = new HBox(10);
+        waitlistBox.setAlignment(Pos.CENTER);
+
+        int position = reservationService.getWaitlistPosition(student.getId(), schedule.getId());
+        if (position > 0) {
+            Label positionLabel = new Label("You are #" + position + " on the waitlist");
+            positionLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+
+            Button leaveButton = new Button("Leave Waitlist");
+            leaveButton.setOnAction(e -> {
+                if (reservationService.leaveWaitlist(student.getId(), schedule.getId())) {
+                    showSuccessAlert("Waitlist", "You have left the waitlist");
+                    stage.close();
+                } else {
+                    showErrorAlert("Waitlist", "Failed to leave the waitlist. Please try again.");
+                }
+            });
+
+            waitlistBox.getChildren().addAll(positionLabel, leaveButton);
+            return waitlistBox;
+        }
+
+        if (available >= ReservationService.MAX_GROUP_SIZE) {
+            return null;
+        }
+
+        // Only parties larger than the free seats can wait
+        Label soldOutLabel = new Label(available == 0 ? "Sold out. Party size:"
+                : "Only " + available + " seat(s) left. Party size:");
+        soldOutLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+
+        Spinner<Integer> partySize = new Spinner<>(available + 1, ReservationService.MAX_GROUP_SIZE, available + 1);
+        partySize.setPrefWidth(70);
+
+        Button joinButton = new Button("Join Waitlist");
+        joinButton.setStyle("-fx-background-color: #00309c; -fx-text-fill: white; -fx-font-size: 14px;");
+        joinButton.setOnAction(e -> {
+            try {
+                WaitlistEntry entry = reservationService.joinWaitlist(student.getId(), schedule.getId(), partySize.getValue());
+                if (entry != null) {
+                    int place = reservationService.getWaitlistPosition(student.getId(), schedule.getId());
+                    showSuccessAlert("Waitlist", "You are #" + place + " on the waitlist. Seats will be reserved " +
+                            "for you automatically when they become available.");
+                    stage.close();
+                } else {
+                    showErrorAlert("Waitlist", "Failed to join the waitlist. Please try again.");
+                }
+            } catch (Exception ex) {
+                showErrorAlert("Waitlist", ex.getMessage());
+            }
+        });
+
+        waitlistBox.getChildren().addAll(soldOutLabel, partySize, joinButton);
+        return waitlistBox;
+    }
+
     /**
      * Create a legend item
      * @param container The container to add the legend item to
@@ -362,31 +456,60 @@ public class SeatSelectionScreen {
     }
 
     /**
-     * Handle seat selection
+     * Handle seat selection; clicking a selected seat deselects it
      * @param seatButton The clicked seat button
-     * @param seatId The ID of the selected seat
+     * @param seatId The ID of the clicked seat
      */
     private void handleSeatSelection(Button seatButton, String seatId) {
-        // Reset previously selected seat if any
-        if (selectedSeatId != null) {
-            resetSeatButton(selectedSeatId);
+        if (selectedSeatIds.remove(seatId)) {
+            reservationService.releaseSeatHold(student.getId(), schedule.getId(), seatId);
+            resetSeatButton(seatId);
+            updateSelectionSummary();
+            System.out.println("Deselected seat: " + seatId);
+            return;
         }
 
-        // Set new selection
-        selectedSeatId = seatId;
+        if (selectedSeatIds.size() >= ReservationService.MAX_GROUP_SIZE) {
+            showErrorAlert("Too Many Seats", "You can reserve at most " + ReservationService.MAX_GROUP_SIZE +
+                    " seats at once.");
+            return;
+        }
+
+        // Hold the seat so nobody else can take it while the student decides
+        if (!reservationService.holdSeat(student.getId(), schedule.getId(), seatId)) {
+            seatButton.setStyle("-fx-background-color: #ff9933;");
+            seatButton.setDisable(true);
+            showErrorAlert("Seat Unavailable", "Another student is choosing seat " + seatId + " right now.");
+            return;
+        }
+
+        selectedSeatIds.add(seatId);
         seatButton.setStyle("-fx-background-color: #6666ff;"); // Blue for selected
+        updateSelectionSummary();
+
+        System.out.println("Selected seat: " + seatId);
+    }
 
-        // Update the selected seat text
+    /**
+     * Show the selected seats and enable the confirm button when there are any
+     */
+    private void updateSelectionSummary() {
         if (selectedSeatText != null) {
-            selectedSeatText.setText(seatId);
+            selectedSeatText.setText(selectedSeatIds.isEmpty() ? "None" : String.join(", ", selectedSeatIds));
         }
-
-        // Enable the confirm button
         if (confirmButton != null) {
-            confirmButton.setDisable(false);
+            confirmButton.setDisable(selectedSeatIds.isEmpty());
         }
+    }
 
-        System.out.println("Selected seat: " + seatId);
+    /**
+     * Release the holds on all selected seats
+     */
+    private void releaseSelectedSeats() {
+        for (String seatId : selectedSeatIds) {
+            reservationService.releaseSeatHold(student.getId(), schedule.getId(), seatId);
+        }
+        selectedSeatIds.clear();
     }
 
     /**
@@ -403,7 +526,7 @@ public class SeatSelectionScreen {
                 Button button = (Button) node;
                 if (button.getText().equals(seatId)) {
                     // Set color based on seat type
-                    HallGraph.Seat seat = hallService.getSeat(seatId);
+                    HallGraph.Seat seat = hallService.getSeat(schedule.getHallId(), seatId);
                     if (seat != null) {
                         switch (seat.getType()) {
                             case "premium":
@@ -423,16 +546,15 @@ public class SeatSelectionScreen {
     }
 
     /**
-     * Make a reservation
-     * @param seatId The ID of the selected seat
+     * Reserve the selected seats: a single seat through the group-commit writer, several seats as one group
+     * @param seatIds The IDs of the selected seats
      */
-    private void makeReservation(String seatId) {
+    private void makeReservation(List<String> seatIds) {
+        BorderPane root = (BorderPane) stage.getScene().getRoot();
         try {
-            System.out.println("Attempting to make reservation for seat: " + seatId);
+            System.out.println("Attempting to make reservation for seats: " + seatIds);
 
             // Show a loading indicator
-            BorderPane root = (BorderPane) stage.getScene().getRoot();
-
             StackPane loadingPane = new StackPane();
             loadingPane.setStyle("-fx-background-color: rgba(0,0,0,0.5);");
 
@@ -451,28 +573,48 @@ public class SeatSelectionScreen {
             // Add loading overlay
             root.setCenter(loadingPane);
 
-            // Create the reservation
-            Reservation reservation = reservationService.makeReservation(student.getId(), schedule.getId(), seatId);
+            // Create the reservations
+            List<Reservation> reservations;
+            if (seatIds.size() == 1) {
+                Reservation reservation = reservationService.makeReservation(
+                        student.getId(), schedule.getId(), seatIds.get(0));
+                reservations = reservation != null ? List.of(reservation) : null;
+            } else {
+                reservations = reservationService.makeGroupReservation(student.getId(), schedule.getId(), seatIds);
+            }
 
-            if (reservation != null) {
-                System.out.println("Reservation created successfully");
-                showSuccessAlert("Reservation Successful", "Your seat has been reserved successfully");
+            if (reservations != null) {
+                System.out.println("Reservation created successfully for " + reservations.size() + " seats");
+                selectedSeatIds.clear(); // The holds were converted into reservations
+                showSuccessAlert("Reservation Successful", reservations.size() == 1
+                        ? "Your seat has been reserved successfully"
+                        : "Your " + reservations.size() + " seats have been reserved successfully");
 
                 // Close this stage only
                 stage.close();
             } else {
                 // If reservation failed, restore the seating chart
-                ScrollPane content = createSeatingChart(hallService.findHallById(schedule.getHallId()));
-                root.setCenter(content);
+                restoreSeatingChart(root);
 
                 showErrorAlert("Reservation Failed", "Failed to make reservation. Please try again.");
             }
         } catch (Exception e) {
             e.printStackTrace();
+            restoreSeatingChart(root);
             showErrorAlert("Reservation Error", e.getMessage());
         }
     }
 
+    /**
+     * Clear the selection and redraw the seating chart with the latest reservations
+     * @param root The root pane of the screen
+     */
+    private void restoreSeatingChart(BorderPane root) {
+        releaseSelectedSeats();
+        updateSelectionSummary();
+        root.setCenter(createSeatingChart(hallService.findHallById(schedule.getHallId())));
+    }
+
     /**
      * Show a success alert
      * @param title Alert title
@@ -1,13 +1,11 @@
 package com.ucinema.view.student;
 
+import com.ucinema.model.ReservationRow;
 import com.ucinema.model.entities.Movie;
-import com.ucinema.model.entities.MovieSchedule;
-import com.ucinema.model.entities.Reservation;
 import com.ucinema.model.entities.Student;
 import com.ucinema.service.MovieService;
-import com.ucinema.service.MovieScheduleService;
 import com.ucinema.service.ReservationService;
-import com.ucinema.service.HallService;
+import com.ucinema.util.ApplicationContext;
 import com.ucinema.view.LoginScreen;
 
 import javafx.collections.FXCollections;
@@ -44,14 +42,14 @@ import java.util.List;
  */
 public class StudentDashboard {
 
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     private final Stage stage;
     private final Student student;
     private final MovieService movieService;
     private final ReservationService reservationService;
-    private final HallService hallService;
-    private final MovieScheduleService scheduleService;
-    private ListView<Reservation> reservationListView;
-    private ObservableList<Reservation> reservationList;
+    private ListView<ReservationRow> reservationListView;
+    private ObservableList<ReservationRow> reservationList;
 
     /**
      * Constructor
@@ -61,10 +59,9 @@ public class StudentDashboard {
     public StudentDashboard(Stage stage, Student student) {
         this.stage = stage;
         this.student = student;
-        this.movieService = new MovieService();
-        this.reservationService = new ReservationService();
-        this.hallService = new HallService();
-        this.scheduleService = new MovieScheduleService();
+        ApplicationContext context = ApplicationContext.getInstance();
+        this.movieService = context.getMovieService();
+        this.reservationService = context.getReservationService();
     }
 
     /**
@@ -320,13 +317,13 @@ public class StudentDashboard {
         reservationListView.getStyleClass().add("reservation-list");
         VBox.setVgrow(reservationListView, Priority.ALWAYS);
 
-        // Custom cell factory to display reservation details
-        reservationListView.setCellFactory(param -> new javafx.scene.control.ListCell<Reservation>() {
+        // Custom cell factory to display reservation details; rows arrive complete, so no lookups here
+        reservationListView.setCellFactory(param -> new javafx.scene.control.ListCell<ReservationRow>() {
             @Override
-            protected void updateItem(Reservation reservation, boolean empty) {
-                super.updateItem(reservation, empty);
+            protected void updateItem(ReservationRow row, boolean empty) {
+                super.updateItem(row, empty);
 
-                if (empty || reservation == null) {
+                if (empty || row == null) {
                     setText(null);
                     setGraphic(null);
                 } else {
@@ -334,61 +331,24 @@ public class StudentDashboard {
                     cellContent.setPadding(new Insets(10, 5, 10, 5));
                     cellContent.getStyleClass().add("reservation-cell");
 
-                    try {
-                        // Get schedule information
-                        MovieSchedule schedule = scheduleService.findScheduleById(reservation.getScheduleId());
-
-                        // Get movie details
-                        String movieTitle = "Unknown Movie";
-                        if (schedule != null) {
-                            Movie movie = movieService.findMovieById(schedule.getMovieId());
-                            if (movie != null) {
-                                movieTitle = movie.getTitle();
-                            }
-                        }
+                    String movieTitle = row.getMovieTitle() != null ? row.getMovieTitle() : "Unknown Movie";
+                    String hallName = row.getHallName() != null ? row.getHallName() : "Unknown Hall";
+                    String dateTime = row.getStartTime() != null
+                            ? row.getStartTime().format(DATE_TIME_FORMAT) : "Unknown Time";
 
-                        // Get hall details
-                        String hallName = "Unknown Hall";
-                        if (schedule != null) {
-                            try {
-                                hallName = hallService.findHallById(schedule.getHallId()).getName();
-                            } catch (Exception ex) {
-                                System.out.println("Could not find hall: " + ex.getMessage());
-                            }
-                        }
-
-                        // Format date/time
-                        String dateTime = "Unknown Time";
-                        if (schedule != null && schedule.getStartTime() != null) {
-                            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-                            dateTime = schedule.getStartTime().format(formatter);
-                        }
+                    // Create labels
+                    Label movieLabel = new Label(movieTitle);
+                    movieLabel.setFont(Font.font("System", FontWeight.BOLD, 14));
+                    movieLabel.setTextFill(Color.web("#00309c"));
 
-                        // Create labels
-                        Label movieLabel = new Label(movieTitle);
-                        movieLabel.setFont(Font.font("System", FontWeight.BOLD, 14));
-                        movieLabel.setTextFill(Color.web("#00309c"));
+                    Label detailsLabel = new Label(String.format(
+                            "Date/Time: %s | Hall: %s | Seat: %s",
+                            dateTime, hallName, row.getSeatId()));
+                    detailsLabel.setTextFill(Color.GRAY);
 
-                        Label detailsLabel = new Label(String.format(
-                                "Date/Time: %s | Hall: %s | Seat: %s",
-                                dateTime, hallName, reservation.getSeatId()));
-                        detailsLabel.setTextFill(Color.GRAY);
+                    Label priceLabel = new Label(String.format("Price: $%.2f", row.getPrice()));
 
-                        Label priceLabel = new Label(String.format("Price: $%.2f", reservation.getPrice()));
-
-                        cellContent.getChildren().addAll(movieLabel, detailsLabel, priceLabel);
-                    } catch (Exception e) {
-                        // Fallback simple display if we can't get all details
-                        Label simpleLabel = new Label(String.format(
-                                "Reservation #%d - Seat: %s - $%.2f",
-                                reservation.getId(), reservation.getSeatId(), reservation.getPrice()));
-                        simpleLabel.setFont(Font.font("System", FontWeight.BOLD, 14));
-
-                        Label timeLabel = new Label("Reserved on: " +
-                                reservation.getReservationTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
-
-                        cellContent.getChildren().addAll(simpleLabel, timeLabel);
-                    }
+                    cellContent.getChildren().addAll(movieLabel, detailsLabel, priceLabel);
 
                     setGraphic(cellContent);
                     setText(null);
@@ -412,7 +372,7 @@ public class StudentDashboard {
                 (observable, oldValue, newValue) -> cancelButton.setDisable(newValue == null));
 
         cancelButton.setOnAction(e -> {
-            Reservation selectedReservation = reservationListView.getSelectionModel().getSelectedItem();
+            ReservationRow selectedReservation = reservationListView.getSelectionModel().getSelectedItem();
             if (selectedReservation != null) {
                 // Show confirmation dialog
                 Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
@@ -423,7 +383,7 @@ public class StudentDashboard {
                 alert.showAndWait().ifPresent(response -> {
                     if (response == javafx.scene.control.ButtonType.OK) {
                         // Cancel the reservation
-                        boolean success = reservationService.cancelReservation(selectedReservation.getId());
+                        boolean success = reservationService.cancelReservation(selectedReservation.getReservationId());
                         if (success) {
                             // Reload reservations
                             loadReservations();
@@ -455,7 +415,7 @@ public class StudentDashboard {
      * Load the student's reservations
      */
     private void loadReservations() {
-        List<Reservation> reservations = reservationService.getReservationsByStudent(student.getId());
+        List<ReservationRow> reservations = reservationService.getReservationRows(student.getId());
         reservationList = FXCollections.observableArrayList(reservations);
 
         if (reservationListView != null) {
@@ -0,0 +1,246 @@
+package com.ucinema.service;
+
+import com.ucinema.dao.ReservationDAO;
+import com.ucinema.model.entities.Hall;
+import com.ucinema.model.entities.Movie;
+import com.ucinema.model.entities.MovieSchedule;
+import com.ucinema.model.entities.Reservation;
+import com.ucinema.model.entities.Student;
+import com.ucinema.util.HibernateUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many threads booking the same seat of one screening on a scratch SQLite database must leave
+ * exactly one active reservation, whether the unique index on active seats arbitrates alone
+ * or the reservation engine serializes the bookings first. Group claims must be stored whole
+ * or not at all.
+ */
+class ConcurrentSeatReservationTest {
+
+    private static final int THREADS = 16;
+
+    private static File database;
+    private static String url;
+    private static MovieService movieService;
+    private static HallService hallService;
+    private static MovieScheduleService scheduleService;
+    private static Student student;
+    private static Movie movie;
+    private static Hall hall;
+    private static List<String> seatIds;
+    private static String seatId;
+    private static int nextDay;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        database = Files.createTempFile("ucinema-test", ".db").toFile();
+        database.deleteOnExit();
+        url = "jdbc:sqlite:" + database.getAbsolutePath();
+        System.setProperty(HibernateUtil.DATABASE_URL_PROPERTY, url);
+        HibernateUtil.getSessionFactory();
+
+        student = new StudentService().registerStudent("Test", "test@university.edu", "pw", "TEST1");
+        movieService = new MovieService();
+        movie = movieService.addMovie("Test", "", 120, LocalDate.now(), "Drama", "Nobody", "PG");
+        hallService = new HallService();
+        hall = hallService.addHall("Test Hall", 50, "Campus", "standard");
+        scheduleService = new MovieScheduleService(movieService);
+        seatIds = new ArrayList<>();
+        hallService.getSeatsInHall(hall.getId()).forEach(seat -> seatIds.add(seat.getId()));
+        seatId = seatIds.get(0);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        HibernateUtil.shutdown();
+        System.clearProperty(HibernateUtil.DATABASE_URL_PROPERTY);
+        database.delete();
+    }
+
+    @Test
+    void uniqueIndexAdmitsOneClaimPerSeat() throws Exception {
+        MovieSchedule schedule = newSchedule();
+
+        List<ReservationDAO.ClaimResult> results = race(() -> new ReservationDAO().claimSeat(
+                new Reservation(student.getId(), schedule.getId(), seatId, schedule.getPrice())));
+
+        assertEquals(1, results.stream().filter(r -> r == ReservationDAO.ClaimResult.CLAIMED).count());
+        assertEquals(THREADS - 1, results.stream().filter(r -> r == ReservationDAO.ClaimResult.SEAT_TAKEN).count());
+        assertEquals(1, activeReservations(schedule.getId()));
+    }
+
+    @Test
+    void groupWithTakenSeatIsRolledBackAlone() throws Exception {
+        MovieSchedule schedule = newSchedule();
+        List<List<Reservation>> groups = List.of(
+                group(schedule, seatIds.get(0), seatIds.get(1)),
+                group(schedule, seatIds.get(1), seatIds.get(2)),
+                group(schedule, seatIds.get(3)));
+
+        ReservationDAO.ClaimResult[] results = new ReservationDAO().claimGroups(groups);
+
+        assertArrayEquals(new ReservationDAO.ClaimResult[] {ReservationDAO.ClaimResult.CLAIMED,
+                ReservationDAO.ClaimResult.SEAT_TAKEN, ReservationDAO.ClaimResult.CLAIMED}, results);
+        assertEquals(List.of(seatIds.get(0), seatIds.get(1), seatIds.get(3)), activeSeats(schedule.getId()));
+        assertTrue(groups.get(0).get(0).getId() > 0 && groups.get(2).get(0).getId() > 0);
+    }
+
+    @Test
+    void malformedGroupFailsInsteadOfSeatTaken() throws Exception {
+        MovieSchedule schedule = newSchedule();
+        // The second group's missing seat breaks NOT NULL, not the unique index
+        List<List<Reservation>> groups = List.of(
+                group(schedule, seatIds.get(0)),
+                group(schedule, seatIds.get(1), null),
+                group(schedule, seatIds.get(2)));
+
+        ReservationDAO.ClaimResult[] results = new ReservationDAO().claimGroups(groups);
+
+        assertArrayEquals(new ReservationDAO.ClaimResult[] {ReservationDAO.ClaimResult.CLAIMED,
+                ReservationDAO.ClaimResult.FAILED, ReservationDAO.ClaimResult.CLAIMED}, results);
+        assertEquals(List.of(seatIds.get(0), seatIds.get(2)), activeSeats(schedule.getId()));
+    }
+
+    @Test
+    void engineBooksSeatOnce() throws Exception {
+        MovieSchedule schedule = newSchedule();
+        SeatHoldService holds = new SeatHoldService(SeatHoldService.DEFAULT_TTL_MILLIS);
+        ReservationEngine engine = new ReservationEngine(scheduleService, hallService, holds,
+                ReservationEngine.defaultShardCount());
+        try {
+            ReservationService service = new ReservationService(scheduleService, hallService, holds, engine);
+
+            List<Boolean> booked = race(() -> {
+                try {
+                    return service.makeReservation(student.getId(), schedule.getId(), seatId) != null;
+                } catch (IllegalStateException e) {
+                    // Seat already taken
+                    return false;
+                }
+            });
+
+            assertEquals(1, booked.stream().filter(b -> b).count());
+            assertEquals(1, activeReservations(schedule.getId()));
+        } finally {
+            engine.shutdown();
+            holds.shutdown();
+        }
+    }
+
+    @Test
+    void overlappingGroupsBookSharedSeatOnce() throws Exception {
+        MovieSchedule schedule = newSchedule();
+        SeatHoldService holds = new SeatHoldService(SeatHoldService.DEFAULT_TTL_MILLIS);
+        ReservationEngine engine = new ReservationEngine(scheduleService, hallService, holds,
+                ReservationEngine.defaultShardCount());
+        try {
+            ReservationService service = new ReservationService(scheduleService, hallService, holds, engine);
+            AtomicInteger thread = new AtomicInteger();
+
+            // Every group wants the first seat and one seat of its own
+            List<Boolean> booked = race(() -> {
+                List<String> group = List.of(seatId, seatIds.get(1 + thread.getAndIncrement()));
+                try {
+                    return service.makeGroupReservation(student.getId(), schedule.getId(), group) != null;
+                } catch (IllegalStateException e) {
+                    return false;
+                }
+            });
+
+            assertEquals(1, booked.stream().filter(b -> b).count());
+            assertEquals(1, activeReservations(schedule.getId()));
+            assertEquals(2, activeSeats(schedule.getId()).size());
+        } finally {
+            engine.shutdown();
+            holds.shutdown();
+        }
+    }
+
+    private static List<Reservation> group(MovieSchedule schedule, String... seats) {
+        List<Reservation> reservations = new ArrayList<>();
+        for (String seat : seats) {
+            reservations.add(new Reservation(student.getId(), schedule.getId(), seat, schedule.getPrice()));
+        }
+        return reservations;
+    }
+
+    private static MovieSchedule newSchedule() {
+        nextDay++;
+        return scheduleService.addSchedule(movie.getId(), hall.getId(), LocalDateTime.now().plusDays(nextDay), 10.0);
+    }
+
+    /**
+     * Run a task on every thread at once and collect the results
+     */
+    private static <T> List<T> race(Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                return task.call();
+            }));
+        }
+        startGate.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private static List<String> activeSeats(int scheduleId) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url);
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT seat_id FROM reservations WHERE schedule_id = ? AND status != 'cancelled' ORDER BY id")) {
+            statement.setInt(1, scheduleId);
+            List<String> seats = new ArrayList<>();
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    seats.add(result.getString(1));
+                }
+            }
+            return seats;
+        }
+    }
+
+    private static int activeReservations(int scheduleId) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url);
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT COUNT(*) FROM reservations WHERE schedule_id = ? AND seat_id = ? AND status != 'cancelled'")) {
+            statement.setInt(1, scheduleId);
+            statement.setString(2, seatId);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.getInt(1);
+            }
+        }
+    }
+}
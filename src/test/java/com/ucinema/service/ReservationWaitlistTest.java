@@ -0,0 +1,92 @@
+package com.ucinema.service;
+
+import com.ucinema.model.entities.Hall;
+import com.ucinema.model.entities.Movie;
+import com.ucinema.model.entities.MovieSchedule;
+import com.ucinema.model.entities.Reservation;
+import com.ucinema.model.entities.Student;
+import com.ucinema.util.HibernateUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A cancellation promotes the first waiting party that fits, but never into a seat another
+ * student is holding while they pick their seats.
+ */
+class ReservationWaitlistTest {
+
+    private static File database;
+    private static HallService hallService;
+    private static MovieScheduleService scheduleService;
+    private static SeatHoldService holds;
+    private static ReservationEngine engine;
+    private static Movie movie;
+    private static Hall hall;
+    private static Student booker;
+    private static Student holder;
+    private static Student waiter;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        database = Files.createTempFile("ucinema-waitlist", ".db").toFile();
+        database.deleteOnExit();
+        System.setProperty(HibernateUtil.DATABASE_URL_PROPERTY, "jdbc:sqlite:" + database.getAbsolutePath());
+        HibernateUtil.getSessionFactory();
+
+        StudentService studentService = new StudentService();
+        booker = studentService.registerStudent("Booker", "booker@university.edu", "pw", "WAIT1");
+        holder = studentService.registerStudent("Holder", "holder@university.edu", "pw", "WAIT2");
+        waiter = studentService.registerStudent("Waiter", "waiter@university.edu", "pw", "WAIT3");
+        MovieService movieService = new MovieService();
+        movie = movieService.addMovie("Test", "", 120, LocalDate.now(), "Drama", "Nobody", "PG");
+        hallService = new HallService();
+        hall = hallService.addHall("Waitlist Hall", 50, "Campus", "standard");
+        scheduleService = new MovieScheduleService(movieService);
+        holds = new SeatHoldService(SeatHoldService.DEFAULT_TTL_MILLIS);
+        engine = new ReservationEngine(scheduleService, hallService, holds, ReservationEngine.defaultShardCount());
+    }
+
+    @AfterAll
+    static void tearDown() {
+        engine.shutdown();
+        holds.shutdown();
+        HibernateUtil.shutdown();
+        System.clearProperty(HibernateUtil.DATABASE_URL_PROPERTY);
+        database.delete();
+    }
+
+    @Test
+    void heldSeatIsNotGivenToTheWaitlist() {
+        MovieSchedule schedule = scheduleService.addSchedule(movie.getId(), hall.getId(),
+                LocalDateTime.now().plusDays(1), 10.0);
+        int scheduleId = schedule.getId();
+
+        // Book every seat but one, which another student is holding
+        List<String> seatIds = new ArrayList<>();
+        hallService.getSeatsInHall(hall.getId()).forEach(seat -> seatIds.add(seat.getId()));
+        String heldSeat = seatIds.remove(seatIds.size() - 1);
+        List<Reservation> booked = ReservationEngine.await(engine.reserveGroup(booker.getId(), scheduleId, seatIds));
+        assertNotNull(booked);
+        assertTrue(holds.hold(scheduleId, heldSeat, holder.getId()));
+        assertNotNull(ReservationEngine.await(engine.joinWaitlist(waiter.getId(), scheduleId, 2)));
+
+        // Two seats are free now, but one of them is held
+        List<Reservation> promoted = ReservationEngine.await(engine.cancel(booked.get(0)));
+
+        assertEquals(0, promoted.size());
+        assertEquals(1, ReservationEngine.await(engine.getWaitlistPosition(waiter.getId(), scheduleId)));
+        assertNotNull(ReservationEngine.await(engine.reserve(holder.getId(), scheduleId, heldSeat)));
+    }
+}
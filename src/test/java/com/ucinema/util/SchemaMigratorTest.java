@@ -0,0 +1,52 @@
+package com.ucinema.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A database that still holds a double booking stops at migration 3, and the error names the
+ * seats to fix and the migrations left waiting.
+ */
+class SchemaMigratorTest {
+
+    @Test
+    void doubleBookingBlocksMigrationThreeWithTheSeatsToFix() throws Exception {
+        File database = Files.createTempFile("ucinema-migrate", ".db").toFile();
+        database.deleteOnExit();
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database.getAbsolutePath())) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE reservations (id INTEGER PRIMARY KEY, student_id INTEGER, " +
+                        "schedule_id INTEGER, seat_id TEXT, reservation_time TIMESTAMP, status TEXT)");
+                statement.execute("CREATE TABLE movie_schedules (id INTEGER PRIMARY KEY, hall_id INTEGER, " +
+                        "is_active BOOLEAN, start_time TIMESTAMP)");
+                statement.execute("CREATE TABLE waitlist (id INTEGER PRIMARY KEY, schedule_id INTEGER, " +
+                        "status TEXT, created_at TIMESTAMP)");
+                statement.execute("CREATE TABLE students (id INTEGER PRIMARY KEY, email TEXT)");
+                statement.execute("INSERT INTO reservations (id, student_id, schedule_id, seat_id, status) VALUES " +
+                        "(1, 1, 7, 'A1', 'confirmed'), (2, 2, 7, 'A1', 'confirmed'), " +
+                        "(3, 3, 7, 'A2', 'confirmed'), (4, 4, 7, 'A2', 'cancelled')");
+            }
+
+            SQLException error = assertThrows(SQLException.class, () -> SchemaMigrator.migrate(connection));
+
+            String message = error.getMessage();
+            assertTrue(message.startsWith("Schema migration 3 "), message);
+            assertTrue(message.contains("schedule 7, seat A1: reservations 1, 2"), message);
+            assertTrue(!message.contains("seat A2"), message);
+            assertTrue(message.contains("Migrations 4, 5 are not applied"), message);
+            assertEquals(2, SchemaMigrator.currentVersion(connection));
+        } finally {
+            database.delete();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ucinema.util;
+
+import com.ucinema.dao.HallDAO;
+import com.ucinema.model.entities.Hall;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * IDs handed out after a rolled-back block reservation must still be covered by the
+ * id_generators table, or another process could reserve them again.
+ */
+class TableBlockIdGeneratorTest {
+
+    private static File database;
+    private static String url;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        database = Files.createTempFile("ucinema-ids", ".db").toFile();
+        database.deleteOnExit();
+        url = "jdbc:sqlite:" + database.getAbsolutePath();
+        System.setProperty(HibernateUtil.DATABASE_URL_PROPERTY, url);
+        HibernateUtil.getSessionFactory();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        HibernateUtil.shutdown();
+        System.clearProperty(HibernateUtil.DATABASE_URL_PROPERTY);
+        database.delete();
+    }
+
+    @Test
+    void rolledBackBlockIsNotReused() throws Exception {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Transaction transaction = session.beginTransaction();
+            session.persist(new Hall("Rolled back", 50, "Campus", "standard"));
+            session.flush();
+            transaction.rollback();
+        }
+
+        Hall saved = new HallDAO().save(new Hall("Saved", 50, "Campus", "standard"));
+        assertNotNull(saved);
+
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement();
+             ResultSet nextId = statement.executeQuery("SELECT next_id FROM id_generators WHERE entity = 'halls'")) {
+            assertTrue(nextId.next(), "No block recorded for halls");
+            assertTrue(nextId.getLong(1) > saved.getId(),
+                    "Hall " + saved.getId() + " was given an ID the table does not cover");
+        }
+    }
+}